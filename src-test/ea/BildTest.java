@@ -0,0 +1,129 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+import ea.internal.gra.BildVarianten;
+import ea.internal.gra.OffscreenZeichner;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.*;
+
+public class BildTest {
+	@Test
+	public void varianten () {
+		BufferedImage quelle = new BufferedImage(40, 20, BufferedImage.TYPE_INT_ARGB);
+
+		BufferedImage gedreht = BildVarianten.von(quelle).gedreht(Math.PI / 2);
+
+		assertEquals(20, gedreht.getWidth());
+		assertEquals(40, gedreht.getHeight());
+		assertSame(gedreht, BildVarianten.von(quelle).gedreht(Math.PI / 2));
+		assertSame(BildVarianten.von(quelle).skaliert(10, 5), BildVarianten.von(quelle).skaliert(10, 5));
+
+		// 92° liegt bei 72 Schritten am nächsten an 90°
+		assertSame(gedreht, BildVarianten.von(quelle).gedreht(92, 72));
+		assertSame(quelle, BildVarianten.von(quelle).gedreht(361, 72));
+	}
+
+	@Test
+	public void oeffentlicheKopien () {
+		BufferedImage quelle = new BufferedImage(40, 20, BufferedImage.TYPE_INT_ARGB);
+		quelle.setRGB(0, 0, Color.red.getRGB());
+
+		// Die öffentlichen Methoden geben Kopien aus, die verändert werden dürfen
+		BufferedImage skaliert = Bild.resize(quelle, 40, 20);
+		assertNotSame(skaliert, Bild.resize(quelle, 40, 20));
+		assertEquals(Color.red.getRGB(), skaliert.getRGB(0, 0));
+
+		skaliert.setRGB(0, 0, Color.blue.getRGB());
+		assertEquals(Color.red.getRGB(), Bild.resize(quelle, 40, 20).getRGB(0, 0));
+
+		BufferedImage gedreht = Bild.rotieren(quelle, Math.PI / 2);
+		assertEquals(20, gedreht.getWidth());
+		assertNotSame(gedreht, BildVarianten.von(quelle).gedreht(Math.PI / 2));
+
+		gedreht.setRGB(0, 0, Color.blue.getRGB());
+		assertNotEquals(Color.blue.getRGB(), BildVarianten.von(quelle).gedreht(Math.PI / 2).getRGB(0, 0));
+	}
+
+	@Test
+	public void gedrehtZeichnen () {
+		OffscreenZeichner z = new OffscreenZeichner(100, 100);
+
+		BufferedImage quelle = new BufferedImage(40, 10, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = quelle.createGraphics();
+		g.setColor(Color.red);
+		g.fillRect(0, 0, 40, 10);
+		g.dispose();
+
+		Bild bild = new Bild(30, 45, quelle);
+		bild.drehungVorberechnen(72);
+		bild.drehenAbsolut(90);
+		z.cam().wurzel().add(bild);
+
+		z.frameZeichnen();
+
+		// Senkrecht um die Mitte (50|50) gedreht
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(50, 32));
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(50, 68));
+		assertNotEquals(Color.red.getRGB(), z.bild().getRGB(32, 50));
+	}
+
+	@Test
+	public void atlas () {
+		OffscreenZeichner z = new OffscreenZeichner(100, 100);
+		Knoten level = new Knoten();
+
+		for (int i = 0; i < 20; i++) {
+			BufferedImage quelle = new BufferedImage(10, 5 + i % 3, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = quelle.createGraphics();
+			g.setColor(new Color(10 * i, 0, 0));
+			g.fillRect(0, 0, quelle.getWidth(), quelle.getHeight());
+			g.dispose();
+
+			level.add(new Bild((i % 10) * 10, (i / 10) * 10, quelle));
+		}
+
+		// Zu groß für den Atlas
+		level.add(new Bild(0, 50, new BufferedImage(300, 10, BufferedImage.TYPE_INT_ARGB)));
+
+		z.cam().wurzel().add(level);
+
+		try {
+			Atlas.neuAufbauen(level);
+
+			assertEquals(20, Atlas.anzahl());
+			assertEquals(1, Atlas.seiten());
+			assertTrue(Atlas.fuellgrad() > 0 && Atlas.fuellgrad() < 1);
+
+			z.frameZeichnen();
+
+			assertEquals(new Color(30, 0, 0).getRGB(), z.bild().getRGB(35, 2));
+			assertEquals(new Color(190, 0, 0).getRGB(), z.bild().getRGB(95, 12));
+		} finally {
+			Atlas.leeren();
+		}
+
+		assertEquals(0, Atlas.anzahl());
+	}
+}
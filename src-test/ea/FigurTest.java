@@ -0,0 +1,313 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+import ea.internal.gra.FigurCache;
+import ea.internal.gra.PixelFeld;
+import ea.internal.io.FigurFormat;
+import ea.internal.io.ImageLoader;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class FigurTest {
+	@After
+	public void cleanUp () {
+		try {
+			Files.deleteIfExists(Paths.get("test.eaf"));
+			Files.deleteIfExists(Paths.get("test.png"));
+		} catch (IOException e) {
+			fail("Konnte Datei nicht löschen, obwohl sie existiert.");
+		}
+	}
+
+	@Test
+	public void geteilteBilder () {
+		PixelFeld feld = new PixelFeld(2, 2, 3);
+		feld.farbeSetzen(0, 0, Color.red);
+		feld.farbeSetzen(1, 1, new Color(10, 20, 30));
+
+		Figur vorlage = new Figur();
+		vorlage.animationSetzen(new PixelFeld[] {feld});
+		assertTrue(DateiManager.schreiben(vorlage, "", "test.eaf"));
+
+		int vorher = FigurCache.anzahl();
+
+		Figur a = new Figur(0, 0, "test.eaf");
+		Figur b = new Figur(10, 10, "test.eaf");
+
+		assertSame(a.animation()[0], b.animation()[0]);
+		assertEquals(vorher + 1, FigurCache.anzahl());
+
+		a.heller();
+
+		assertNotSame(a.animation()[0], b.animation()[0]);
+		assertEquals(new Color(10, 20, 30).getRGB(), b.animation()[0].argb(1, 1));
+		assertEquals(new Color(10, 20, 30).brighter().getRGB(), a.animation()[0].argb(1, 1));
+
+		b.animationSetzen(new PixelFeld[] {feld});
+
+		assertEquals(vorher, FigurCache.anzahl());
+	}
+
+	@Test
+	public void neuGeschriebeneDatei () {
+		PixelFeld feld = new PixelFeld(1, 1, 1);
+		feld.farbeSetzen(0, 0, Color.red);
+
+		Figur vorlage = new Figur();
+		vorlage.animationSetzen(new PixelFeld[] {feld});
+		assertTrue(DateiManager.schreiben(vorlage, "", "test.eaf"));
+
+		Figur alt = new Figur(0, 0, "test.eaf", false);
+		assertEquals(Color.red.getRGB(), alt.animation()[0].argb(0, 0));
+
+		feld.farbeSetzen(0, 0, Color.blue);
+		vorlage.animationSetzen(new PixelFeld[] {feld});
+		assertTrue(DateiManager.schreiben(vorlage, "", "test.eaf"));
+
+		Figur neu = new Figur(0, 0, "test.eaf", false);
+		assertEquals(Color.blue.getRGB(), neu.animation()[0].argb(0, 0));
+		assertEquals(Color.red.getRGB(), alt.animation()[0].argb(0, 0));
+	}
+
+	@Test
+	public void unveraendertFreigeben () throws InterruptedException {
+		PixelFeld feld = new PixelFeld(1, 1, 1);
+		feld.farbeSetzen(0, 0, Color.red);
+
+		Figur vorlage = new Figur();
+		vorlage.animationSetzen(new PixelFeld[] {feld});
+		assertTrue(DateiManager.schreiben(vorlage, "", "test.eaf"));
+
+		int vorher = FigurCache.anzahl();
+
+		Figur figur = new Figur(0, 0, "test.eaf", false);
+		assertEquals(vorher + 1, FigurCache.anzahl());
+
+		// Die Figur wird nie verändert und gibt ihre Daten daher nie selbst frei
+		figur = null;
+
+		for (int i = 0; i < 50 && FigurCache.anzahl() > vorher; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+
+		assertEquals(vorher, FigurCache.anzahl());
+	}
+
+	@Test
+	public void binaerformat () {
+		PixelFeld[] bilder = {new PixelFeld(3, 2, 4), new PixelFeld(3, 2, 4)};
+		bilder[0].farbeSetzen(0, 0, Color.red);
+		bilder[0].farbeSetzen(2, 1, new Color(1, 2, 3, 100));
+		bilder[1].farbeSetzen(1, 0, Color.blue);
+
+		Figur figur = new Figur();
+		figur.animationSetzen(bilder);
+		figur.positionSetzen(7, 9);
+
+		assertTrue(DateiManager.schreiben(figur, "", "test.eaf"));
+		assertTrue(DateiManager.figurKonvertieren("test.eaf", "test.eaf"));
+
+		Figur gelesen = DateiManager.figurEinlesen("test.eaf");
+
+		assertEquals(2, gelesen.animation().length);
+		assertEquals(4, gelesen.animation()[0].faktor());
+		assertEquals(7, (int) gelesen.dimension().x);
+		assertEquals(Color.red.getRGB(), gelesen.animation()[0].argb(0, 0));
+		assertEquals(Color.blue.getRGB(), gelesen.animation()[1].argb(1, 0));
+		assertEquals(0, gelesen.animation()[1].argb(0, 0));
+
+		// Durchsichtigkeit geht nur im Binärformat nicht verloren
+		assertTrue(DateiManager.figurBinaerSchreiben(figur, "test.eaf"));
+		assertEquals(new Color(1, 2, 3, 100).getRGB(), DateiManager.figurEinlesen("test.eaf").animation()[0].argb(2, 1));
+
+		// Mehr als 256 Farben, ohne Palette
+		PixelFeld bunt = new PixelFeld(20, 20, 1);
+
+		for (int i = 0; i < 400; i++) {
+			bunt.farbeSetzen(i % 20, i / 20, new Color(i * 40));
+		}
+
+		figur.animationSetzen(new PixelFeld[] {bunt});
+		assertTrue(DateiManager.figurBinaerSchreiben(figur, "test.eaf"));
+		assertArrayEquals(bunt.daten(), DateiManager.figurEinlesen("test.eaf").animation()[0].daten());
+	}
+
+	@Test
+	public void beschaedigterKopf () throws IOException {
+		Figur figur = new Figur();
+		figur.animationSetzen(new PixelFeld[] {new PixelFeld(2, 2, 1)});
+		assertTrue(DateiManager.figurBinaerSchreiben(figur, "test.eaf"));
+
+		// Breite mal Höhe läuft als int über und würde eine negative Länge ergeben
+		try (RandomAccessFile datei = new RandomAccessFile("test.eaf", "rw")) {
+			datei.seek(13);
+			datei.writeInt(0x10000);
+			datei.writeInt(0x8000);
+		}
+
+		assertNull(FigurFormat.lesen(new File("test.eaf")));
+
+		// Kleine Bilddaten mit riesiger Größe im Kopf werden gar nicht erst angelegt
+		try (RandomAccessFile datei = new RandomAccessFile("test.eaf", "rw")) {
+			datei.seek(13);
+			datei.writeInt(10000);
+			datei.writeInt(10000);
+		}
+
+		assertNull(FigurFormat.lesen(new File("test.eaf")));
+	}
+
+	@Test
+	public void schreibenImHintergrund () throws InterruptedException {
+		PixelFeld feld = new PixelFeld(2, 1, 1);
+		feld.farbeSetzen(0, 0, Color.green);
+
+		Figur figur = new Figur();
+		figur.animationSetzen(new PixelFeld[] {feld});
+
+		final CountDownLatch fertig = new CountDownLatch(1);
+		final boolean[] erfolg = new boolean[1];
+
+		DateiManager.schreibenImHintergrund(figur, "", "test", new SpeichernReagierbar() {
+			@Override
+			public void speichernBeendet (String pfad, boolean ok) {
+				erfolg[0] = ok;
+				fertig.countDown();
+			}
+		});
+
+		// Änderungen nach dem Aufruf landen nicht mehr in der Datei
+		feld.farbeSetzen(0, 0, Color.red);
+
+		assertTrue(fertig.await(5, TimeUnit.SECONDS));
+		assertTrue(erfolg[0]);
+		assertEquals(Color.green.getRGB(), DateiManager.figurEinlesen("test.eaf").animation()[0].argb(0, 0));
+		assertEquals("Z0-0:rot;" + DateiManager.bruch + "Z1-0:%%;" + DateiManager.bruch, DateiManager.feldInfo(feld));
+	}
+
+	@Test
+	public void schreibenErsetztDatei () {
+		PixelFeld feld = new PixelFeld(1, 1, 1);
+		feld.farbeSetzen(0, 0, Color.green);
+
+		Figur figur = new Figur();
+		figur.animationSetzen(new PixelFeld[] {feld});
+		assertTrue(DateiManager.schreiben(figur, "", "test.eaf"));
+
+		feld.farbeSetzen(0, 0, Color.red);
+		assertTrue(DateiManager.schreiben(figur, "", "test.eaf"));
+
+		assertEquals(Color.red.getRGB(), DateiManager.figurEinlesen("test.eaf").animation()[0].argb(0, 0));
+
+		// Von der temporären Datei darf nichts übrig bleiben
+		for (String name : new File(".").getAbsoluteFile().list()) {
+			assertFalse(name, name.startsWith("figur") && name.endsWith(".tmp"));
+		}
+	}
+
+	@Test
+	public void spriteFigur () throws IOException {
+		BufferedImage blatt = new BufferedImage(6, 4, BufferedImage.TYPE_INT_ARGB);
+		blatt.setRGB(0, 0, 0xFFFF0000);
+		blatt.setRGB(2, 1, 0xFF00FF00);
+		blatt.setRGB(4, 2, 0xFF0000FF);
+		ImageIO.write(blatt, "png", new File("test.png"));
+		ImageLoader.cache().leeren();
+
+		SpriteFigur a = new SpriteFigur(0, 0, "test.png", 2, 2, 5);
+		SpriteFigur b = new SpriteFigur(0, 0, "test.png", 2, 2);
+
+		assertEquals(1, ImageLoader.cache().treffer());
+		assertEquals(2, a.dimension().breite, 0);
+
+		a.animationsSchritt(0);
+		assertEquals(1, a.aktuellesBild());
+
+		for (int i = 0; i < 4; i++) {
+			a.animationsSchritt(0);
+		}
+
+		assertEquals(0, a.aktuellesBild());
+
+		a.animationsBildSetzen(1);
+		assertEquals(1, a.aktuellesBild());
+
+		assertEquals(6, b.animation().length);
+		assertSame(b.animation(), b.animation());
+		assertEquals(0xFFFF0000, b.animation()[0].argb(0, 0));
+		assertEquals(0xFF00FF00, b.animation()[1].argb(0, 1));
+		assertEquals(0xFF0000FF, b.animation()[5].argb(0, 0));
+
+		b.negativ();
+		assertEquals(0xFF00FFFF, b.animation()[0].argb(0, 0));
+		assertEquals(0xFFFF0000, a.animation()[0].argb(0, 0));
+
+		ImageLoader.cache().leeren();
+	}
+
+	@Test
+	public void spriteFigurBearbeiten () throws IOException {
+		BufferedImage blatt = new BufferedImage(4, 2, BufferedImage.TYPE_INT_ARGB);
+		blatt.setRGB(0, 0, 0xFFFF0000);
+		blatt.setRGB(2, 0, 0xFF0000FF);
+		ImageIO.write(blatt, "png", new File("test.png"));
+
+		Figur figur = new SpriteFigur(0, 0, "test.png", 2, 2);
+		figur.faktorSetzen(3);
+
+		// Jede Figur muss die Bearbeitung der Einzelbilder unterstützen
+		figur.animationsBildVerschieben(0, 1);
+		assertEquals(0xFF0000FF, figur.animation()[0].argb(0, 0));
+		assertEquals(0xFFFF0000, figur.animation()[1].argb(0, 0));
+		assertEquals(6, figur.dimension().breite, 0);
+
+		figur.animationsBildVerschieben(1, 0);
+		assertEquals(0xFFFF0000, figur.animation()[0].argb(0, 0));
+		assertEquals(0xFF0000FF, figur.animation()[1].argb(0, 0));
+
+		PixelFeld feld = new PixelFeld(2, 2, 3);
+		feld.farbeSetzen(0, 0, Color.green);
+		figur.animationsBildSetzen(feld, 1);
+		assertSame(feld, figur.animation()[1]);
+
+		figur.animationLoeschen(0);
+		assertEquals(1, figur.animation().length);
+
+		figur.animationSetzen(new PixelFeld[] {feld, feld});
+		assertEquals(2, figur.animation().length);
+
+		ImageLoader.cache().leeren();
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ea;
+
+import ea.internal.gra.OffscreenZeichner;
+import org.junit.Test;
+
+import java.awt.*;
+
+import static org.junit.Assert.*;
+
+public class GeometrieTest {
+	@Test
+	public void pfadZeichnen () {
+		OffscreenZeichner z = new OffscreenZeichner(100, 100);
+
+		RegEck eck = new RegEck(10, 10, 64, 40);
+		eck.farbeSetzen(new Color(255, 0, 0));
+		z.cam().wurzel().add(eck);
+
+		z.frameZeichnen();
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(30, 30));
+		assertNotEquals(Color.red.getRGB(), z.bild().getRGB(70, 70));
+
+		eck.verschieben(new Vektor(40, 40));
+		z.frameZeichnen();
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(70, 70));
+		assertNotEquals(Color.red.getRGB(), z.bild().getRGB(30, 30));
+
+		// Beim Leuchten werden die Dreiecke in Streifen gleicher Farbe gezeichnet
+		eck.leuchtSchritt();
+		z.frameZeichnen();
+		assertNotEquals(0, z.bild().getRGB(70, 70) & 0xFFFFFF);
+	}
+
+	@Test
+	public void verschobeneDreiecke () {
+		RegEck eck = new RegEck(0, 0, 6, 20);
+		BoundingRechteck vorher = eck.formen()[0].dimension();
+
+		eck.verschieben(new Vektor(5, 0));
+		eck.verschieben(new Vektor(5, 10));
+
+		// Die Dreiecke werden erst bei Bedarf verschoben
+		assertEquals(vorher.verschobeneInstanz(new Vektor(10, 10)), eck.formen()[0].dimension());
+		assertEquals(vorher.verschobeneInstanz(new Vektor(10, 10)), eck.flaechen()[0]);
+	}
+
+	@Test
+	@SuppressWarnings ("serial")
+	public void gegenlaeufigeDreiecke () {
+		OffscreenZeichner z = new OffscreenZeichner(100, 110);
+
+		Geometrie stern = new Geometrie(10, 10) {
+			{
+				aktualisieren();
+			}
+
+			@Override
+			public Dreieck[] neuBerechnen () {
+				return new Dreieck[] {
+						new Dreieck(new Punkt(50, 10), new Punkt(90, 80), new Punkt(10, 80)),
+						new Dreieck(new Punkt(10, 30), new Punkt(50, 100), new Punkt(90, 30))
+				};
+			}
+		};
+		stern.farbeSetzen(Color.red);
+		z.cam().wurzel().add(stern);
+
+		// Die Überlappung zweier Dreiecke mit entgegengesetztem Umlaufsinn bleibt gefüllt
+		z.frameZeichnen();
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(50, 55));
+	}
+}
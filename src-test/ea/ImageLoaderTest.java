@@ -0,0 +1,267 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+import ea.internal.io.BildCache;
+import ea.internal.io.ImageLoader;
+import ea.internal.io.RasterCache;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+public class ImageLoaderTest {
+	@After
+	public void cleanUp () throws IOException {
+		Files.deleteIfExists(Paths.get("test.png"));
+		ImageLoader.cache().leeren();
+	}
+
+	@Test
+	public void cache () throws IOException {
+		ImageIO.write(new BufferedImage(8, 4, BufferedImage.TYPE_INT_ARGB), "png", new File("test.png"));
+		ImageLoader.cache().leeren();
+
+		Bild a = new Bild("test.png");
+		Bild b = new Bild(10, 10, "test.png");
+
+		assertSame(a.bild(), b.bild());
+		assertEquals(1, ImageLoader.cache().fehlschlaege());
+		assertEquals(1, ImageLoader.cache().treffer());
+		assertEquals(8 * 4 * 4, ImageLoader.cache().bytes());
+	}
+
+	@Test
+	public void budget () {
+		BildCache cache = new BildCache(100);
+		BufferedImage klein = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage gross = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+
+		cache.ablegen("klein", klein);
+		assertEquals(64, cache.bytes());
+
+		cache.ablegen("gross", gross);
+		assertEquals(0, cache.bytes());
+
+		// Noch in Verwendung, also weiterhin geteilt
+		assertSame(klein, cache.holen("klein"));
+		assertSame(klein, cache.ablegen("klein", new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB)));
+		assertNull(cache.holen("fehlt"));
+		assertEquals(1, cache.fehlschlaege());
+	}
+
+	@Test
+	public void vorlader () throws IOException {
+		ImageIO.write(new BufferedImage(8, 4, BufferedImage.TYPE_INT_ARGB), "png", new File("test.png"));
+		ImageLoader.cache().leeren();
+
+		final int[] fortschritt = new int[2];
+
+		Vorlader vorlader = new Vorlader(new LadenReagierbar() {
+			@Override
+			public void ladeFortschritt (int geladen, int gesamt) {
+				synchronized (fortschritt) {
+					fortschritt[0] = Math.max(fortschritt[0], geladen);
+					fortschritt[1] = gesamt;
+				}
+			}
+		}, "test.png", "fehlt.png");
+
+		assertFalse(vorlader.warten());
+		assertTrue(vorlader.fertig());
+		assertEquals(2, vorlader.anzahl());
+		assertEquals(1f, vorlader.fortschritt(), 0);
+
+		new Bild("test.png");
+
+		assertEquals(1, ImageLoader.cache().treffer());
+
+		synchronized (fortschritt) {
+			assertEquals(2, fortschritt[0]);
+			assertEquals(2, fortschritt[1]);
+		}
+	}
+
+	@Test
+	public void vorladerGroesse () throws IOException {
+		ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB), "png", new File("test.png"));
+		long budget = ImageLoader.cache().budget();
+
+		try {
+			// Das Budget reicht für kein Bild, die vorgeladenen Bilder dürfen trotzdem nicht verloren gehen
+			ImageLoader.cache().budgetSetzen(0);
+
+			Vorlader vorlader = new Vorlader();
+			vorlader.bild("test.png", 80, 60);
+			assertTrue(vorlader.warten());
+
+			for (int i = 0; i < 3; i++) {
+				System.gc();
+			}
+
+			long fehlschlaege = ImageLoader.cache().fehlschlaege();
+			new Bild(0, 0, 80, 60, "test.png");
+			assertEquals(fehlschlaege, ImageLoader.cache().fehlschlaege());
+
+			vorlader.freigeben();
+		} finally {
+			ImageLoader.cache().budgetSetzen(budget);
+		}
+	}
+
+	@Test
+	public void festplattenCache () throws IOException {
+		File verzeichnis = Files.createTempDirectory("bildcache").toFile();
+		BufferedImage quelle = new BufferedImage(3, 2, BufferedImage.TYPE_INT_ARGB);
+		quelle.setRGB(1, 1, 0x80FF0000);
+		ImageIO.write(quelle, "png", new File("test.png"));
+
+		try {
+			RasterCache festplatte = new RasterCache(verzeichnis, 1 << 20);
+			ImageLoader.festplattenCacheSetzen(festplatte);
+
+			assertNull(festplatte.lesen(new File("test.png")));
+			ImageLoader.loadExternalImage("test.png");
+
+			BufferedImage gelesen = festplatte.lesen(new File("test.png"));
+			assertNotNull(gelesen);
+			assertEquals(0x80FF0000, gelesen.getRGB(1, 1));
+
+			// Geänderte Quelldatei ersetzt den alten Eintrag
+			new File("test.png").setLastModified(new File("test.png").lastModified() - 5000);
+			assertNull(festplatte.lesen(new File("test.png")));
+			ImageLoader.cache().leeren();
+			ImageLoader.loadExternalImage("test.png");
+			assertEquals(1, verzeichnis.listFiles().length);
+		} finally {
+			ImageLoader.festplattenCacheSetzen(null);
+
+			for (File f : verzeichnis.listFiles()) {
+				f.delete();
+			}
+
+			verzeichnis.delete();
+		}
+	}
+
+	@Test
+	public void festplattenCacheZielgroesse () throws IOException {
+		File verzeichnis = Files.createTempDirectory("bildcache").toFile();
+		File datei = new File("test.png");
+		ImageIO.write(new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB), "png", datei);
+
+		try {
+			RasterCache festplatte = new RasterCache(verzeichnis, 1 << 20);
+			ImageLoader.festplattenCacheSetzen(festplatte);
+
+			ImageLoader.loadExternalImage("test.png", 20, 15);
+			assertNotNull(festplatte.lesen(datei, 20, 15));
+			assertNull(festplatte.lesen(datei));
+
+			// Die Datei kann danach nicht mehr dekodiert werden, ohne dass der Eintrag veraltet
+			long geaendert = datei.lastModified();
+			Files.write(datei.toPath(), new byte[(int) datei.length()]);
+			datei.setLastModified(geaendert);
+
+			ImageLoader.cache().leeren();
+			BufferedImage gelesen = ImageLoader.loadExternalImage("test.png", 20, 15);
+			assertNotNull(gelesen);
+			assertEquals(20, gelesen.getWidth());
+		} finally {
+			ImageLoader.festplattenCacheSetzen(null);
+
+			for (File f : verzeichnis.listFiles()) {
+				f.delete();
+			}
+
+			verzeichnis.delete();
+		}
+	}
+
+	@Test
+	public void zielgroesseAusOriginal () throws IOException {
+		File datei = new File("test.png");
+		ImageIO.write(new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB), "png", datei);
+
+		ImageLoader.loadExternalImage("test.png");
+		Files.write(datei.toPath(), new byte[0]);
+
+		// Das Bild in Originalgröße wird skaliert, statt die Datei erneut zu dekodieren
+		BufferedImage skaliert = ImageLoader.loadExternalImage("test.png", 20, 15);
+		assertNotNull(skaliert);
+		assertEquals(15, skaliert.getHeight());
+	}
+
+	@Test
+	public void festplattenCacheGrenze () throws IOException {
+		File verzeichnis = Files.createTempDirectory("bildcache").toFile();
+		BufferedImage bild = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+
+		try {
+			long eintrag = 24 + new File(verzeichnis, "q0").getAbsolutePath().getBytes("UTF-8").length + 4 * 16 * 16;
+			RasterCache festplatte = new RasterCache(verzeichnis, 5 * eintrag);
+
+			for (int i = 0; i < 10; i++) {
+				festplatte.schreiben(new File(verzeichnis, "q" + i), bild);
+			}
+
+			long gesamt = 0;
+
+			for (File f : verzeichnis.listFiles()) {
+				gesamt += f.length();
+			}
+
+			// Die mitgezählte Größe stimmt mit dem Verzeichnis überein und hält das Maximum ein
+			assertEquals(gesamt, festplatte.gesamtGroesse());
+			assertTrue(gesamt <= 5 * eintrag);
+			assertNotNull(festplatte.lesen(new File(verzeichnis, "q9")));
+
+			// Ein neuer Cache übernimmt die vorhandenen Einträge
+			assertEquals(gesamt, new RasterCache(verzeichnis, 5 * eintrag).gesamtGroesse());
+		} finally {
+			for (File f : verzeichnis.listFiles()) {
+				f.delete();
+			}
+
+			verzeichnis.delete();
+		}
+	}
+
+	@Test
+	public void zielgroesse () throws IOException {
+		ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB), "png", new File("test.png"));
+
+		Bild skaliert = new Bild(0, 0, 80, 60, "test.png");
+		Bild prozent = new Bild(0, 0, 20, "test.png");
+
+		assertEquals(80, skaliert.bild().getWidth());
+		assertEquals(60, skaliert.dimension().hoehe, 0);
+		assertEquals(400, skaliert.normaleBreite());
+		assertEquals(300, prozent.normaleHoehe());
+		assertSame(skaliert.bild(), prozent.bild());
+	}
+}
@@ -1,7 +1,13 @@
 package ea;
 
+import ea.internal.gra.AenderungsBeobachter;
+import ea.internal.gra.PixelFeld;
+import ea.internal.gra.RaumRaster;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 public class KnotenTest {
@@ -29,4 +35,162 @@ public class KnotenTest {
 		k.entfernen(r);
 		assertEquals(0, k.alleElemente().length);
 	}
+
+	@Test
+	public void reihenfolge () {
+		Knoten k = new Knoten();
+
+		Rechteck a = new Rechteck(0, 0, 10, 10);
+		Rechteck b = new Rechteck(0, 0, 10, 10);
+		Rechteck c = new Rechteck(0, 0, 10, 10);
+		c.zIndex(5);
+
+		k.add(a, c);
+		k.add(b);
+
+		// Vorderstes Element zuerst, bei gleichem Z-Index das neueste
+		assertArrayEquals(new Raum[] {c, b, a}, k.alleElemente());
+
+		a.zIndex(10);
+		assertArrayEquals(new Raum[] {a, c, b}, k.alleElemente());
+
+		k.entfernenOhnePhysikAbmelden(c);
+		assertArrayEquals(new Raum[] {a, b}, k.alleElemente());
+	}
+
+	@Test
+	public void fremdesKindEntfernen () {
+		Knoten k = new Knoten();
+		Rechteck kind = new Rechteck(0, 0, 10, 10);
+		Rechteck fremd = new Rechteck(0, 0, 10, 10);
+		k.add(kind, kind);
+
+		final int[] meldungen = new int[1];
+
+		k.beobachterSetzen(new AenderungsBeobachter() {
+			@Override
+			public void geaendert (Raum ursprung) {
+				meldungen[0]++;
+			}
+		});
+
+		// Nicht enthaltene Objekte lösen keine Meldung aus
+		k.entfernen(fremd);
+		k.entfernenOhnePhysikAbmelden(fremd);
+		assertEquals(0, meldungen[0]);
+
+		k.entfernenOhnePhysikAbmelden(kind);
+		assertTrue(k.besitzt(kind));
+		assertEquals(1, meldungen[0]);
+
+		k.entfernenOhnePhysikAbmelden(kind);
+		assertFalse(k.besitzt(kind));
+		assertEquals(2, meldungen[0]);
+
+		k.entfernenOhnePhysikAbmelden(kind);
+		assertEquals(2, meldungen[0]);
+	}
+
+	@Test
+	public void rasterMehrfach () {
+		RaumRaster raster = new RaumRaster(16);
+		Rechteck r = new Rechteck(0, 0, 10, 10);
+		BoundingRechteck bereich = new BoundingRechteck(0, 0, 100, 100);
+		List<Raum> sichtbar = new ArrayList<>();
+
+		// Wie ohne Raster wird ein mehrfach angestecktes Kind mehrfach gezeichnet
+		raster.einfuegen(r, 0);
+		raster.einfuegen(r, 1);
+		raster.abfragen(bereich, sichtbar);
+		assertEquals(2, sichtbar.size());
+
+		raster.einmalEntfernen(r);
+		raster.abfragen(bereich, sichtbar);
+		assertEquals(1, sichtbar.size());
+
+		raster.einfuegen(r, 2);
+		raster.entfernen(r);
+		raster.abfragen(bereich, sichtbar);
+		assertEquals(0, sichtbar.size());
+	}
+
+	@Test
+	public void lokaleKoordinaten () {
+		Knoten k = new Knoten();
+		k.lokaleKoordinatenSetzen(true);
+
+		Rechteck a = new Rechteck(0, 0, 10, 10);
+		Rechteck b = new Rechteck(20, 0, 10, 10);
+		k.add(a, b);
+
+		k.verschieben(new Vektor(100, 50));
+
+		// Die Kinder behalten ihre lokalen Koordinaten
+		assertEquals(new Punkt(0, 0), a.position());
+		assertEquals(new Punkt(100, 50), a.weltPosition());
+		assertEquals(new BoundingRechteck(100, 50, 30, 10), k.dimension());
+
+		assertTrue(k.schneidet(new Rechteck(125, 55, 2, 2)));
+		assertFalse(k.schneidet(new Rechteck(5, 5, 2, 2)));
+
+		// Beim Abschalten wird der Versatz auf die Kinder übertragen
+		k.lokaleKoordinatenSetzen(false);
+		assertEquals(new Punkt(120, 50), b.position());
+		assertEquals(new BoundingRechteck(100, 50, 30, 10), k.dimension());
+	}
+
+	@Test
+	public void grenzenZwischenspeichern () {
+		Knoten aussen = new Knoten();
+		Knoten innen = new Knoten();
+
+		Rechteck a = new Rechteck(0, 0, 10, 10);
+		Rechteck b = new Rechteck(20, 0, 10, 10);
+		innen.add(a, b);
+		aussen.add(innen);
+
+		assertEquals(new BoundingRechteck(0, 0, 30, 10), aussen.dimension());
+		long neu = aussen.dimensionNeuberechnungen();
+		long treffer = aussen.dimensionTreffer();
+
+		// Ohne Änderung wird nicht neu berechnet
+		assertEquals(new BoundingRechteck(0, 0, 30, 10), aussen.dimension());
+		assertEquals(neu, aussen.dimensionNeuberechnungen());
+		assertEquals(treffer + 1, aussen.dimensionTreffer());
+
+		// Das Verschieben eines Enkels wird bis nach oben gemeldet
+		b.verschieben(new Vektor(10, 5));
+		assertEquals(new BoundingRechteck(0, 0, 40, 15), aussen.dimension());
+		assertEquals(neu + 1, aussen.dimensionNeuberechnungen());
+
+		innen.entfernen(a);
+		assertEquals(new BoundingRechteck(30, 5, 10, 10), aussen.dimension());
+
+		// Lokales Verschieben behält den Zwischenspeicher des verschobenen Knotens
+		innen.lokaleKoordinatenSetzen(true);
+		innen.dimension();
+		long innenNeu = innen.dimensionNeuberechnungen();
+
+		innen.verschieben(new Vektor(-30, -5));
+		assertEquals(new BoundingRechteck(0, 0, 10, 10), aussen.dimension());
+		assertEquals(innenNeu, innen.dimensionNeuberechnungen());
+	}
+
+	@Test
+	public void animationBehaeltGrenzen () {
+		Knoten k = new Knoten();
+
+		Figur figur = new Figur();
+		figur.animationSetzen(new PixelFeld[] {new PixelFeld(2, 2, 3), new PixelFeld(2, 2, 3)});
+		k.add(figur);
+
+		BoundingRechteck vorher = k.dimension();
+		long neu = k.dimensionNeuberechnungen();
+
+		// Ein Animationsschritt ändert nur das Aussehen, nicht die Grenzen
+		figur.animationsSchritt(0);
+		assertEquals(1, figur.aktuellesBild());
+		assertEquals(vorher, k.dimension());
+		assertEquals(neu, k.dimensionNeuberechnungen());
+	}
 }
@@ -0,0 +1,201 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+import ea.internal.gra.OffscreenZeichner;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OffscreenZeichnerTest {
+	@Test
+	public void frameZeichnen () {
+		OffscreenZeichner z = new OffscreenZeichner(100, 80);
+
+		Rechteck r = new Rechteck(10, 10, 20, 20);
+		r.farbeSetzen(Color.red);
+		z.cam().wurzel().add(r);
+
+		long dauer = z.frameZeichnen();
+		assertTrue(dauer >= 0);
+		assertEquals(1, z.frameAnzahl());
+
+		BufferedImage bild = z.bild();
+		assertEquals(100, bild.getWidth());
+		assertEquals(80, bild.getHeight());
+		assertEquals(Color.red.getRGB(), bild.getRGB(15, 15));
+		assertEquals(Color.black.getRGB(), bild.getRGB(50, 50));
+	}
+
+	@Test
+	public void rasterIndex () {
+		OffscreenZeichner z = new OffscreenZeichner(100, 80);
+
+		Knoten level = new Knoten();
+		level.rasterIndexAktivieren(16);
+		z.cam().wurzel().add(level);
+
+		Rechteck sichtbar = new Rechteck(10, 10, 20, 20);
+		sichtbar.farbeSetzen(Color.red);
+		Rechteck ausserhalb = new Rechteck(5000, 5000, 20, 20);
+		ausserhalb.farbeSetzen(Color.blue);
+		level.add(sichtbar, ausserhalb);
+
+		z.frameZeichnen();
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(15, 15));
+		assertEquals(Color.black.getRGB(), z.bild().getRGB(55, 55));
+
+		ausserhalb.verschieben(new Vektor(-4950, -4950));
+		z.frameZeichnen();
+		assertEquals(Color.blue.getRGB(), z.bild().getRGB(55, 55));
+
+		level.entfernen(ausserhalb);
+		z.frameZeichnen();
+		assertEquals(Color.black.getRGB(), z.bild().getRGB(55, 55));
+	}
+
+	@Test
+	public void zwischenspeicher () {
+		OffscreenZeichner z = new OffscreenZeichner(100, 80);
+
+		Knoten hud = new Knoten();
+		hud.alsBildZwischenspeichern(true);
+		z.statNode().add(hud);
+
+		Rechteck r = new Rechteck(10, 10, 20, 20);
+		r.farbeSetzen(Color.red);
+		hud.add(r);
+
+		z.frameZeichnen();
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(15, 15));
+
+		r.farbeSetzen(Color.green);
+		z.frameZeichnen();
+		assertEquals(Color.green.getRGB(), z.bild().getRGB(15, 15));
+
+		r.verschieben(new Vektor(40, 0));
+		z.frameZeichnen();
+		assertEquals(Color.black.getRGB(), z.bild().getRGB(15, 15));
+		assertEquals(Color.green.getRGB(), z.bild().getRGB(55, 15));
+	}
+
+	@Test
+	public void nurAenderungen () {
+		OffscreenZeichner z = new OffscreenZeichner(100, 80);
+		z.nurAenderungenZeichnen(true);
+
+		Rechteck r = new Rechteck(10, 10, 20, 20);
+		r.farbeSetzen(Color.red);
+		z.cam().wurzel().add(r);
+
+		z.frameZeichnen();
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(15, 15));
+
+		r.verschieben(new Vektor(50, 0));
+		z.frameZeichnen();
+		assertEquals(Color.black.getRGB(), z.bild().getRGB(15, 15));
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(65, 15));
+
+		r.sichtbarSetzen(false);
+		z.frameZeichnen();
+		assertEquals(Color.black.getRGB(), z.bild().getRGB(65, 15));
+
+		z.nurAenderungenZeichnen(false);
+	}
+
+	@Test
+	public void nurAenderungenMehrereZeichner () {
+		OffscreenZeichner andere = new OffscreenZeichner(100, 80);
+		OffscreenZeichner z = new OffscreenZeichner(100, 80);
+		andere.nurAenderungenZeichnen(true);
+		z.nurAenderungenZeichnen(true);
+
+		// Ein anderer Zeichner beeinflusst nicht, ob sich dieser die Zeichenflächen merkt
+		andere.nurAenderungenZeichnen(false);
+
+		Rechteck r = new Rechteck(10, 10, 20, 20);
+		r.farbeSetzen(Color.red);
+		z.cam().wurzel().add(r);
+
+		z.frameZeichnen();
+		r.verschieben(new Vektor(50, 0));
+		z.frameZeichnen();
+		assertEquals(Color.black.getRGB(), z.bild().getRGB(15, 15));
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(65, 15));
+
+		z.nurAenderungenZeichnen(false);
+	}
+
+	@Test
+	public void nurAenderungenLokal () {
+		OffscreenZeichner z = new OffscreenZeichner(200, 80);
+		z.nurAenderungenZeichnen(true);
+
+		Knoten k = new Knoten();
+		k.lokaleKoordinatenSetzen(true);
+		z.cam().wurzel().add(k);
+
+		Rechteck r = new Rechteck(0, 10, 10, 10);
+		r.farbeSetzen(Color.red);
+		k.add(r);
+
+		z.frameZeichnen();
+		k.verschieben(new Vektor(100, 0));
+		z.frameZeichnen();
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(105, 15));
+
+		r.verschieben(new Vektor(40, 0));
+		z.frameZeichnen();
+		assertEquals(Color.black.getRGB(), z.bild().getRGB(105, 15));
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(145, 15));
+
+		z.nurAenderungenZeichnen(false);
+	}
+
+	@Test
+	public void zwischenspeicherAusschnitt () {
+		OffscreenZeichner z = new OffscreenZeichner(100, 80);
+
+		Knoten hintergrund = new Knoten();
+		hintergrund.alsBildZwischenspeichern(true);
+		z.cam().wurzel().add(hintergrund);
+
+		Rechteck boden = new Rechteck(0, 10, 20000, 20);
+		boden.farbeSetzen(Color.red);
+		Rechteck marke = new Rechteck(5020, 50, 10, 10);
+		marke.farbeSetzen(Color.green);
+		hintergrund.add(boden, marke);
+
+		z.frameZeichnen();
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(50, 15));
+
+		// Das Bild deckt nur die Kamera und einen Rand ab, nicht den ganzen Inhalt
+		assertTrue(hintergrund.zwischenspeicherBild().getWidth() <= 2 * 100 + 2);
+
+		z.cam().verschieben(new Vektor(5000, 0));
+		z.frameZeichnen();
+		assertEquals(Color.red.getRGB(), z.bild().getRGB(50, 15));
+		assertEquals(Color.green.getRGB(), z.bild().getRGB(25, 55));
+	}
+}
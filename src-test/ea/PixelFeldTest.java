@@ -0,0 +1,116 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+import ea.internal.gra.FarbFilter;
+import ea.internal.gra.PixelFeld;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class PixelFeldTest {
+	@Test
+	public void filterWieColor () {
+		// Groß genug, damit parallel gefiltert wird
+		PixelFeld[] felder = {zufall(200, 100, 1), zufall(200, 100, 2)};
+		Color[][][] vorher = {felder[0].getPic(), felder[1].getPic()};
+
+		FarbFilter.HELLER.anwenden(felder);
+
+		for (int f = 0; f < felder.length; f++) {
+			for (int x = 0; x < 200; x++) {
+				for (int y = 0; y < 100; y++) {
+					Color alt = vorher[f][x][y];
+
+					if (alt == null) {
+						assertNull(felder[f].getPic()[x][y]);
+					} else {
+						assertEquals(alt.brighter().getRGB(), felder[f].argb(x, y));
+					}
+				}
+			}
+		}
+
+		PixelFeld klein = zufall(4, 4, 3);
+		Color[][] alt = klein.getPic();
+		klein.dunkler();
+
+		for (int x = 0; x < 4; x++) {
+			for (int y = 0; y < 4; y++) {
+				if (alt[x][y] != null) {
+					assertEquals(alt[x][y].darker().getRGB(), klein.argb(x, y));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void transformieren () {
+		PixelFeld feld = new PixelFeld(2, 1, 5);
+		feld.farbeSetzen(0, 0, new Color(250, 10, 100, 128));
+
+		feld.transformieren(20, -20, 5);
+
+		assertEquals(new Color(255, 0, 105, 128).getRGB(), feld.argb(0, 0));
+		assertEquals(0, feld.argb(1, 0));
+		assertEquals(1, feld.anzahlPixel());
+	}
+
+	@Test
+	public void getPicKopie () {
+		PixelFeld feld = new PixelFeld(3, 1, 1);
+		feld.farbeSetzen(0, 0, Color.red);
+		feld.farbeSetzen(1, 0, new Color(0, 0, 0, 0));
+		feld.farbeSetzen(2, 0, new Color(255, 0, 0, 0));
+
+		Color[][] bild = feld.getPic();
+
+		// Nur der ARGB-Wert 0 steht für "nicht gezeichnet"
+		assertEquals(Color.red, bild[0][0]);
+		assertNull(bild[1][0]);
+		assertEquals(new Color(255, 0, 0, 0), bild[2][0]);
+		assertEquals(2, feld.anzahlPixel());
+
+		// Die Kopie ist vom PixelFeld unabhängig
+		bild[0][0] = Color.blue;
+		assertEquals(Color.red.getRGB(), feld.argb(0, 0));
+		assertNotSame(bild, feld.getPic());
+	}
+
+	private static PixelFeld zufall (int breite, int hoehe, long seed) {
+		Random random = new Random(seed);
+		PixelFeld feld = new PixelFeld(breite, hoehe, 1);
+
+		for (int x = 0; x < breite; x++) {
+			for (int y = 0; y < hoehe; y++) {
+				if (random.nextInt(4) != 0) {
+					feld.farbeSetzen(x, y, new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+				}
+			}
+		}
+
+		return feld;
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+import ea.internal.gra.OffscreenZeichner;
+import ea.internal.gra.Taktgeber;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TaktgeberTest {
+	private static final long MS = 1000000;
+
+	/**
+	 * Eine Uhr, deren Zeit nur durch Schlafen, aktives Warten oder die simulierte Arbeit eines
+	 * Frames voranschreitet.
+	 */
+	private static class TestUhr implements Taktgeber.Uhr {
+		long zeit = 1000 * MS;
+		long geschlafen;
+
+		@Override
+		public long nanos () {
+			return zeit;
+		}
+
+		@Override
+		public void schlafen (long nanos) {
+			zeit += nanos;
+			geschlafen += nanos;
+		}
+
+		@Override
+		public void nachgeben () {
+			zeit += MS / 10;
+		}
+	}
+
+	/**
+	 * Simuliert einen Frame, dessen Zeichnen die angegebene Zeit braucht.
+	 */
+	private static void frame (Taktgeber takt, TestUhr uhr, long arbeit) throws InterruptedException {
+		takt.frameBeginnen();
+		uhr.zeit += arbeit;
+		takt.warten();
+	}
+
+	@Test
+	public void zielFps () {
+		Taktgeber takt = new Taktgeber(25);
+		assertEquals(25, takt.zielFps());
+
+		takt.zielFpsSetzen(60);
+		assertEquals(60, takt.zielFps());
+
+		takt.zielFpsSetzen(0);
+		assertEquals(0, takt.zielFps());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void negativeFps () {
+		new Taktgeber(-1);
+	}
+
+	@Test
+	public void renderzeitWirdAbgezogen () throws InterruptedException {
+		TestUhr uhr = new TestUhr();
+		Taktgeber takt = new Taktgeber(50, uhr);
+
+		for (int i = 0; i < 10; i++) {
+			frame(takt, uhr, 5 * MS);
+		}
+
+		// 20 ms pro Frame, davon 5 ms Arbeit, der Rest bis kurz vor der Deadline geschlafen
+		assertEquals(20 * MS, takt.deltaNanos(), MS / 10);
+		assertEquals(0.02f, takt.delta(), 0.0001f);
+		assertTrue(uhr.geschlafen >= 10 * (13 * MS));
+		assertEquals(0, takt.uebersprungeneFrames());
+	}
+
+	@Test
+	public void verspaetungWirdAufgeholt () throws InterruptedException {
+		TestUhr uhr = new TestUhr();
+		Taktgeber takt = new Taktgeber(50, uhr);
+
+		frame(takt, uhr, 5 * MS);
+		long start = uhr.zeit;
+
+		// Ein Frame ist etwas zu langsam, der nächste wartet entsprechend kürzer
+		frame(takt, uhr, 30 * MS);
+		frame(takt, uhr, 5 * MS);
+
+		assertEquals(start + 40 * MS, uhr.zeit, MS / 10);
+		assertEquals(0, takt.uebersprungeneFrames());
+	}
+
+	@Test
+	public void verpassteFramesUeberspringen () throws InterruptedException {
+		TestUhr uhr = new TestUhr();
+		Taktgeber takt = new Taktgeber(50, uhr);
+
+		frame(takt, uhr, 5 * MS);
+
+		// 70 ms Arbeit bei 20 ms Periode: die Deadline liegt 50 ms zurück
+		frame(takt, uhr, 70 * MS);
+		assertEquals(2, takt.uebersprungeneFrames());
+
+		// Danach geht es im normalen Takt weiter, ohne die verpassten Frames nachzuholen
+		long start = uhr.zeit;
+		frame(takt, uhr, 5 * MS);
+
+		assertEquals(start + 20 * MS, uhr.zeit, MS / 10);
+		assertEquals(2, takt.uebersprungeneFrames());
+	}
+
+	@Test
+	public void ungebremst () throws InterruptedException {
+		TestUhr uhr = new TestUhr();
+		Taktgeber takt = new Taktgeber(0, uhr);
+
+		frame(takt, uhr, 5 * MS);
+		frame(takt, uhr, 5 * MS);
+
+		assertEquals(0, uhr.geschlafen);
+		assertEquals(5 * MS, takt.deltaNanos(), MS / 10);
+		assertEquals(0, takt.uebersprungeneFrames());
+	}
+
+	@Test
+	public void zeichenschleife () throws InterruptedException {
+		OffscreenZeichner z = new OffscreenZeichner(50, 50);
+		z.takt().zielFpsSetzen(100);
+
+		Thread thread = new Thread(z);
+		thread.start();
+
+		long ende = System.currentTimeMillis() + 5000;
+
+		while (z.frameAnzahl() < 5 && System.currentTimeMillis() < ende) {
+			Thread.sleep(10);
+		}
+
+		z.kill();
+		thread.join();
+
+		assertTrue(z.frameAnzahl() >= 5);
+
+		// Das Delta wird in der Schleife gemessen und liegt ungefähr bei der Periode
+		assertTrue(z.takt().deltaNanos() >= 5 * MS);
+		assertTrue(z.takt().delta() < 1);
+	}
+}
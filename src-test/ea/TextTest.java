@@ -0,0 +1,163 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ea;
+
+import ea.internal.gra.GlyphenAtlas;
+import ea.internal.gra.OffscreenZeichner;
+import ea.internal.io.SchriftartenRegister;
+import org.junit.Test;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class TextTest {
+	@Test
+	public void vermessen () {
+		Text text = new Text("Punkte: 0", 100, 50, 12);
+		float breite = text.dimension().breite;
+
+		assertTrue(breite > 0);
+		assertEquals(100, text.dimension().x, 0);
+
+		text.setAnker(Text.Anker.RECHTS);
+		assertEquals(100 - breite, text.dimension().x, 0);
+
+		text.setzeInhalt("Punkte: 100000");
+		assertTrue(text.dimension().breite > breite);
+		assertEquals(100, text.dimension().x + text.dimension().breite, 0);
+
+		float hoehe = text.dimension().hoehe;
+		text.setzeGroesse(24);
+		assertTrue(text.dimension().hoehe > hoehe);
+	}
+
+	@Test
+	public void schriftarten () {
+		assertTrue(Manager.fontExistiert("SansSerif"));
+		assertFalse(Manager.fontExistiert("Gibt es nicht"));
+
+		// Systemschriften warten nicht auf die Suche
+		assertNull(SchriftartenRegister.holen("SansSerif"));
+		assertNull(SchriftartenRegister.holen("Gibt es nicht"));
+
+		Font eigene = new Font("Eigene Schrift", Font.PLAIN, 1);
+		SchriftartenRegister.hinzufuegen(eigene);
+
+		assertSame(eigene, SchriftartenRegister.holen("Eigene Schrift"));
+		assertTrue(SchriftartenRegister.namen().contains("Eigene Schrift"));
+		assertEquals(20, new Text("Test", 0, 0, "Eigene Schrift", 20).font.getSize());
+	}
+
+	@Test
+	public void schriftdateien () throws IOException, FontFormatException, InterruptedException {
+		File quellen = new File("/usr/share/fonts/truetype/dejavu");
+		File[] dateien = quellen.listFiles();
+		assumeTrue(dateien != null && dateien.length > 0);
+
+		File verzeichnis = Files.createTempDirectory("schriften").toFile();
+		SchriftartenRegister.indexDateiSetzen(null);
+
+		try {
+			List<String> erwartet = new ArrayList<>();
+
+			for (File datei : dateien) {
+				if (datei.getName().endsWith(".ttf")) {
+					Files.copy(datei.toPath(), new File(verzeichnis, datei.getName()).toPath());
+					erwartet.add(Font.createFont(Font.TRUETYPE_FONT, datei).getName());
+				}
+			}
+
+			SchriftartenRegister.verzeichnisHinzufuegen(verzeichnis);
+
+			// Ein Text wartet nicht auf die Suche, sondern bekommt die Schriftart nachträglich
+			Text text = new Text("Text", 0, 0, erwartet.get(0));
+			final CountDownLatch gesucht = new CountDownLatch(1);
+
+			SchriftartenRegister.nachSuche(new Runnable() {
+				@Override
+				public void run () {
+					gesucht.countDown();
+				}
+			});
+
+			assertTrue(gesucht.await(30, TimeUnit.SECONDS));
+			assertFalse(SchriftartenRegister.sucht());
+			assertEquals(erwartet.get(0), text.font.getName());
+
+			// Die Namen aus dem Index stimmen mit denen der erstellten Schriftarten überein
+			assertTrue(SchriftartenRegister.namen().containsAll(erwartet));
+
+			for (String name : erwartet) {
+				assertEquals(name, SchriftartenRegister.holen(name).getName());
+			}
+		} finally {
+			for (File f : verzeichnis.listFiles()) {
+				f.delete();
+			}
+
+			verzeichnis.delete();
+		}
+	}
+
+	@Test
+	public void bitmapText () {
+		Text normal = new Text("Treffer: 42", 10, 10, 16);
+		BitmapText bitmap = new BitmapText("Treffer: 42", 10, 10, 16);
+
+		assertEquals(normal.dimension().breite, bitmap.dimension().breite, 0);
+
+		OffscreenZeichner z = new OffscreenZeichner(200, 50);
+		z.cam().wurzel().add(bitmap);
+		z.frameZeichnen();
+
+		int gezeichnet = 0;
+
+		for (int x = 0; x < 200; x++) {
+			for (int y = 0; y < 50; y++) {
+				if ((z.bild().getRGB(x, y) & 0xFFFFFF) != 0) {
+					gezeichnet++;
+				}
+			}
+		}
+
+		assertTrue(gezeichnet > 50);
+
+		assertEquals(1, GlyphenAtlas.holen(bitmap.font, bitmap.farbe).seitenAnzahl());
+
+		// Leuchten wechselt nur die Farbe, die Breite bleibt
+		bitmap.leuchtSchritt();
+		assertEquals(normal.dimension().breite, bitmap.dimension().breite, 0);
+
+		// Für das Messen wird kein Atlas in einer neuen Farbe angelegt
+		int atlanten = GlyphenAtlas.anzahl();
+		BitmapText gemessen = new BitmapText("Treffer: 42", 10, 10, 16);
+		gemessen.setzeFarbe(new Color(1, 2, 3));
+		assertEquals(normal.dimension().breite, gemessen.dimension().breite, 0);
+		assertEquals(atlanten, GlyphenAtlas.anzahl());
+	}
+}
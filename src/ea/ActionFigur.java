@@ -108,6 +108,17 @@ public class ActionFigur extends Raum {
 	 */
 	private boolean performsAction = false;
 
+	/**
+	 * Die zuletzt gezeigte Figur. Nur sie wird beim Verschieben mitbewegt, alle anderen werden erst
+	 * bei ihrer nächsten Verwendung an ihre Position gebracht.
+	 */
+	private Figur letzte;
+
+	/**
+	 * Die CombiFigur, zu der diese ActionFigur gehört. Sie wird über jede Änderung mit informiert.
+	 */
+	private volatile CombiFigur besitzer;
+
 	/**
 	 * Konstruktor.
 	 *
@@ -171,7 +182,20 @@ public class ActionFigur extends Raum {
 	 * @return Die Figur, die gerade von dieser ActionFigur zu sehen ist.
 	 */
 	public Figur aktuelleFigur () {
-		return performsAction ? actions[indexAction] : states[indexState];
+		Figur figur = performsAction ? actions[indexAction] : states[indexState];
+		Figur vorher = letzte;
+
+		if (figur != vorher) {
+			// Erst beim Wechsel an die Position der bisher gezeigten Figur bringen
+			if (vorher != null) {
+				BoundingRechteck r = vorher.dimension();
+				figur.positionSetzen(r.x, r.y);
+			}
+
+			letzte = figur;
+		}
+
+		return figur;
 	}
 
 	/**
@@ -229,6 +253,7 @@ public class ActionFigur extends Raum {
 		for (int i = 0; i < stateNames.length; i++) {
 			if (stateNames[i].equals(name)) {
 				indexState = i;
+				lageGeaendert();
 				return;
 			}
 		}
@@ -257,6 +282,7 @@ public class ActionFigur extends Raum {
 			if (actionNames[i].equals(name)) {
 				hatAktionSetzen(true);
 				indexAction = i;
+				lageGeaendert();
 				return;
 			}
 		}
@@ -281,6 +307,7 @@ public class ActionFigur extends Raum {
 		}
 
 		performsAction = action;
+		lageGeaendert();
 	}
 
 	/**
@@ -414,6 +441,8 @@ public class ActionFigur extends Raum {
 		for (int i = 0; i < states.length; i++) {
 			states[i].faktorSetzen(faktor);
 		}
+
+		lageGeaendert();
 	}
 
 	/**
@@ -423,20 +452,19 @@ public class ActionFigur extends Raum {
 	 * 		Die aktuelle Runde
 	 */
 	private void animationsSchritt (int runde) {
+		Figur vorher = performsAction ? actions[indexAction] : states[indexState];
+		int bild = vorher.aktuellesBild();
+
 		if (performsAction) {
 			animationsActionSchritt(runde);
 		} else {
 			states[indexState].animationsSchritt(runde);
 		}
 
-		BoundingRechteck r = this.dimension();
+		Figur nachher = performsAction ? actions[indexAction] : states[indexState];
 
-		for (int i = 0; i < actions.length; i++) {
-			actions[i].positionSetzen(r.x, r.y);
-		}
-
-		for (int i = 0; i < states.length; i++) {
-			states[i].positionSetzen(r.x, r.y);
+		if (nachher == vorher && nachher.aktuellesBild() != bild) {
+			darstellungGeaendert();
 		}
 	}
 
@@ -489,15 +517,35 @@ public class ActionFigur extends Raum {
 	public void zeichnen (Graphics2D g, BoundingRechteck r) {
 		super.beforeRender(g, r);
 
-		if (performsAction) {
-			actions[indexAction].zeichnen(g, r);
-		} else {
-			states[indexState].zeichnen(g, r);
-		}
+		aktuelleFigur().zeichnen(g, r);
 
 		super.afterRender(g, r);
 	}
 
+	/**
+	 * {@inheritDoc} Gehört diese ActionFigur zu einer CombiFigur, wird auch diese informiert.
+	 */
+	@Override
+	void benachrichtigen (Raum ursprung, boolean lage) {
+		super.benachrichtigen(ursprung, lage);
+
+		CombiFigur c = besitzer;
+
+		if (c != null) {
+			c.benachrichtigen(ursprung, lage);
+		}
+	}
+
+	/**
+	 * Setzt die CombiFigur, zu der diese ActionFigur gehört.
+	 *
+	 * @param besitzer
+	 * 		Die CombiFigur, die über Änderungen informiert werden soll
+	 */
+	void besitzerSetzen (CombiFigur besitzer) {
+		this.besitzer = besitzer;
+	}
+
 	/**
 	 * Berechnet ein minimales BoundingRechteck, das das Objekt <b>voll einschließt</b>.
 	 *
@@ -509,7 +557,7 @@ public class ActionFigur extends Raum {
 	@API
 	@Override
 	public BoundingRechteck dimension () {
-		return performsAction ? actions[indexAction].dimension() : states[indexState].dimension();
+		return aktuelleFigur().dimension();
 	}
 
 	/**
@@ -522,13 +570,9 @@ public class ActionFigur extends Raum {
 	@Override
 	@SuppressWarnings ( "unused" )
 	public void verschieben (Vektor v) {
-		for (int i = 0; i < states.length; i++) {
-			states[i].verschieben(v);
-		}
+		aktuelleFigur().verschieben(v);
 
-		for (int i = 0; i < actions.length; i++) {
-			actions[i].verschieben(v);
-		}
+		lageGeaendert();
 	}
 
 	/**
@@ -546,9 +590,6 @@ public class ActionFigur extends Raum {
 	 */
 	@Override
 	public BoundingRechteck[] flaechen () {
-		if (performsAction) {
-			return actions[indexAction].flaechen();
-		}
-		return states[indexState].flaechen();
+		return aktuelleFigur().flaechen();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+import ea.internal.gra.PixelFeld;
+import ea.internal.gra.TexturAtlas;
+
+/**
+ * Der Atlas fasst viele kleine Bilder und Figuren auf wenigen großen Bildern zusammen. Sehr viele
+ * kleine Grafiken lassen sich so deutlich schneller zeichnen.<br /><br /> Am besten wird der Atlas
+ * nach dem Laden eines Levels aufgebaut: <code><br /> Atlas.neuAufbauen(level);<br /></code><br />
+ * Grafiken, die sich danach verändern (zum Beispiel durch <code>heller()</code>), werden bis zum
+ * nächsten Aufbau wieder einzeln gezeichnet.
+ */
+public final class Atlas {
+	private Atlas () {
+		// keine Objekte erlaubt!
+	}
+
+	/**
+	 * Meldet alle Bilder und Figuren für den nächsten Aufbau an. Knoten werden samt aller
+	 * enthaltenen Objekte angemeldet.
+	 *
+	 * @param objekte
+	 * 		Die anzumeldenden Objekte
+	 */
+	@API
+	public static void anmelden (Raum... objekte) {
+		TexturAtlas atlas = TexturAtlas.global();
+
+		for (Raum m : objekte) {
+			if (m instanceof Knoten) {
+				anmelden(((Knoten) m).alleElemente());
+			} else if (m instanceof Bild) {
+				atlas.anmelden(((Bild) m).bild());
+			} else if (m instanceof SpriteFigur) {
+				atlas.anmelden(((SpriteFigur) m).blatt());
+			} else if (m instanceof Figur) {
+				for (PixelFeld feld : ((Figur) m).animation()) {
+					atlas.anmelden(feld);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Verteilt alle angemeldeten Grafiken neu auf den Atlas.
+	 */
+	@API
+	public static void aufbauen () {
+		TexturAtlas.global().aufbauen();
+	}
+
+	/**
+	 * Verwirft den bisherigen Atlas und baut ihn nur mit den übergebenen Objekten neu auf, zum
+	 * Beispiel beim Wechsel in ein neues Level.
+	 *
+	 * @param objekte
+	 * 		Die Objekte des neuen Levels
+	 */
+	@API
+	public static void neuAufbauen (Raum... objekte) {
+		leeren();
+		anmelden(objekte);
+		aufbauen();
+	}
+
+	/**
+	 * Verwirft den Atlas, alle Grafiken werden wieder einzeln gezeichnet.
+	 */
+	@API
+	public static void leeren () {
+		TexturAtlas.global().leeren();
+	}
+
+	/**
+	 * Setzt die Größe der Atlasseiten. Wirkt sich erst beim nächsten Aufbau aus.
+	 *
+	 * @param seitenGroesse
+	 * 		Die Kantenlänge einer Seite in Pixeln, standardmäßig <code>1024</code>
+	 * @param maximaleKante
+	 * 		Grafiken, die breiter oder höher sind, werden nicht aufgenommen. Standardmäßig
+	 * 		<code>256</code>.
+	 */
+	@API
+	public static void groessenSetzen (int seitenGroesse, int maximaleKante) {
+		TexturAtlas.global().groessenSetzen(seitenGroesse, maximaleKante);
+	}
+
+	/**
+	 * @return Die Anzahl an Grafiken im Atlas
+	 */
+	@API
+	public static int anzahl () {
+		return TexturAtlas.global().anzahl();
+	}
+
+	/**
+	 * @return Die Anzahl an Seiten des Atlas
+	 */
+	@API
+	public static int seiten () {
+		return TexturAtlas.global().seitenAnzahl();
+	}
+
+	/**
+	 * @return Der Anteil der Atlasfläche, der tatsächlich belegt ist, zwischen <code>0</code> und
+	 * <code>1</code>
+	 */
+	@API
+	public static float fuellgrad () {
+		return TexturAtlas.global().fuellgrad();
+	}
+}
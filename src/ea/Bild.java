@@ -20,11 +20,14 @@
 package ea;
 
 import ea.internal.collision.Collider;
+import ea.internal.gra.BildVarianten;
+import ea.internal.gra.TexturAtlas;
 import ea.internal.io.ImageLoader;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
 
 /**
  * Ein Bild als Grafische Repraesentation einer Bilddatei, die gezeichnet werden kann.
@@ -63,6 +66,12 @@ public class Bild extends Raum {
 	 */
 	private BufferedImage img;
 
+	/**
+	 * In wie vielen Schritten pro voller Umdrehung gedrehte Varianten vorberechnet werden,
+	 * <code>0</code> wenn die Drehung beim Zeichnen berechnet wird.
+	 */
+	private int drehungsSchritte = 0;
+
 	/**
 	 * Minimaler Konstruktor. Erstellt ein neues Bild an der Position (0|0).
 	 *
@@ -134,14 +143,23 @@ public class Bild extends Raum {
 	 * 		<code>breite</code> und <code>hoehe</code> beschreiben diesen Flaeche.
 	 */
 	public Bild (float x, float y, int breite, int hoehe, String verzeichnis, boolean wiederholen) {
-		this(x, y, verzeichnis);
-		this.wiederholen = wiederholen;
+		this.position = new Punkt(x, y);
 		this.breite = breite;
 		this.hoehe = hoehe;
 		this.wiederholen = wiederholen;
 
-		if (!wiederholen) {
-			img = resize(img, breite, hoehe);
+		if (wiederholen) {
+			img = ImageLoader.loadExternalImage(verzeichnis);
+
+			urBreite = img.getWidth();
+			urHoehe = img.getHeight();
+		} else {
+			// Direkt in der Zielgröße dekodieren, statt das ganze Bild zu laden
+			img = ImageLoader.loadExternalImage(verzeichnis, breite, hoehe);
+
+			Dimension groesse = ImageLoader.bildGroesse(verzeichnis);
+			urBreite = groesse.width;
+			urHoehe = groesse.height;
 		}
 	}
 
@@ -156,19 +174,12 @@ public class Bild extends Raum {
 	 * 		Die neue Breite des Bildes
 	 * @param height
 	 * 		Die neue Hoehe des Bildes
+	 *
+	 * @return Das skalierte Bild als eigene Kopie, die verändert werden darf. Die Skalierung selbst
+	 * wird pro Größe nur einmal berechnet.
 	 */
 	public static BufferedImage resize (BufferedImage img, int width, int height) {
-		GraphicsEnvironment env = GraphicsEnvironment.getLocalGraphicsEnvironment();
-		GraphicsConfiguration gc = env.getDefaultScreenDevice().getDefaultConfiguration();
-
-		BufferedImage resize = gc.createCompatibleImage(img.getWidth(), img.getHeight(), img.getTransparency());
-		Graphics2D g = resize.createGraphics();
-
-		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-		g.drawImage(img, 0, 0, width, height, 0, 0, img.getWidth(), img.getHeight(), null);
-		g.dispose();
-
-		return resize;
+		return kopie(BildVarianten.von(img).skaliert(width, height));
 	}
 
 	/**
@@ -186,9 +197,15 @@ public class Bild extends Raum {
 	 * 		Der Verzeichnispfad des Bildes, das geladen werden soll.
 	 */
 	public Bild (float x, float y, int prozent, String verzeichnis) {
-		this(x, y, verzeichnis);
+		this(x, y, ImageLoader.bildGroesse(verzeichnis), prozent, verzeichnis);
+	}
 
-		img = resize(img, img.getWidth() * prozent / 100, (img.getHeight() * prozent) / 100);
+	/**
+	 * Hilfskonstruktor für die prozentuale Größenangabe, damit die Originalgröße nur einmal
+	 * bestimmt wird.
+	 */
+	private Bild (float x, float y, Dimension groesse, int prozent, String verzeichnis) {
+		this(x, y, groesse.width * prozent / 100, (groesse.height * prozent) / 100, verzeichnis);
 	}
 
 	/**
@@ -219,7 +236,9 @@ public class Bild extends Raum {
 	 * @see Rotation
 	 */
 	public void rotieren (Rotation rot) {
-		img = rotieren(img, rot.winkelBogen());
+		// Das Bild wird nie verändert und kann daher mit anderen Bildern geteilt werden
+		img = BildVarianten.von(img).gedreht(rot.winkelBogen());
+		lageGeaendert();
 	}
 
 	/**
@@ -231,20 +250,54 @@ public class Bild extends Raum {
 	 * 		Das zu rotierende Bild
 	 * @param angle
 	 * 		Der Winkel im Bogenmass, um den gedreht werden soll.
+	 *
+	 * @return Das gedrehte Bild, gerade so groß, dass es vollständig hineinpasst, als eigene Kopie,
+	 * die verändert werden darf. Die Drehung selbst wird pro Winkel nur einmal berechnet.
 	 */
 	public static BufferedImage rotieren (BufferedImage img, double angle) {
-		int w = img.getWidth();
-		int h = img.getHeight();
+		return kopie(BildVarianten.von(img).gedreht(angle));
+	}
 
-		BufferedImage dimg = new BufferedImage((int) (w * Math.sin(angle) + w * Math.cos(angle)), (int) (h * Math.sin(angle) + h * Math.cos(angle)), img.getType());
+	/**
+	 * Kopiert ein geteiltes Bild, damit Aufrufer es gefahrlos verändern können.
+	 */
+	private static BufferedImage kopie (BufferedImage img) {
+		ColorModel farben = img.getColorModel();
 
-		Graphics2D g = dimg.createGraphics();
-		g.rotate(angle, w / 2, h / 2);
-		g.drawImage(img, null, (int) (Math.cos(angle) * h / 2 * Math.sin(angle)), (int) (Math.cos(angle) * h / 2 * Math.sin(angle)));
+		return new BufferedImage(farben, img.copyData(null), farben.isAlphaPremultiplied(), null);
+	}
 
-		g.dispose();
+	/**
+	 * Setzt, ob Drehungen dieses Bildes (über <code>drehenAbsolut</code> bzw.
+	 * <code>drehenRelativ</code>) vorberechnet werden sollen.<br /> Der Winkel wird dann auf eine
+	 * feste Anzahl an Schritten pro Umdrehung gerundet. Für jeden Schritt wird das gedrehte Bild
+	 * nur einmal berechnet und danach direkt gezeichnet, was sich besonders für sich ständig
+	 * drehende Objekte lohnt.
+	 *
+	 * @param schritte
+	 * 		Die Anzahl an Schritten pro voller Umdrehung, z.B. <code>72</code> für 5°-Schritte.
+	 * 		<code>0</code> schaltet die Vorberechnung aus.
+	 */
+	@API
+	public void drehungVorberechnen (int schritte) {
+		if (schritte < 0) {
+			throw new IllegalArgumentException("Die Anzahl an Schritten darf nicht negativ sein. Deine Eingabe: " + schritte);
+		}
 
-		return dimg;
+		this.drehungsSchritte = schritte;
+		darstellungGeaendert();
+	}
+
+	/**
+	 * Setzt, ob beim starken Verkleinern von Bildern über Zwischenstufen halber Größe skaliert
+	 * wird. Das sieht ruhiger aus, kostet aber etwas mehr Speicher.
+	 *
+	 * @param aktiv
+	 * 		<code>true</code>, um Zwischenstufen zu verwenden
+	 */
+	@API
+	public static void mipmapsVerwenden (boolean aktiv) {
+		BildVarianten.mipmapsSetzen(aktiv);
 	}
 
 	/**
@@ -259,10 +312,26 @@ public class Bild extends Raum {
 	 */
 	public void zeichnen (Graphics2D g, BoundingRechteck r) {
 		if (r.schneidetBasic(this.dimension())) {
-			super.beforeRender(g, r);
+			boolean vorberechnet = drehungsSchritte > 0 && !wiederholen && gibDrehung() != 0;
+
+			super.beforeRender(g, r, !vorberechnet);
+
+			if (vorberechnet) {
+				BufferedImage gedreht = BildVarianten.von(img).gedreht(gibDrehung(), drehungsSchritte);
+				Punkt mitte = mittelPunkt();
+
+				g.drawImage(gedreht, (int) (mitte.x - r.x - gedreht.getWidth() / 2), (int) (mitte.y - r.y - gedreht.getHeight() / 2), null);
+			} else if (!wiederholen) {
+				int x = (int) (position.realX() - r.x);
+				int y = (int) (position.realY() - r.y);
+
+				TexturAtlas.Region region = TexturAtlas.global().region(img);
 
-			if (!wiederholen) {
-				g.drawImage(img, (int) (position.realX() - r.x), (int) (position.realY() - r.y), null);
+				if (region != null) {
+					g.drawImage(region.seite, x, y, x + region.breite, y + region.hoehe, region.x, region.y, region.x + region.breite, region.y + region.hoehe, null);
+				} else {
+					g.drawImage(img, x, y, null);
+				}
 			} else {
 				// Texturfarbe erstellen, Anchor-Rechteck hat genau die Bildmaße
 				Paint tp = new TexturePaint(img, new Rectangle2D.Double(-r.x + position.realX(), -r.y + position.realY(), img.getWidth(), img.getHeight()));
@@ -318,7 +387,8 @@ public class Bild extends Raum {
 
 	/**
 	 * Gibt das Bild als <code>BufferedImage</code> zurueck.<br /> Dies ist eine
-	 * JAVA-Standartklasse.
+	 * JAVA-Standartklasse.<br /> <b>Achtung:</b> Bilder aus derselben Datei teilen sich dieses
+	 * Objekt, es sollte daher nicht verändert werden.
 	 *
 	 * @return Das Bild als <code>BufferedImage</code>.
 	 */
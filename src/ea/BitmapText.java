@@ -0,0 +1,133 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+import ea.internal.gra.GlyphenAtlas;
+
+import java.awt.*;
+
+/**
+ * Ein Text, dessen Zeichen nur einmal gezeichnet und danach aus einem Zwischenspeicher kopiert
+ * werden.<br /> Ein <code>BitmapText</code> verhält sich wie ein normaler <code>Text</code>
+ * (Anker, Leuchten, Farben, Schriftarten), lässt sich aber deutlich schneller zeichnen. Er eignet
+ * sich besonders für viele kleine Texte wie Schadenszahlen, Beschriftungen oder Punktestände.<br
+ * /><br /> Alle BitmapTexte mit derselben Schriftart, Größe und Farbe teilen sich ihre
+ * Zeichen.
+ */
+public class BitmapText extends Text {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Erstellt einen BitmapText in Weiß mit der Standardschriftart und Größe 24.
+	 *
+	 * @param inhalt
+	 * 		Der Inhalt des Textes
+	 * @param x
+	 * 		X-Koordinate
+	 * @param y
+	 * 		Y-Koordinate
+	 */
+	public BitmapText (String inhalt, float x, float y) {
+		super(inhalt, x, y);
+	}
+
+	/**
+	 * Erstellt einen BitmapText in Weiß mit der Standardschriftart.
+	 *
+	 * @param inhalt
+	 * 		Der Inhalt des Textes
+	 * @param x
+	 * 		X-Koordinate
+	 * @param y
+	 * 		Y-Koordinate
+	 * @param schriftGroesse
+	 * 		Die Groesse, in der die Schrift dargestellt werden soll
+	 */
+	public BitmapText (String inhalt, float x, float y, int schriftGroesse) {
+		super(inhalt, x, y, schriftGroesse);
+	}
+
+	/**
+	 * Erstellt einen BitmapText in Weiß.
+	 *
+	 * @param inhalt
+	 * 		Der Inhalt des Textes
+	 * @param x
+	 * 		X-Koordinate
+	 * @param y
+	 * 		Y-Koordinate
+	 * @param fontName
+	 * 		Der Name des zu verwendenden Fonts
+	 * @param schriftGroesse
+	 * 		Die Groesse, in der die Schrift dargestellt werden soll
+	 */
+	public BitmapText (String inhalt, float x, float y, String fontName, int schriftGroesse) {
+		super(inhalt, x, y, fontName, schriftGroesse);
+	}
+
+	/**
+	 * Erstellt einen BitmapText.
+	 *
+	 * @param inhalt
+	 * 		Der Inhalt des Textes
+	 * @param x
+	 * 		X-Koordinate
+	 * @param y
+	 * 		Y-Koordinate
+	 * @param fontName
+	 * 		Der Name des zu verwendenden Fonts
+	 * @param schriftGroesse
+	 * 		Die Groesse, in der die Schrift dargestellt werden soll
+	 * @param schriftart
+	 * 		Die Schriftart dieses Textes: 0: Normal, 1: Fett, 2: Kursiv, 3: Fett & Kursiv
+	 * @param farbe
+	 * 		Die Farbe, die für den Text benutzt werden soll.
+	 */
+	public BitmapText (String inhalt, float x, float y, String fontName, int schriftGroesse, int schriftart, String farbe) {
+		super(inhalt, x, y, fontName, schriftGroesse, schriftart, farbe);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void zeichnen (Graphics2D g, BoundingRechteck r) {
+		BoundingRechteck d = this.dimension();
+
+		if (!r.schneidetBasic(d)) {
+			return;
+		}
+
+		super.beforeRender(g, r);
+
+		GlyphenAtlas.holen(font, farbe).zeichnen(g, inhalt, (int) (d.x - r.x), (int) (position.y - r.y + groesse));
+
+		super.afterRender(g, r);
+	}
+
+	/**
+	 * {@inheritDoc} Die Breite ergibt sich aus den zwischengespeicherten Vorschüben der Zeichen und
+	 * hängt nur von der Schriftart ab, nicht von der Farbe.
+	 */
+	@Override
+	protected int breiteMessen (FontMetrics f) {
+		return GlyphenAtlas.breite(font, inhalt);
+	}
+}
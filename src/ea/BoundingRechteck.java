@@ -516,6 +516,30 @@ public final class BoundingRechteck implements Serializable {
 		return new BoundingRechteck(x, y, breite, hoehe);
 	}
 
+	/**
+	 * {@inheritDoc} Überschriebene Equals-Methode. Zwei BoundingRechtecke sind gleich, wenn alle 4
+	 * ausschlaggebenden Zahlen <b>exakt</b> übereinstimmen.
+	 */
+	@Override
+	public boolean equals (Object o) {
+		if (o instanceof BoundingRechteck) {
+			BoundingRechteck r = (BoundingRechteck) o;
+			return this.x == r.x && this.y == r.y && this.breite == r.breite && this.hoehe == r.hoehe;
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode () {
+		int ret = Float.floatToIntBits(x);
+		ret = 31 * ret + Float.floatToIntBits(y);
+		ret = 31 * ret + Float.floatToIntBits(breite);
+		ret = 31 * ret + Float.floatToIntBits(hoehe);
+
+		return ret;
+	}
+
 	/**
 	 * Gibt eine String-Repräsentation dieses Objektes aus.
 	 *
@@ -63,6 +63,8 @@ public class CombiFigur extends Raum {
 	public CombiFigur (ActionFigur figur1, String name1) {
 		figuren = new ActionFigur[] {figur1};
 		namen = new String[] {name1};
+
+		figur1.besitzerSetzen(this);
 	}
 
 	/**
@@ -82,6 +84,12 @@ public class CombiFigur extends Raum {
 		}
 		namenNeu[namenNeu.length - 1] = name;
 		figurenNeu[figurenNeu.length - 1] = figur;
+
+		namen = namenNeu;
+		figuren = figurenNeu;
+
+		figur.besitzerSetzen(this);
+		lageGeaendert();
 	}
 
 	/**
@@ -157,6 +165,8 @@ public class CombiFigur extends Raum {
 		for (int i = 0; i < figuren.length; i++) {
 			figuren[i].verschieben(v);
 		}
+
+		lageGeaendert();
 	}
 
 	/**
@@ -20,16 +20,29 @@
 package ea;
 
 import ea.compat.CompatDateiManager;
+import ea.internal.gra.FigurCache;
+import ea.internal.gra.FigurDaten;
 import ea.internal.gra.PixelFeld;
+import ea.internal.io.FigurFormat;
+import ea.internal.io.ImageLoader;
+import ea.internal.io.RasterCache;
 import ea.internal.util.Logger;
 
 import javax.xml.bind.DatatypeConverter;
 import java.awt.*;
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Der Dateimanager liest und schreibt Dateien und beachtet dabei die jeweiligen System-abhängigen
@@ -147,7 +160,7 @@ public class DateiManager {
 	 *
 	 * @return normalisierter Pfad
 	 */
-	private static String normalizePath (String path) {
+	static String normalizePath (String path) {
 		return path.replace("\\", "/").replace("/", sep);
 	}
 
@@ -377,18 +390,89 @@ public class DateiManager {
 	 */
 	@API
 	public static boolean schreiben (Figur f, String verzeichnis, String name) {
-		BufferedWriter writer;
-		PixelFeld[] feld = f.animation();
-
 		if (!name.endsWith(".eaf")) {
 			name += ".eaf";
 		}
 
 		String verz = verzeichnis.isEmpty() ? name : verzeichnis + sep + name;
+		BoundingRechteck dimension = f.dimension();
+
+		return figurSchreiben(f.animation(), (int) dimension.x, (int) dimension.y, verz);
+	}
+
+	/**
+	 * Schreibt die ".eaf"-Datei zu einer Figur in einem eigenen Thread, sodass das Spiel währenddessen
+	 * nicht angehalten wird.<br /> Die Figur wird beim Aufruf kopiert, spätere Änderungen an ihr
+	 * wirken sich also nicht mehr auf die Datei aus.
+	 *
+	 * @param f
+	 * 		Die zu schreibende Figur
+	 * @param verzeichnis
+	 * 		Das Verzeichnis, in dem die Datei gespeichert werden soll. Ist dies ein leerer String (""),
+	 * 		so wird die Figur nur nach ihrem namen gespeichert.
+	 * @param name
+	 * 		Der Name der Datei. Dieser sollte mit ".eaf" enden, wenn nicht, wird dies automatisch
+	 * 		angehaengt.
+	 * @param reagierbar
+	 * 		Wird nach dem Schreiben informiert, darf <code>null</code> sein.
+	 *
+	 * @see #schreiben(Figur, String, String)
+	 */
+	@API
+	public static void schreibenImHintergrund (Figur f, String verzeichnis, String name, final SpeichernReagierbar reagierbar) {
+		if (!name.endsWith(".eaf")) {
+			name += ".eaf";
+		}
+
+		final String pfad = verzeichnis.isEmpty() ? name : verzeichnis + sep + name;
+		final BoundingRechteck dimension = f.dimension();
+		final PixelFeld[] kopie = new PixelFeld[f.animation().length];
+
+		for (int i = 0; i < kopie.length; i++) {
+			kopie[i] = f.animation()[i].erstelleKlon();
+		}
+
+		Speicherthread.AUSFUEHRER.execute(new Runnable() {
+			@Override
+			public void run () {
+				boolean erfolg = figurSchreiben(kopie, (int) dimension.x, (int) dimension.y, pfad);
+
+				if (reagierbar != null) {
+					reagierbar.speichernBeendet(pfad, erfolg);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Schreibt die Einzelbilder einer Figur im Textformat. Die Bilder werden direkt in die Datei
+	 * geschrieben, ohne sie vorher vollständig als String aufzubauen.
+	 *
+	 * @param feld
+	 * 		Die Einzelbilder
+	 * @param x
+	 * 		Die X-Position der Figur
+	 * @param y
+	 * 		Die Y-Position der Figur
+	 * @param pfad
+	 * 		Der Pfad der Datei
+	 *
+	 * @return <code>true</code>, wenn die Datei erfolgreich geschrieben wurde, sonst
+	 * <code>false</code>.
+	 */
+	private static boolean figurSchreiben (PixelFeld[] feld, int x, int y, String pfad) {
+		File temp;
 
 		try {
-			writer = new BufferedWriter(new FileWriter(verz));
+			// Erst vollständig in eine temporäre Datei schreiben, damit nie eine halbe Figur entsteht
+			temp = File.createTempFile("figur", ".tmp", new File(pfad).getAbsoluteFile().getParentFile());
+		} catch (IOException e) {
+			Logger.error("Fehler beim Erstellen der Datei. Sind die Zugriffsrechte zu stark?" + bruch + pfad);
+			Logger.error(e.getMessage());
+			return false;
+		}
 
+		try (BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), Charset.defaultCharset())) {
 			// Basics
 			writer.write("_fig_"); // Basisdeklaration
 			writer.newLine();
@@ -400,26 +484,68 @@ public class DateiManager {
 			writer.newLine();
 			writer.write("y:" + feld[0].hoeheN()); // Die Y-Groesse
 			writer.newLine();
-			writer.write("p:" + (int) f.dimension().x); // Die Position X
+			writer.write("p:" + x); // Die Position X
 			writer.newLine();
-			writer.write("q:" + (int) f.dimension().y); // Die Position Y
+			writer.write("q:" + y); // Die Position Y
 			writer.newLine();
 
+			Map<Integer, String> namen = new HashMap<>();
+
 			// Die Felder
 			for (int i = 0; i < feld.length; i++) {
 				writer.write("-");
 				writer.newLine();
-				writer.write(feldInfo(feld[i]));
+				feldSchreiben(writer, feld[i], namen);
 			}
+		} catch (IOException e) {
+			Logger.error("Fehler beim Erstellen der Datei. Sind die Zugriffsrechte zu stark?" + bruch + pfad);
+			Logger.error(e.getMessage());
+			temp.delete();
+			return false;
+		}
 
-			writer.close();
-
-			return true;
+		try {
+			Files.move(temp.toPath(), Paths.get(pfad), StandardCopyOption.REPLACE_EXISTING);
 		} catch (IOException e) {
-			Logger.error("Fehler beim Erstellen der Datei. Sind die Zugriffsrechte zu stark?" + bruch + verz);
+			Logger.error("Fehler beim Erstellen der Datei. Sind die Zugriffsrechte zu stark?" + bruch + pfad);
 			Logger.error(e.getMessage());
+			temp.delete();
 			return false;
 		}
+
+		// Bereits geladene Figuren dieser Datei sind jetzt veraltet
+		FigurCache.entfernen(new File(pfad));
+
+		return true;
+	}
+
+	/**
+	 * Schreibt die Informationen eines PixelFeldes Zeile für Zeile.
+	 *
+	 * @param ziel
+	 * 		Hierhin wird geschrieben
+	 * @param f
+	 * 		Das PixelFeld
+	 * @param namen
+	 * 		Bereits analysierte Farben, nach ARGB-Wert
+	 *
+	 * @throws IOException
+	 * 		Falls das Schreiben fehlschlägt
+	 */
+	private static void feldSchreiben (Appendable ziel, PixelFeld f, Map<Integer, String> namen) throws IOException {
+		for (int i = 0; i < f.breiteN(); i++) {
+			for (int j = 0; j < f.hoeheN(); j++) {
+				int argb = f.argb(i, j);
+				String name = namen.get(argb);
+
+				if (name == null) {
+					name = farbeAnalysieren(argb == 0 ? null : new Color(argb, true));
+					namen.put(argb, name);
+				}
+
+				ziel.append('Z').append(Integer.toString(i)).append('-').append(Integer.toString(j)).append(':').append(name).append(bruch);
+			}
+		}
 	}
 
 	/**
@@ -461,16 +587,15 @@ public class DateiManager {
 	 * dem verwenden dieses Strings geschaltet werden.
 	 */
 	public static String feldInfo (PixelFeld f) {
-		Color[][] farbe = f.getPic();
-		String ret = "";
+		StringBuilder ret = new StringBuilder(f.breiteN() * f.hoeheN() * 16);
 
-		for (int i = 0; i < farbe.length; i++) {
-			for (int j = 0; j < farbe[0].length; j++) {
-				ret += "Z" + i + "-" + j + ":" + farbeAnalysieren(farbe[i][j]) + bruch;
-			}
+		try {
+			feldSchreiben(ret, f, new HashMap<Integer, String>());
+		} catch (IOException e) {
+			// StringBuilder wirft keine IOException
 		}
 
-		return ret;
+		return ret.toString();
 	}
 
 	/**
@@ -610,6 +735,34 @@ public class DateiManager {
 	 */
 	@API
 	public static Figur figurEinlesen (File file) {
+		FigurDaten daten = figurDatenEinlesen(file);
+
+		if (daten == null) {
+			return null;
+		}
+
+		Figur fig = new Figur();
+		fig.animationSetzen(daten.bilder);
+		fig.positionSetzen(daten.x, daten.y);
+		fig.animiertSetzen((daten.bilder.length != 1));
+
+		return fig;
+	}
+
+	/**
+	 * Liest die Einzelbilder und die Position aus einer Figur-Datei, ohne eine Figur zu erstellen.<br
+	 * /> Dateien im Binärformat werden automatisch erkannt.
+	 *
+	 * @param file
+	 * 		Verzeichnis der einzulesenden Datei.
+	 *
+	 * @return Eingelesene Daten oder <code>null</code>, falls die Datei nicht gelesen werden
+	 * konnte.
+	 *
+	 * @see #figurEinlesen(File)
+	 */
+	@NoExternalUse
+	public static FigurDaten figurDatenEinlesen (File file) {
 		String verzeichnis = file.getAbsolutePath();
 
 		if (!verzeichnis.endsWith(".eaf")) {
@@ -617,7 +770,11 @@ public class DateiManager {
 			verzeichnis += ".eaf";
 		}
 
-		Figur fig = new Figur();
+		if (FigurFormat.istBinaer(new File(verzeichnis))) {
+			return FigurFormat.lesen(new File(verzeichnis));
+		}
+
+		FigurDaten daten = null;
 		LineNumberReader f = null;
 		String line;
 
@@ -670,9 +827,7 @@ public class DateiManager {
 					}
 				}
 			}
-			fig.animationSetzen(ergebnis);
-			fig.positionSetzen(px, py);
-			fig.animiertSetzen((animationsLaenge != 1));
+			daten = new FigurDaten(ergebnis, px, py);
 			f.close();
 		} catch (IOException e) {
 			Logger.error("Fehler beim Lesen der Datei. Existiert die Datei mit diesem Namen wirklich?" + bruch + verzeichnis);
@@ -687,7 +842,95 @@ public class DateiManager {
 			}
 		}
 
-		return fig;
+		return daten;
+	}
+
+	/**
+	 * Schreibt eine Figur im kompakten Binärformat.<br /> Die Datei behält die Endung
+	 * <code>.eaf</code> und wird von <code>figurEinlesen</code> automatisch erkannt, lädt aber
+	 * deutlich schneller als das Textformat.
+	 *
+	 * @param f
+	 * 		Die zu schreibende Figur
+	 * @param pfad
+	 * 		Der Pfad der Datei. Endet dieser nicht mit <code>.eaf</code>, wird dies angehängt.
+	 *
+	 * @return <code>true</code>, wenn die Datei erfolgreich geschrieben wurde, ansonsten
+	 * <code>false</code>.
+	 */
+	@API
+	public static boolean figurBinaerSchreiben (Figur f, String pfad) {
+		pfad = normalizePath(pfad);
+
+		if (!pfad.endsWith(".eaf")) {
+			pfad += ".eaf";
+		}
+
+		BoundingRechteck dimension = f.dimension();
+		boolean erfolg = FigurFormat.schreiben(new FigurDaten(f.animation(), (int) dimension.x, (int) dimension.y), new File(pfad));
+
+		FigurCache.entfernen(new File(pfad));
+
+		return erfolg;
+	}
+
+	/**
+	 * Wandelt eine Figur-Datei im Textformat in das kompakte Binärformat um.
+	 *
+	 * @param quelle
+	 * 		Der Pfad der einzulesenden Datei
+	 * @param ziel
+	 * 		Der Pfad der zu schreibenden Datei. Darf derselbe wie <code>quelle</code> sein.
+	 *
+	 * @return <code>true</code>, wenn die Datei erfolgreich umgewandelt wurde, ansonsten
+	 * <code>false</code>.
+	 */
+	@API
+	public static boolean figurKonvertieren (String quelle, String ziel) {
+		FigurDaten daten = figurDatenEinlesen(new File(normalizePath(quelle)));
+
+		if (daten == null) {
+			return false;
+		}
+
+		ziel = normalizePath(ziel);
+
+		if (!ziel.endsWith(".eaf")) {
+			ziel += ".eaf";
+		}
+
+		boolean erfolg = FigurFormat.schreiben(daten, new File(ziel));
+
+		FigurCache.entfernen(new File(ziel));
+
+		return erfolg;
+	}
+
+	/**
+	 * Aktiviert den Festplatten-Cache für Bilder.<br /> Jedes geladene Bild wird dann zusätzlich
+	 * fertig dekodiert in diesem Verzeichnis abgelegt, sodass es beim nächsten Start ohne erneutes
+	 * Dekodieren geladen werden kann. Ändert sich eine Bilddatei, wird ihr Eintrag automatisch
+	 * erneuert.
+	 *
+	 * @param verzeichnis
+	 * 		Das Verzeichnis für den Cache, es wird bei Bedarf erstellt.
+	 * @param maxMegabytes
+	 * 		Die maximale Größe des Caches in Megabytes. Wird sie überschritten, werden die am längsten
+	 * 		nicht verwendeten Einträge gelöscht.
+	 */
+	@API
+	public static void bildCacheAktivieren (String verzeichnis, int maxMegabytes) {
+		ImageLoader.festplattenCacheSetzen(new RasterCache(new File(normalizePath(verzeichnis)), (long) maxMegabytes << 20));
+	}
+
+	/**
+	 * Deaktiviert den Festplatten-Cache für Bilder. Bereits abgelegte Einträge bleiben erhalten.
+	 *
+	 * @see #bildCacheAktivieren(String, int)
+	 */
+	@API
+	public static void bildCacheDeaktivieren () {
+		ImageLoader.festplattenCacheSetzen(null);
 	}
 
 	/**
@@ -762,4 +1005,36 @@ public class DateiManager {
 	public static Figur figurEinlesen (String verzeichnis, boolean relativ) {
 		return figurEinlesen(new File(verzeichnis));
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Hält den Thread für das Schreiben im Hintergrund, er wird erst bei Bedarf erstellt.<br /> Der
+	 * Thread ist kein Daemon, damit die JVM nicht mitten im Schreiben endet, und beendet sich nach
+	 * kurzer Untätigkeit selbst. Bei <code>System.exit</code> werden ausstehende Schreibvorgänge
+	 * noch abgeschlossen.
+	 */
+	private static class Speicherthread {
+		static final ThreadPoolExecutor AUSFUEHRER = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			@Override
+			public Thread newThread (Runnable r) {
+				return new Thread(r, "Speicherthread");
+			}
+		});
+
+		static {
+			AUSFUEHRER.allowCoreThreadTimeOut(true);
+
+			Runtime.getRuntime().addShutdownHook(new Thread("Speicherthread beenden") {
+				@Override
+				public void run () {
+					AUSFUEHRER.shutdown();
+
+					try {
+						AUSFUEHRER.awaitTermination(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Logger.error("Ausstehende Figuren konnten nicht mehr gespeichert werden.");
+					}
+				}
+			});
+		}
+	}
+}
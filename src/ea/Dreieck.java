@@ -23,6 +23,7 @@ import ea.internal.collision.Collider;
 import ea.internal.util.Logger;
 
 import java.awt.*;
+import java.awt.geom.Path2D;
 
 /**
  * Das Dreieck ist die Basiszeichenklasse.<br /> Jeder Koerper laesst sich aus solchen
@@ -214,6 +215,8 @@ public class Dreieck extends Geometrie {
 			x[i] += v.x;
 			y[i] += v.y;
 		}
+
+		lageGeaendert();
 	}
 
 	/**
@@ -256,6 +259,30 @@ public class Dreieck extends Geometrie {
 		return r.schneidet(this);
 	}
 
+	/**
+	 * Fügt dieses Dreieck als geschlossenen Teilpfad zu einem Pfad hinzu.<br /> Die Ecken werden
+	 * dabei immer im selben Umlaufsinn eingetragen. Sonst würden sich überlappende Dreiecke mit
+	 * entgegengesetztem Umlaufsinn beim Füllen nach <code>WIND_NON_ZERO</code> gegenseitig aufheben.
+	 *
+	 * @param pfad
+	 * 		Der zu ergänzende Pfad
+	 * @param ursprungX
+	 * 		Die X-Koordinate, die im Pfad zum Ursprung wird
+	 * @param ursprungY
+	 * 		Die Y-Koordinate, die im Pfad zum Ursprung wird
+	 */
+	void pfadErgaenzen (Path2D.Float pfad, float ursprungX, float ursprungY) {
+		float kreuz = (x[1] - x[0]) * (y[2] - y[0]) - (y[1] - y[0]) * (x[2] - x[0]);
+
+		int b = kreuz < 0 ? 2 : 1;
+		int c = kreuz < 0 ? 1 : 2;
+
+		pfad.moveTo(x[0] - ursprungX, y[0] - ursprungY);
+		pfad.lineTo(x[b] - ursprungX, y[b] - ursprungY);
+		pfad.lineTo(x[c] - ursprungX, y[c] - ursprungY);
+		pfad.closePath();
+	}
+
 	/**
 	 * @return Ein Punkt-Array der Groesse 3, das die drei das Dreieck beschreibenden Punkte
 	 * enthaelt.
@@ -22,10 +22,14 @@ package ea;
 import ea.internal.collision.BoxCollider;
 import ea.internal.collision.Collider;
 import ea.internal.collision.ColliderGroup;
+import ea.internal.gra.FarbFilter;
+import ea.internal.gra.FigurCache;
+import ea.internal.gra.FigurDaten;
 import ea.internal.gra.PixelFeld;
 import ea.internal.util.Logger;
 
 import java.awt.*;
+import java.io.File;
 import java.util.ArrayList;
 
 /**
@@ -55,6 +59,13 @@ public class Figur extends Raum {
 	 */
 	protected PixelFeld[] animation;
 
+	/**
+	 * Die mit anderen Figuren derselben Datei geteilten Bilddaten.<br /> Solange dieser Wert nicht
+	 * <code>null</code> ist, dürfen die daraus stammenden Bilder nicht verändert werden, vorher
+	 * wird über {@link #eigeneBilder()} eine eigene Kopie angelegt.
+	 */
+	private transient FigurDaten vorlage;
+
 	/**
 	 * In diesem Intervall wird die Figur animiert.
 	 */
@@ -148,7 +159,14 @@ public class Figur extends Raum {
 		super();
 		position = new Punkt(x, y);
 
-		this.animation = DateiManager.figurEinlesen(verzeichnis).animation;
+		FigurDaten daten = FigurCache.holen(new File(DateiManager.normalizePath(verzeichnis)));
+
+		if (daten == null) {
+			throw new IllegalArgumentException("Die Figur konnte nicht geladen werden: " + verzeichnis);
+		}
+
+		this.vorlage = daten;
+		this.animation = daten.bilder.clone();
 
 		if (add) {
 			liste.add(this);
@@ -192,6 +210,8 @@ public class Figur extends Raum {
 
 		aktuelle = 0;
 		animation = neu;
+
+		lageGeaendert();
 	}
 
 	/**
@@ -215,6 +235,8 @@ public class Figur extends Raum {
 		}
 
 		animation[index] = bild;
+
+		lageGeaendert();
 	}
 
 	/**
@@ -241,12 +263,14 @@ public class Figur extends Raum {
 		PixelFeld bild = animation[indexAlt];
 
 		if (indexAlt > indexNeu) {
-			System.arraycopy(animation, indexNeu + 1, animation, indexNeu, indexAlt - indexNeu);
+			System.arraycopy(animation, indexNeu, animation, indexNeu + 1, indexAlt - indexNeu);
 		} else {
-			System.arraycopy(animation, indexAlt, animation, indexAlt - 1, indexNeu - indexAlt);
+			System.arraycopy(animation, indexAlt + 1, animation, indexAlt, indexNeu - indexAlt);
 		}
 
 		animation[indexNeu] = bild;
+
+		darstellungGeaendert();
 	}
 
 	/**
@@ -263,11 +287,18 @@ public class Figur extends Raum {
 			return;
 		}
 
-		if (aktuelle == animation.length - 1) {
+		int anzahl = bildAnzahl();
+
+		if (aktuelle == anzahl - 1) {
 			aktuelle = 0;
 		} else {
 			aktuelle++;
 		}
+
+		if (anzahl > 1) {
+			// Alle Bilder sind gleich groß, ein neues Bild ändert also nur das Aussehen
+			darstellungGeaendert();
+		}
 	}
 
 	/**
@@ -287,8 +318,12 @@ public class Figur extends Raum {
 			throw new IllegalArgumentException("Parameter a muss mindestens die Länge 1 haben.");
 		}
 
+		bilderFreigeben();
+
 		animation = a;
 		aktuelle = 0;
+
+		lageGeaendert();
 	}
 
 	/**
@@ -319,12 +354,14 @@ public class Figur extends Raum {
 	 * 		Der Index des anzuzeigenden Bildes
 	 */
 	public void animationsBildSetzen (int bildIndex) {
-		if (bildIndex < 0 || bildIndex >= animation.length) {
+		if (bildIndex < 0 || bildIndex >= bildAnzahl()) {
 			Logger.error("Achtung! Der zu setzende Bildindex war größer als der größte " + "vorhandene Index oder kleiner 0! Daher wird nichts gesetzt.");
 			return;
 		}
 
 		aktuelle = bildIndex;
+
+		lageGeaendert();
 	}
 
 	/**
@@ -337,9 +374,13 @@ public class Figur extends Raum {
 	 * 		Der neue Größenfaktor
 	 */
 	public void faktorSetzen (int faktor) {
+		eigeneBilder();
+
 		for (int i = 0; i < animation.length; i++) {
 			animation[i].faktorSetzen(faktor);
 		}
+
+		lageGeaendert();
 	}
 
 	/**
@@ -351,9 +392,11 @@ public class Figur extends Raum {
 	 * @see #farbenTransformieren(int, int, int)
 	 */
 	public void negativ () {
-		for (int i = 0; i < animation.length; i++) {
-			animation[i].negativ();
-		}
+		eigeneBilder();
+
+		FarbFilter.NEGATIV.anwenden(animation);
+
+		darstellungGeaendert();
 	}
 
 	/**
@@ -367,9 +410,11 @@ public class Figur extends Raum {
 	 * @see #farbenTransformieren(int, int, int)
 	 */
 	public void heller () {
-		for (int i = 0; i < animation.length; i++) {
-			animation[i].heller();
-		}
+		eigeneBilder();
+
+		FarbFilter.HELLER.anwenden(animation);
+
+		darstellungGeaendert();
 	}
 
 	/**
@@ -383,9 +428,11 @@ public class Figur extends Raum {
 	 * @see #farbenTransformieren(int, int, int)
 	 */
 	public void dunkler () {
-		for (int i = 0; i < animation.length; i++) {
-			animation[i].dunkler();
-		}
+		eigeneBilder();
+
+		FarbFilter.DUNKLER.anwenden(animation);
+
+		darstellungGeaendert();
 	}
 
 	/**
@@ -406,9 +453,11 @@ public class Figur extends Raum {
 	 * @see #negativ()
 	 */
 	public void farbenTransformieren (int r, int g, int b) {
-		for (int i = 0; i < animation.length; i++) {
-			animation[i].transformieren(r, g, b);
-		}
+		eigeneBilder();
+
+		FarbFilter.transformation(r, g, b).anwenden(animation);
+
+		darstellungGeaendert();
 	}
 
 	/**
@@ -437,9 +486,13 @@ public class Figur extends Raum {
 	 * @see #einfaerben(String)
 	 */
 	public void einfaerben (Farbe f) {
+		eigeneBilder();
+
 		for (int i = 0; i < animation.length; i++) {
 			animation[i].einfaerben(f.wert());
 		}
+
+		darstellungGeaendert();
 	}
 
 	/**
@@ -457,6 +510,8 @@ public class Figur extends Raum {
 	 */
 	public void spiegelXSetzen (boolean spiegel) {
 		this.spiegelX = spiegel;
+
+		darstellungGeaendert();
 	}
 
 	/**
@@ -475,6 +530,8 @@ public class Figur extends Raum {
 	 */
 	public void spiegelYSetzen (boolean spiegel) {
 		this.spiegelY = spiegel;
+
+		darstellungGeaendert();
 	}
 
 	/**
@@ -514,7 +571,40 @@ public class Figur extends Raum {
 	 */
 	public void zurueckFaerben () {
 		for (int i = 0; i < animation.length; i++) {
-			animation[i].zurueckFaerben();
+			// Geteilte Bilder sind nie eingefärbt
+			if (vorlage == null || !vorlage.enthaelt(animation[i])) {
+				animation[i].zurueckFaerben();
+			}
+		}
+
+		darstellungGeaendert();
+	}
+
+	/**
+	 * Legt eigene Kopien aller Bilder an, die noch mit anderen Figuren geteilt werden. Muss vor
+	 * jeder Änderung an den Bildern aufgerufen werden.
+	 */
+	private void eigeneBilder () {
+		if (vorlage == null) {
+			return;
+		}
+
+		for (int i = 0; i < animation.length; i++) {
+			if (vorlage.enthaelt(animation[i])) {
+				animation[i] = animation[i].erstelleKlon();
+			}
+		}
+
+		bilderFreigeben();
+	}
+
+	/**
+	 * Gibt die geteilten Bilddaten frei, falls diese Figur welche nutzt.
+	 */
+	private void bilderFreigeben () {
+		if (vorlage != null) {
+			FigurCache.freigeben(vorlage);
+			vorlage = null;
 		}
 	}
 
@@ -595,7 +685,16 @@ public class Figur extends Raum {
 	}
 
 	/**
-	 * @return Alle PixelFelder der Animation.
+	 * @return Die Anzahl an Einzelbildern der Animation.
+	 */
+	protected int bildAnzahl () {
+		return animation.length;
+	}
+
+	/**
+	 * @return Alle PixelFelder der Animation.<br /> Wurde die Figur aus einer Datei geladen, teilt
+	 * sie diese PixelFelder mit allen anderen Figuren derselben Datei. Sie sollten daher nur gelesen
+	 * werden, für Änderungen gibt es die entsprechenden Methoden dieser Figur.
 	 */
 	public PixelFeld[] animation () {
 		return animation;
@@ -19,6 +19,7 @@
 
 package ea;
 
+import ea.internal.gra.Zeichner;
 import ea.internal.gui.*;
 import ea.internal.phy.Physik;
 import ea.internal.util.Logger;
@@ -761,6 +762,40 @@ public abstract class Game implements TastenReagierbar {
 		Raum.heavyComputingSetzen(rechenintensiv);
 	}
 
+	/**
+	 * Setzt die Framerate, mit der das Spielfenster neu gezeichnet werden soll.<br /> Standardmäßig
+	 * sind dies 25 Bilder pro Sekunde.
+	 *
+	 * @param fps
+	 * 		Die gewünschte Anzahl an Bildern pro Sekunde. Ist dieser Wert <code>0</code>, wird so
+	 * 		schnell wie möglich gezeichnet.
+	 */
+	public void framerateSetzen (int fps) {
+		fenster.zeichner().takt().zielFpsSetzen(fps);
+	}
+
+	/**
+	 * Setzt, ob nur die Bereiche des Fensters neu gezeichnet werden sollen, in denen sich etwas
+	 * geändert hat.<br /> Das spart viel Rechenzeit, wenn sich meist nur wenig bewegt, z.B. bei
+	 * Quiz- oder Brettspielen. Ändert sich nichts, wird auch nichts gezeichnet.
+	 *
+	 * @param aktiv
+	 * 		<code>true</code>, wenn nur Änderungen gezeichnet werden sollen. Standardmäßig ist dies
+	 * 		<code>false</code>.
+	 */
+	public void nurAenderungenZeichnen (boolean aktiv) {
+		fenster.zeichner().nurAenderungenZeichnen(aktiv);
+	}
+
+	/**
+	 * Gibt die tatsächlich gemessene Zeit zwischen den letzten beiden gezeichneten Bildern an.
+	 *
+	 * @return Die Zeit zwischen den letzten beiden Bildern in Sekunden
+	 */
+	public float frameDelta () {
+		return fenster.zeichner().takt().delta();
+	}
+
 	/**
 	 * Macht vom aktuell sichtbaren Bereich (also dem von der Kamera derzeit erfassten Bereich)
 	 * einen Screenshot.
@@ -802,9 +837,7 @@ public abstract class Game implements TastenReagierbar {
 				BufferedImage img = new BufferedImage((int) ausschnitt.breite, (int) ausschnitt.hoehe, BufferedImage.TYPE_INT_RGB);
 				Graphics2D g = img.createGraphics();
 
-				g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-				g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-				g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+				Zeichner.renderHinweiseSetzen(g);
 
 				cam.wurzel().zeichnen(g, ausschnitt);
 
@@ -24,6 +24,7 @@ import ea.internal.collision.ColliderGroup;
 import ea.internal.gra.Listung;
 
 import java.awt.*;
+import java.awt.geom.Path2D;
 
 /**
  * Ein Objekt, das aus n primitiven Geometrischen Formen - <b>Dreiecken</b> - besteht
@@ -57,6 +58,24 @@ public abstract class Geometrie extends Raum implements Leuchtend, Listung {
 	 */
 	private Color alte = Color.white;
 
+	/**
+	 * Alle Dreiecke als ein Pfad, relativ zur Position. Wird nur in <code>aktualisieren()</code>
+	 * verworfen und beim nächsten Zeichnen neu erstellt.
+	 */
+	private transient Path2D.Float pfad;
+
+	/**
+	 * Die Dreiecke, nach ihrem Index modulo der Länge des Farbzyklus aufgeteilt. Beim Leuchten
+	 * haben alle Dreiecke eines Streifens dieselbe Farbe.
+	 */
+	private transient Path2D.Float[] streifen;
+
+	/**
+	 * Die Verschiebung, die noch nicht auf die Dreiecke übertragen wurde. Die Dreiecke werden erst
+	 * verschoben, wenn sie tatsächlich gebraucht werden.
+	 */
+	private Vektor ausstehend = Vektor.NULLVEKTOR;
+
 	/**
 	 * Konstruktor.
 	 *
@@ -76,15 +95,110 @@ public abstract class Geometrie extends Raum implements Leuchtend, Listung {
 	 * werden.
 	 */
 	public void zeichnen (Graphics2D g, BoundingRechteck r) {
+		if (!r.schneidetBasic(dimension)) {
+			return;
+		}
+
 		super.beforeRender(g, r);
 
-		for (int i = 0; i < formen.length; i++) {
-			formen[i].zeichnen(g, r);
+		Color farbe = einheitlicheFarbe();
+
+		if (farbe != null || streifenEinheitlich()) {
+			double dx = position.x - r.x, dy = position.y - r.y;
+			g.translate(dx, dy);
+
+			if (farbe != null) {
+				g.setColor(farbe);
+				g.fill(pfad());
+			} else {
+				Path2D.Float[] streifen = streifen();
+
+				for (int i = 0; i < streifen.length; i++) {
+					g.setColor(formen[i].getColor());
+					g.fill(streifen[i]);
+				}
+			}
+
+			g.translate(-dx, -dy);
+		} else {
+			// Beliebig gefärbte Dreiecke einzeln zeichnen
+			for (Dreieck d : nachgezogen()) {
+				d.zeichnen(g, r);
+			}
 		}
 
 		super.afterRender(g, r);
 	}
 
+	/**
+	 * @return Die Farbe aller Dreiecke, oder <code>null</code>, falls sie verschiedene Farben
+	 * haben.
+	 */
+	private Color einheitlicheFarbe () {
+		Color farbe = formen[0].getColor();
+
+		for (int i = 1; i < formen.length; i++) {
+			if (!farbe.equals(formen[i].getColor())) {
+				return null;
+			}
+		}
+
+		return farbe;
+	}
+
+	/**
+	 * @return <code>true</code>, falls alle Dreiecke eines Streifens dieselbe Farbe haben, wie nach
+	 * einem Leuchtschritt.
+	 */
+	private boolean streifenEinheitlich () {
+		int anzahl = Math.min(farbzyklus.length, formen.length);
+
+		for (int i = anzahl; i < formen.length; i++) {
+			if (!formen[i].getColor().equals(formen[i % anzahl].getColor())) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return Alle Dreiecke als ein Pfad, relativ zur Position.
+	 */
+	private Path2D.Float pfad () {
+		if (pfad == null) {
+			pfad = new Path2D.Float(Path2D.WIND_NON_ZERO, formen.length * 4);
+
+			for (Dreieck d : nachgezogen()) {
+				d.pfadErgaenzen(pfad, position.x, position.y);
+			}
+		}
+
+		return pfad;
+	}
+
+	/**
+	 * @return Die Dreiecke als Pfade, nach ihrem Index modulo der Länge des Farbzyklus aufgeteilt.
+	 */
+	private Path2D.Float[] streifen () {
+		if (streifen == null) {
+			int anzahl = Math.min(farbzyklus.length, formen.length);
+			streifen = new Path2D.Float[anzahl];
+
+			for (int i = 0; i < anzahl; i++) {
+				streifen[i] = new Path2D.Float();
+			}
+
+			Dreieck[] formen = nachgezogen();
+
+			for (int i = 0; i < formen.length; i++) {
+				formen[i].pfadErgaenzen(streifen[i % anzahl], position.x, position.y);
+			}
+		}
+
+		return streifen;
+	}
+
 	public BoundingRechteck dimension () {
 		return dimension.klon();
 	}
@@ -99,11 +213,28 @@ public abstract class Geometrie extends Raum implements Leuchtend, Listung {
 	 */
 	@Override
 	public void verschieben (Vektor v) {
+		ausstehend = ausstehend.summe(v);
+		dimension = dimension.verschobeneInstanz(v);
 		super.verschieben(v);
-		for (int i = 0; i < formen.length; i++) {
-			formen[i].verschieben(v);
+	}
+
+	/**
+	 * Überträgt eine noch ausstehende Verschiebung auf die Dreiecke.
+	 *
+	 * @return Die Dreiecke in ihrer aktuellen Lage
+	 */
+	private Dreieck[] nachgezogen () {
+		Vektor v = ausstehend;
+
+		if (!v.unwirksam()) {
+			ausstehend = Vektor.NULLVEKTOR;
+
+			for (Dreieck d : formen) {
+				d.verschieben(v);
+			}
 		}
-		dimension = dimension.verschobeneInstanz(v);
+
+		return formen;
 	}
 
 	/**
@@ -113,7 +244,7 @@ public abstract class Geometrie extends Raum implements Leuchtend, Listung {
 	@Override
 	public Collider erzeugeCollider () {
 		ColliderGroup group = new ColliderGroup();
-		for (Dreieck d : formen) {
+		for (Dreieck d : nachgezogen()) {
 			group.addCollider(d.erzeugeCollider());
 		}
 		return group;
@@ -128,6 +259,7 @@ public abstract class Geometrie extends Raum implements Leuchtend, Listung {
 	 */
 	@Override
 	public BoundingRechteck[] flaechen () {
+		Dreieck[] formen = nachgezogen();
 		BoundingRechteck[] ret = new BoundingRechteck[formen.length];
 		for (int i = 0; i < formen.length; i++) {
 			ret[i] = formen[i].dimension();
@@ -174,10 +306,15 @@ public abstract class Geometrie extends Raum implements Leuchtend, Listung {
 		alte = c;
 		if (formen == null) {
 			formen = neuBerechnen();
+			ausstehend = Vektor.NULLVEKTOR;
+			pfad = null;
+			streifen = null;
 		}
 		for (int i = 0; i < formen.length; i++) {
 			formen[i].setColor(c);
 		}
+
+		darstellungGeaendert();
 	}
 
 	/**
@@ -221,6 +358,8 @@ public abstract class Geometrie extends Raum implements Leuchtend, Listung {
 			leuchtzaehler %= farbzyklus.length;
 			formen[i].setColor(farbzyklus[leuchtzaehler]);
 		}
+
+		darstellungGeaendert();
 	}
 
 	/**
@@ -251,12 +390,17 @@ public abstract class Geometrie extends Raum implements Leuchtend, Listung {
 	 */
 	protected void aktualisieren () {
 		formen = neuBerechnen();
+		ausstehend = Vektor.NULLVEKTOR;
+		pfad = null;
+		streifen = null;
 
 		for (int i = 0; i < formen.length; i++) {
 			formen[i].setColor(alte);
 		}
 
 		dimension = ausDreiecken(formen);
+
+		lageGeaendert();
 	}
 
 	/**
@@ -282,11 +426,13 @@ public abstract class Geometrie extends Raum implements Leuchtend, Listung {
 	}
 
 	/**
-	 * Gibt alle Unterdreiecke dieser Geometrie-Figur wieder.<br />
+	 * Gibt alle Unterdreiecke dieser Geometrie-Figur wieder.<br /> Zum Zeichnen werden die Dreiecke
+	 * zu einem Pfad zusammengefasst, der erst in <code>aktualisieren()</code> neu erstellt wird.
+	 * Die Punkte der Dreiecke sollten daher nicht direkt verändert werden.
 	 *
 	 * @return Ein Array mit allen Dreiecken dieser Figur.
 	 */
 	public Dreieck[] formen () {
-		return this.formen;
+		return nachgezogen();
 	}
 }
@@ -272,12 +272,12 @@ public class Kamera {
     }
 
     /**
-     * Zeichnet alle Objekte neu, die sich auf der Zeichenebene und im Blickfeld der Kamera
-     * befinden.
+     * Richtet die Kamera auf ihren Fokus aus und beschraenkt sie auf ihre Bounds.<br /> Wird vor
+     * jedem Zeichnen aufgerufen, kann aber auch vorher aufgerufen werden, um die Position der Kamera
+     * fuer den naechsten Frame zu erfahren.
      */
-    public void zeichne(Graphics2D g) {
+    public void nachjustieren() {
         if (hatFokus()) {
-            // Nachjustieren
             bild = bild.mittenAngleichInstanz(fokus.dimension());
             bild = bild.verschobeneInstanz(verzug);
         }
@@ -285,6 +285,14 @@ public class Kamera {
         if (hatBounds) {
             bild = bild.in(bounds);
         }
+    }
+
+    /**
+     * Zeichnet alle Objekte neu, die sich auf der Zeichenebene und im Blickfeld der Kamera
+     * befinden.
+     */
+    public void zeichne(Graphics2D g) {
+        nachjustieren();
 
         ebene.basis().zeichnen(g, bild);
 
@@ -21,13 +21,18 @@ package ea;
 
 import ea.internal.collision.Collider;
 import ea.internal.collision.ColliderGroup;
+import ea.internal.gra.AenderungsBeobachter;
+import ea.internal.gra.KindListe;
 import ea.internal.gra.Listung;
+import ea.internal.gra.RaumRaster;
+import ea.internal.gra.Zeichner;
+import ea.internal.util.Optimizer;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Vector;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Ein Knoten ist eine Sammlung vielen Raum-Objekten, die hierdurch einheitlich bewegt, und
@@ -37,15 +42,100 @@ import java.util.Vector;
  */
 public class Knoten extends Raum implements Listung {
 	/**
-	 * Die Liste aller Raum-Objekte, die dieser Knoten fasst.
+	 * Die Liste aller Raum-Objekte, die dieser Knoten fasst, geordnet nach Z-Index.
 	 */
-	private Vector<Raum> list;
+	private final KindListe list;
+
+	/**
+	 * Der optionale räumliche Index über die Kinder dieses Knotens. Ist er <code>null</code>, werden
+	 * beim Zeichnen alle Kinder betrachtet.
+	 *
+	 * @see #rasterIndexAktivieren(float)
+	 */
+	private RaumRaster raster;
+
+	/**
+	 * Ist dieser Wert <code>true</code>, verschiebt der Knoten gerade alle Kinder gemeinsam und
+	 * ignoriert deren einzelne Änderungsmeldungen. Die Meldungen können aus anderen Threads
+	 * kommen, deshalb <code>volatile</code>.
+	 */
+	private volatile boolean verschiebt;
+
+	/**
+	 * Gibt an, ob dieser Knoten seinen Inhalt als Bild zwischenspeichert.
+	 *
+	 * @see #alsBildZwischenspeichern(boolean)
+	 */
+	private boolean zwischenspeichern;
+
+	/**
+	 * Das zwischengespeicherte Bild des Inhalts.
+	 */
+	private BufferedImage zwischenspeicher;
+
+	/**
+	 * Der Bereich der Zeichenebene, den das zwischengespeicherte Bild abdeckt.
+	 */
+	private BoundingRechteck zwischenspeicherBereich;
+
+	/**
+	 * Der Rand, den das zwischengespeicherte Bild auf jeder Seite über die Kamera hinaus umfasst,
+	 * als Anteil der Kameragröße.
+	 */
+	private static final float ZWISCHENSPEICHER_RAND = 0.5f;
+
+	/**
+	 * Ist dieser Wert <code>true</code>, hat sich der Inhalt seit dem Erstellen des Bildes
+	 * geändert.
+	 */
+	private volatile boolean zwischenspeicherVeraltet = true;
+
+	/**
+	 * Wird über jede Änderung in diesem Knoten informiert.
+	 */
+	private volatile AenderungsBeobachter beobachter;
+
+	/**
+	 * Gibt an, ob die Kinder dieses Knotens relativ zu ihm liegen.
+	 *
+	 * @see #lokaleKoordinatenSetzen(boolean)
+	 */
+	private volatile boolean lokal;
+
+	/**
+	 * Die Verschiebung dieses Knotens, um die alle Kinder versetzt gezeichnet werden, solange die
+	 * lokalen Koordinaten aktiv sind.
+	 */
+	private volatile Vektor versatz = Vektor.NULLVEKTOR;
+
+	/**
+	 * Das zwischengespeicherte BoundingRechteck aller Kinder in deren eigenen Koordinaten. Ist
+	 * <code>null</code>, wenn es seit der letzten Änderung von Lage oder Größe eines Kindes noch
+	 * nicht neu berechnet wurde.
+	 */
+	private volatile BoundingRechteck grenzen;
+
+	/**
+	 * Wird bei jedem Verwerfen von <code>grenzen</code> erhöht. So wird ein BoundingRechteck, dessen
+	 * Berechnung sich mit einer Änderung überschnitten hat, nicht zwischengespeichert.
+	 */
+	private volatile int grenzenStand;
+
+	/**
+	 * Zählt, wie oft das BoundingRechteck direkt aus dem Zwischenspeicher geliefert wurde.
+	 */
+	private final AtomicLong grenzenTreffer = new AtomicLong();
+
+	/**
+	 * Zählt, wie oft das BoundingRechteck neu berechnet werden musste.
+	 */
+	private final AtomicLong grenzenNeuberechnungen = new AtomicLong();
 
 	/**
 	 * Konstruktor für Objekte der Klasse Knoten
 	 */
 	public Knoten () {
-		list = new Vector<>();
+		list = new KindListe();
 	}
 
 	/**
@@ -57,12 +147,14 @@ public class Knoten extends Raum implements Listung {
 	 * @see #leerenOhnePhysikAbmelden()
 	 */
 	public void leeren () {
-		for (int i = list.size() - 1; i >= 0; i--) {
-			list.get(i).neutralMachen();
-			list.get(i).loeschen();
+		Raum[] kinder = list.zeichenreihenfolge();
+
+		for (int i = 0; i < kinder.length; i++) {
+			kinder[i].neutralMachen();
+			kinder[i].loeschen();
 		}
 
-		list.clear();
+		leerenOhnePhysikAbmelden();
 	}
 
 	/**
@@ -70,7 +162,19 @@ public class Knoten extends Raum implements Listung {
 	 * Physik her zu beeinflussen.
 	 */
 	public void leerenOhnePhysikAbmelden () {
-		list.clear();
+		Raum[] kinder = list.zeichenreihenfolge();
+
+		for (int i = 0; i < kinder.length; i++) {
+			kinder[i].elternEntfernen(this);
+		}
+
+		list.leeren();
+
+		if (raster != null) {
+			raster.leeren();
+		}
+
+		lageGeaendert();
 	}
 
 	/**
@@ -86,13 +190,16 @@ public class Knoten extends Raum implements Listung {
 	 * @see #entfernenOhnePhysikAbmelden(Raum)
 	 */
 	public void entfernen (Raum m) {
-		if (list.contains(m)) {
-			m.neutralMachen();
-			m.loeschen();
+		if (!list.enthaelt(m)) {
+			return;
 		}
 
-		// noinspection StatementWithEmptyBody
-		while (list.remove(m)) ;
+		m.neutralMachen();
+		m.loeschen();
+
+		if (list.entfernen(m)) {
+			abgemeldet(m);
+		}
 	}
 
 	/**
@@ -104,7 +211,36 @@ public class Knoten extends Raum implements Listung {
 	 * 		Das von diesem Knoten zu entfernende Raum-Objekt
 	 */
 	public void entfernenOhnePhysikAbmelden (Raum m) {
-		list.remove(m);
+		if (!list.einmalEntfernen(m)) {
+			return;
+		}
+
+		if (list.enthaelt(m)) {
+			// Ein weiteres Vorkommen bleibt, es wird nur einmal weniger gezeichnet
+			if (raster != null) {
+				raster.einmalEntfernen(m);
+			}
+
+			benachrichtigen(m, false);
+		} else {
+			abgemeldet(m);
+		}
+	}
+
+	/**
+	 * Räumt nach dem vollständigen Entfernen eines Objekts Raster und Elternverweis auf.
+	 *
+	 * @param m
+	 * 		Das entfernte Objekt
+	 */
+	private void abgemeldet (Raum m) {
+		m.elternEntfernen(this);
+
+		if (raster != null) {
+			raster.entfernen(m);
+		}
+
+		benachrichtigen(m, true);
 	}
 
 	/**
@@ -119,7 +255,7 @@ public class Knoten extends Raum implements Listung {
 	 * Knoten liegt
 	 */
 	public boolean besitzt (Raum m) {
-		return list.contains(m);
+		return list.enthaelt(m);
 	}
 
 	/**
@@ -130,12 +266,18 @@ public class Knoten extends Raum implements Listung {
 	 * Raum r6;<br /> Raum r7;<br /> Raum r8;<br /> Raum r9<br /> Raum r10;<br /> Raum r11;<br />
 	 * Raum r12;<br /> <br /> //Eine Methode, um alle anzumelden:<br /> knoten.add(r1, r2, r3, r4,
 	 * r5, r6, r7, r8, r9, r10, r11, r12);<br /> </code><br /> Das Ergebnis: 11 Zeilen Programmcode
-	 * gespart.
+	 * gespart.<br /> <br /> Alle Objekte werden gemeinsam einsortiert, das ist bei vielen Objekten
+	 * (z.B. beim Laden eines Levels) deutlich schneller als einzelne Aufrufe von
+	 * <code>add(Raum)</code>.
 	 */
 	public void add (Raum... m) {
+		long nummer = list.alleEinfuegen(m);
+
 		for (Raum n : m) {
-			add(n);
+			angemeldet(n, nummer++);
 		}
+
+		lageGeaendert();
 	}
 
 	/**
@@ -146,13 +288,162 @@ public class Knoten extends Raum implements Listung {
 	 * 		Das hinzuzufuegende Raum-Objekt
 	 */
 	public void add (Raum m) {
-		// reverse to keep backwardscompability
-		Collections.reverse(list);
+		angemeldet(m, list.einfuegen(m));
 
-		list.add(m);
+		benachrichtigen(m, true);
+	}
+
+	/**
+	 * Meldet ein neu hinzugefügtes Objekt bei Raster und Elternverweis an.
+	 *
+	 * @param m
+	 * 		Das hinzugefügte Objekt
+	 * @param nummer
+	 * 		Die laufende Nummer des Objekts im Knoten
+	 */
+	private void angemeldet (Raum m, long nummer) {
+		m.elternHinzufuegen(this);
+
+		if (raster != null) {
+			raster.einfuegen(m, nummer);
+		}
+	}
+
+	/**
+	 * Aktiviert einen räumlichen Index über die Objekte dieses Knotens.<br /> Beim Zeichnen werden
+	 * dann nur noch die Objekte betrachtet, die in der Nähe des sichtbaren Bereichs liegen. Das
+	 * lohnt sich für Knoten mit sehr vielen Objekten, von denen nur ein kleiner Teil sichtbar ist,
+	 * z.B. die Kacheln eines großen Levels.<br /> <br /> Der Index wird beim Hinzufügen, Entfernen
+	 * und Verschieben automatisch aktuell gehalten.
+	 *
+	 * @param zellgroesse
+	 * 		Die Kantenlänge einer Rasterzelle in Pixeln. Sinnvoll ist etwa die typische Größe der
+	 * 		Objekte dieses Knotens.
+	 *
+	 * @see #rasterIndexDeaktivieren()
+	 */
+	@API
+	public void rasterIndexAktivieren (float zellgroesse) {
+		RaumRaster neu = new RaumRaster(zellgroesse);
+		Raum[] kinder = list.zeichenreihenfolge();
+
+		for (int i = 0; i < kinder.length; i++) {
+			neu.einfuegen(kinder[i], list.nummer(kinder[i]));
+		}
+
+		raster = neu;
+	}
+
+	/**
+	 * Deaktiviert den räumlichen Index dieses Knotens wieder.
+	 *
+	 * @see #rasterIndexAktivieren(float)
+	 */
+	@API
+	public void rasterIndexDeaktivieren () {
+		raster = null;
+	}
+
+	/**
+	 * Wird von einem Kind aufgerufen, wenn sich in ihm etwas geändert hat.
+	 *
+	 * @param kind
+	 * 		Das direkte Kind, über das die Änderung gemeldet wird
+	 * @param ursprung
+	 * 		Das Objekt, das sich ursprünglich geändert hat
+	 * @param lage
+	 * 		<code>true</code>, wenn sich Lage oder Größe geändert haben
+	 */
+	void kindGeaendert (Raum kind, Raum ursprung, boolean lage) {
+		if (verschiebt) {
+			return;
+		}
+
+		RaumRaster r = raster;
+
+		if (lage && r != null) {
+			r.aktualisieren(kind);
+		}
+
+		benachrichtigen(ursprung, lage);
+	}
+
+	/**
+	 * {@inheritDoc} Verwirft außerdem das zwischengespeicherte Bild dieses Knotens, bei Änderungen
+	 * der Lage auch das zwischengespeicherte BoundingRechteck, und informiert einen eventuellen
+	 * Beobachter.
+	 */
+	@Override
+	void benachrichtigen (Raum ursprung, boolean lage) {
+		zwischenspeicherVeraltet = true;
+
+		if (lage) {
+			grenzenVerwerfen();
+		}
+
+		weitermelden(ursprung, lage);
+	}
+
+	/**
+	 * Informiert den Beobachter und die Eltern über eine Änderung, ohne die Zwischenspeicher
+	 * dieses Knotens zu verwerfen.
+	 *
+	 * @param ursprung
+	 * 		Das Objekt, das sich ursprünglich geändert hat
+	 * @param lage
+	 * 		<code>true</code>, wenn sich Lage oder Größe geändert haben
+	 */
+	private void weitermelden (Raum ursprung, boolean lage) {
+		AenderungsBeobachter b = beobachter;
+
+		if (b != null) {
+			b.geaendert(ursprung);
+		}
 
-		Collections.reverse(list);
-		Collections.sort(list);
+		super.benachrichtigen(ursprung, lage);
+	}
+
+	/**
+	 * Setzt den Beobachter, der über jede Änderung in diesem Knoten und allen Unterknoten informiert
+	 * wird.
+	 *
+	 * @param beobachter
+	 * 		Der neue Beobachter oder <code>null</code>, um ihn zu entfernen
+	 */
+	@NoExternalUse
+	public void beobachterSetzen (AenderungsBeobachter beobachter) {
+		this.beobachter = beobachter;
+	}
+
+	/**
+	 * Setzt, ob dieser Knoten seinen Inhalt als Bild zwischenspeichern soll.<br /> Ist dies aktiv,
+	 * wird der gesamte Inhalt nur dann neu gezeichnet, wenn sich etwas an ihm geändert hat
+	 * (Hinzufügen, Entfernen, Verschieben, Farbe, Sichtbarkeit, ...). Sonst wird nur noch das
+	 * zwischengespeicherte Bild gezeichnet.<br /> <br /> Das lohnt sich für Knoten mit vielen
+	 * Objekten, die sich selten ändern, z.B. eine Anzeige im statischen Knoten oder eine
+	 * Hintergrund-Dekoration. Für Knoten, deren Inhalt sich ständig ändert, ist es langsamer.
+	 *
+	 * @param aktiv
+	 * 		<code>true</code>, wenn der Inhalt zwischengespeichert werden soll, sonst
+	 * 		<code>false</code>.
+	 */
+	@API
+	public void alsBildZwischenspeichern (boolean aktiv) {
+		zwischenspeichern = aktiv;
+		zwischenspeicher = null;
+		zwischenspeicherVeraltet = true;
+	}
+
+	/**
+	 * Wird von einem Kind aufgerufen, wenn sich dessen Z-Index geändert hat. Das Kind wird dann
+	 * neu einsortiert.
+	 *
+	 * @param kind
+	 * 		Das veränderte Kind
+	 */
+	void zIndexGeaendert (Raum kind) {
+		list.zIndexAktualisieren(kind);
+		benachrichtigen(kind, false);
 	}
 
 	/**
@@ -161,7 +452,15 @@ public class Knoten extends Raum implements Listung {
 	 * @return Alle Elemente als vollstaendig gefuelltes <code>Raum</code>-Objekt-Aray.
 	 */
 	public Raum[] alleElemente () {
-		return list.toArray(new Raum[list.size()]);
+		Raum[] kinder = list.zeichenreihenfolge();
+		Raum[] ret = new Raum[kinder.length];
+
+		// Vorderstes Element zuerst
+		for (int i = 0; i < kinder.length; i++) {
+			ret[i] = kinder[kinder.length - 1 - i];
+		}
+
+		return ret;
 	}
 
 	/**
@@ -178,9 +477,10 @@ public class Knoten extends Raum implements Listung {
 	@Override
 	public boolean bewegen (Vektor v) {
 		boolean ret = true;
+		Raum[] kinder = list.zeichenreihenfolge();
 
-		for (int i = list.size() - 1; i >= 0; i--) {
-			if (!list.get(i).bewegen(v)) {
+		for (int i = 0; i < kinder.length; i++) {
+			if (!kinder[i].bewegen(v)) {
 				ret = false;
 			}
 		}
@@ -199,12 +499,146 @@ public class Knoten extends Raum implements Listung {
 	 */
 	@Override
 	public void zeichnen (Graphics2D g, BoundingRechteck r) {
-		try {
-			for (int i = list.size() - 1; i >= 0; i--) {
-				list.get(i).zeichnenBasic(g, r);
+		zeichnen(g, r, (r.x == 0) && (r.y == 0), Vektor.NULLVEKTOR);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void zeichnen (Graphics2D g, BoundingRechteck r, boolean statisch, Vektor bildschirm) {
+		if (lokal) {
+			// Die Kinder sehen eine um den Versatz verschobene Kamera
+			r = r.verschobeneInstanz(versatz.gegenrichtung());
+		}
+
+		if (zwischenspeichern) {
+			zwischengespeichertZeichnen(g, r, statisch, bildschirm);
+		} else {
+			kinderZeichnen(g, r, statisch, bildschirm);
+		}
+	}
+
+	/**
+	 * Zeichnet das zwischengespeicherte Bild und erstellt es vorher neu, falls es veraltet ist oder
+	 * den sichtbaren Teil des Inhalts nicht mehr abdeckt.<br /> Das Bild umfasst höchstens den
+	 * Kamerabereich und einen Rand von <code>ZWISCHENSPEICHER_RAND</code> seiner Größe auf jeder
+	 * Seite. Ragt der Inhalt weiter, wird erst neu gezeichnet, wenn die Kamera diesen Rand
+	 * verlässt.
+	 *
+	 * @param g
+	 * 		Das Grafik-Objekt
+	 * @param r
+	 * 		Das Rechteck, dass die Kameraposition definiert
+	 * @param statisch
+	 * 		Ob das ursprüngliche Kamerarechteck im Ursprung lag
+	 * @param bildschirm
+	 * 		Die Verschiebung von Koordinaten relativ zu <code>r</code> hin zum Bildschirm
+	 */
+	private void zwischengespeichertZeichnen (Graphics2D g, BoundingRechteck r, boolean statisch, Vektor bildschirm) {
+		BoundingRechteck sichtbar = schnitt(kinderDimension(), r);
+
+		if (sichtbar == null) {
+			return;
+		}
+
+		BoundingRechteck ausschnitt = zwischenspeicherBereich;
+
+		if (zwischenspeicherVeraltet || zwischenspeicher == null || !ausschnitt.umschliesst(sichtbar)) {
+			zwischenspeicherVeraltet = false;
+
+			float randX = r.breite * ZWISCHENSPEICHER_RAND;
+			float randY = r.hoehe * ZWISCHENSPEICHER_RAND;
+
+			BoundingRechteck umgebung = new BoundingRechteck((float) Math.floor(r.x - randX), (float) Math.floor(r.y - randY), r.breite + 2 * randX + 1, r.hoehe + 2 * randY + 1);
+			ausschnitt = schnitt(kinderDimension(), umgebung);
+
+			int breite = (int) Math.ceil(ausschnitt.breite) + 1;
+			int hoehe = (int) Math.ceil(ausschnitt.hoehe) + 1;
+
+			if (zwischenspeicher == null || zwischenspeicher.getWidth() != breite || zwischenspeicher.getHeight() != hoehe) {
+				zwischenspeicher = Optimizer.createCompatibleImage(breite, hoehe, Transparency.TRANSLUCENT);
+			}
+
+			Graphics2D bg = zwischenspeicher.createGraphics();
+			bg.setComposite(AlphaComposite.Clear);
+			bg.fillRect(0, 0, breite, hoehe);
+			bg.setComposite(AlphaComposite.SrcOver);
+			Zeichner.renderHinweiseSetzen(bg);
+
+			// Der Ausschnitt dient den Kindern als Kamera, so landen sie direkt an der richtigen
+			// Stelle im Bild und alles außerhalb wird gar nicht erst gezeichnet.
+			kinderZeichnen(bg, ausschnitt, statisch, bildschirm.summe(new Vektor(ausschnitt.x - r.x, ausschnitt.y - r.y)));
+			bg.dispose();
+
+			zwischenspeicherBereich = ausschnitt;
+		}
+
+		g.drawImage(zwischenspeicher, (int) (ausschnitt.x - r.x), (int) (ausschnitt.y - r.y), null);
+	}
+
+	/**
+	 * @return Das zwischengespeicherte Bild oder <code>null</code>, falls es noch keines gibt
+	 */
+	BufferedImage zwischenspeicherBild () {
+		return zwischenspeicher;
+	}
+
+	/**
+	 * Berechnet die Schnittfläche zweier Rechtecke.
+	 *
+	 * @param a
+	 * 		Das erste Rechteck
+	 * @param b
+	 * 		Das zweite Rechteck
+	 *
+	 * @return Die Schnittfläche oder <code>null</code>, falls sich die Rechtecke nicht überlappen
+	 */
+	private static BoundingRechteck schnitt (BoundingRechteck a, BoundingRechteck b) {
+		float x = Math.max(a.x, b.x);
+		float y = Math.max(a.y, b.y);
+		float breite = Math.min(a.x + a.breite, b.x + b.breite) - x;
+		float hoehe = Math.min(a.y + a.hoehe, b.y + b.hoehe) - y;
+
+		if (breite <= 0 || hoehe <= 0) {
+			return null;
+		}
+
+		return new BoundingRechteck(x, y, breite, hoehe);
+	}
+
+	/**
+	 * Zeichnet die Kinder dieses Knotens.
+	 *
+	 * @param g
+	 * 		Das Grafik-Objekt
+	 * @param r
+	 * 		Das Rechteck, dass die Kameraposition definiert
+	 * @param statisch
+	 * 		Ob das ursprüngliche Kamerarechteck im Ursprung lag
+	 * @param bildschirm
+	 * 		Die Verschiebung von Koordinaten relativ zu <code>r</code> hin zum Bildschirm
+	 */
+	private void kinderZeichnen (Graphics2D g, BoundingRechteck r, boolean statisch, Vektor bildschirm) {
+		RaumRaster index = raster;
+
+		if (index != null) {
+			// Eigene Liste je Aufruf, da derselbe Knoten gleichzeitig von mehreren Zeichnern
+			// gezeichnet werden kann
+			ArrayList<Raum> sichtbar = new ArrayList<>();
+			index.abfragen(r, sichtbar);
+
+			for (int i = 0; i < sichtbar.size(); i++) {
+				sichtbar.get(i).zeichnenBasic(g, r, statisch, bildschirm);
 			}
-		} catch (ArrayIndexOutOfBoundsException e) {
-			// Wahrscheinlich wurde die Liste geleert.
+
+			return;
+		}
+
+		Raum[] kinder = list.zeichenreihenfolge();
+
+		for (int i = 0; i < kinder.length; i++) {
+			kinder[i].zeichnenBasic(g, r, statisch, bildschirm);
 		}
 	}
 
@@ -218,18 +652,62 @@ public class Knoten extends Raum implements Listung {
 	 */
 	@Override
 	public BoundingRechteck dimension () {
+		BoundingRechteck ret = kinderDimension();
+
+		return lokal ? ret.verschobeneInstanz(versatz) : ret;
+	}
+
+	/**
+	 * @return Das BoundingRechteck aller Kinder in deren eigenen Koordinaten, also ohne den Versatz
+	 * lokaler Koordinaten. Es wird nur nach einer Änderung von Lage oder Größe eines Kindes neu
+	 * berechnet.
+	 */
+	private BoundingRechteck kinderDimension () {
+		BoundingRechteck ret = grenzen;
+
+		if (ret != null) {
+			grenzenTreffer.incrementAndGet();
+			return ret;
+		}
+
+		grenzenNeuberechnungen.incrementAndGet();
+
+		int stand = grenzenStand;
+		ret = grenzenBerechnen();
+
+		grenzen = ret;
+
+		if (stand != grenzenStand) {
+			grenzen = null;
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Verwirft das zwischengespeicherte BoundingRechteck der Kinder.
+	 */
+	private void grenzenVerwerfen () {
+		grenzenStand++;
+		grenzen = null;
+	}
+
+	/**
+	 * Berechnet das BoundingRechteck aller Kinder neu.
+	 *
+	 * @return Das BoundingRechteck aller Kinder in deren eigenen Koordinaten.
+	 */
+	private BoundingRechteck grenzenBerechnen () {
 		BoundingRechteck ret = null;
 
-		try {
-			for (int i = list.size() - 1; i >= 0; i--) {
-				if (ret == null) {
-					ret = list.get(i).dimension();
-				} else {
-					ret = ret.summe(list.get(i).dimension());
-				}
+		Raum[] kinder = list.zeichenreihenfolge();
+
+		for (int i = 0; i < kinder.length; i++) {
+			if (ret == null) {
+				ret = kinder[i].dimension();
+			} else {
+				ret = ret.summe(kinder[i].dimension());
 			}
-		} catch (ArrayIndexOutOfBoundsException e) {
-			// Wahrscheinlich wurde die Liste geleert.
 		}
 
 		if (ret == null) {
@@ -248,9 +726,124 @@ public class Knoten extends Raum implements Listung {
 	 */
 	@Override
 	public void verschieben (Vektor v) {
-		for (int i = list.size() - 1; i >= 0; i--) {
-			list.get(i).verschieben(v);
+		if (lokal) {
+			versatz = versatz.summe(v);
+
+			// Zwischengespeichertes Bild und BoundingRechteck liegen in lokalen Koordinaten und
+			// bleiben gültig
+			weitermelden(this, true);
+
+			return;
+		}
+
+		kinderVerschieben(v);
+		lageGeaendert();
+	}
+
+	/**
+	 * Verschiebt alle Kinder dieses Knotens einzeln.
+	 *
+	 * @param v
+	 * 		Der Vektor, der die Verschiebung angibt.
+	 */
+	private void kinderVerschieben (Vektor v) {
+		verschiebt = true;
+
+		try {
+			Raum[] kinder = list.zeichenreihenfolge();
+
+			for (int i = 0; i < kinder.length; i++) {
+				kinder[i].verschieben(v);
+			}
+		} finally {
+			verschiebt = false;
+		}
+
+		if (raster != null) {
+			raster.alleAktualisieren();
+		}
+	}
+
+	/**
+	 * Setzt, ob die Kinder dieses Knotens relativ zu ihm liegen.<br /> Ist dies aktiv, merkt sich
+	 * der Knoten beim Verschieben nur einen einzigen Versatz, statt jedes Kind einzeln zu
+	 * verschieben. Das Verschieben kostet dann unabhängig von der Anzahl der Kinder gleich viel.
+	 * Gezeichnet werden die Kinder um diesen Versatz verschoben; <code>dimension()</code>,
+	 * <code>flaechen()</code> und <code>schneidet(Raum)</code> des Knotens arbeiten weiterhin mit
+	 * Koordinaten der Zeichenebene.<br /> <br /> <b>Achtung:</b> Die Kinder selbst behalten ihre
+	 * eigenen, lokalen Koordinaten: <code>position()</code>, <code>dimension()</code>,
+	 * <code>flaechen()</code> und der Collider eines Kindes sind lokal. Ihre Lage auf der
+	 * Zeichenebene liefern <code>weltPosition()</code> und <code>weltDimension()</code>;
+	 * <code>schneidet(Raum)</code> und <code>beinhaltet(Punkt)</code> rechnen selbst um. Ein Kind
+	 * sollte daher nur an
+	 * einem Knoten mit lokalen Koordinaten hängen.<br /> Beim Abschalten wird der Versatz wieder
+	 * auf alle Kinder übertragen.
+	 *
+	 * @param aktiv
+	 * 		<code>true</code>, wenn die Kinder relativ zu diesem Knoten liegen sollen
+	 */
+	@API
+	public void lokaleKoordinatenSetzen (boolean aktiv) {
+		if (lokal == aktiv) {
+			return;
+		}
+
+		Vektor v = versatz;
+
+		versatz = Vektor.NULLVEKTOR;
+		lokal = aktiv;
+
+		if (!aktiv && !v.unwirksam()) {
+			kinderVerschieben(v);
 		}
+
+		zwischenspeicherVeraltet = true;
+		grenzenVerwerfen();
+	}
+
+	/**
+	 * @return <code>true</code>, wenn die Kinder dieses Knotens relativ zu ihm liegen
+	 *
+	 * @see #lokaleKoordinatenSetzen(boolean)
+	 */
+	@API
+	public boolean lokaleKoordinaten () {
+		return lokal;
+	}
+
+	/**
+	 * Gibt an, wie oft <code>dimension()</code> das BoundingRechteck dieses Knotens direkt aus dem
+	 * Zwischenspeicher liefern konnte.<br /> Das BoundingRechteck wird nur neu berechnet, nachdem
+	 * sich Lage oder Größe eines Kindes geändert haben (Verschieben, Hinzufügen, Entfernen, ...).
+	 *
+	 * @return Die Anzahl der Abfragen, die ohne Neuberechnung beantwortet wurden
+	 *
+	 * @see #dimensionNeuberechnungen()
+	 */
+	@API
+	public long dimensionTreffer () {
+		return grenzenTreffer.get();
+	}
+
+	/**
+	 * Gibt an, wie oft das BoundingRechteck dieses Knotens neu aus den Kindern berechnet werden
+	 * musste.
+	 *
+	 * @return Die Anzahl der Neuberechnungen
+	 *
+	 * @see #dimensionTreffer()
+	 */
+	@API
+	public long dimensionNeuberechnungen () {
+		return grenzenNeuberechnungen.get();
+	}
+
+	/**
+	 * @return Der Versatz, um den die Kinder dieses Knotens auf der Zeichenebene verschoben sind.
+	 * Ist ohne lokale Koordinaten immer der Nullvektor.
+	 */
+	Vektor versatz () {
+		return versatz;
 	}
 
 	/**
@@ -260,7 +853,7 @@ public class Knoten extends Raum implements Listung {
 	@Override
 	public Collider erzeugeCollider () {
 		ColliderGroup group = new ColliderGroup();
-		for (Raum r : list) {
+		for (Raum r : list.zeichenreihenfolge()) {
 			group.addCollider(r.erzeugeCollider());
 		}
 		return group;
@@ -277,8 +870,18 @@ public class Knoten extends Raum implements Listung {
 	public BoundingRechteck[] flaechen () {
 		ArrayList<BoundingRechteck> data = new ArrayList<>();
 
-		for (int i = list.size() - 1; i >= 0; i--) {
-			data.addAll(Arrays.asList(list.get(i).flaechen()));
+		Raum[] kinder = list.zeichenreihenfolge();
+
+		for (int i = 0; i < kinder.length; i++) {
+			data.addAll(Arrays.asList(kinder[i].flaechen()));
+		}
+
+		if (lokal) {
+			Vektor v = versatz;
+
+			for (int i = 0; i < data.size(); i++) {
+				data.set(i, data.get(i).verschobeneInstanz(v));
+			}
 		}
 
 		return data.toArray(new BoundingRechteck[data.size()]);
@@ -291,12 +894,10 @@ public class Knoten extends Raum implements Listung {
 	 */
 	@Override
 	public void setOpacity (float opacity) {
-		try {
-			for (int i = list.size() - 1; i >= 0; i--) {
-				list.get(i).setOpacity(opacity);
-			}
-		} catch (ArrayIndexOutOfBoundsException e) {
-			// Wahrscheinlich wurde die Liste geleert.
+		Raum[] kinder = list.zeichenreihenfolge();
+
+		for (int i = 0; i < kinder.length; i++) {
+			kinder[i].setOpacity(opacity);
 		}
 	}
 }
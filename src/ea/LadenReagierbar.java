@@ -0,0 +1,38 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+/**
+ * LadenReagierbar kann auf den Fortschritt eines {@link Vorlader}s reagieren, zum Beispiel um
+ * einen Ladebildschirm anzuzeigen.
+ */
+public interface LadenReagierbar {
+	/**
+	 * Diese Methode wird jedes Mal aufgerufen, wenn eine Datei fertig geladen wurde.<br />
+	 * <b>Achtung:</b> Der Aufruf erfolgt aus einem der Ladethreads, nicht aus dem Zeichen- oder
+	 * Spielthread.
+	 *
+	 * @param geladen
+	 * 		Die Anzahl an bereits geladenen Dateien
+	 * @param gesamt
+	 * 		Die Anzahl an Dateien, die bisher zum Laden angemeldet wurden
+	 */
+	public abstract void ladeFortschritt (int geladen, int gesamt);
+}
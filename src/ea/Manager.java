@@ -19,9 +19,9 @@
 
 package ea;
 
+import ea.internal.io.SchriftartenRegister;
 import ea.internal.util.Logger;
 
-import java.awt.*;
 import java.util.ArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -52,18 +52,6 @@ public class Manager {
 	 */
 	public static final Manager standard = new Manager("Interner Routinenmanager");
 
-	/**
-	 * Alle möglichen Fontnamen des Systems, auf dem man sich gerade befindet.<br /> Hiernach werden
-	 * Überprüfungen gemacht, ob die gewünschte Schriftart auch auf dem hiesigen System vorhanden
-	 * ist.
-	 */
-	public static final String[] fontNamen;
-
-	static {
-		GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-		fontNamen = ge.getAvailableFontFamilyNames();
-	}
-
 	/**
 	 * Der Counter aller vorhandenen Manager-Tickerthreads
 	 */
@@ -120,13 +108,17 @@ public class Manager {
 	 * @return <code>true</code>, falls der Font auf dem System existiert, sonst <code>false</code>
 	 */
 	public static boolean fontExistiert (String name) {
-		for (String s : fontNamen) {
-			if (s.equals(name)) {
-				return true;
-			}
-		}
+		return SchriftartenRegister.systemSchriftExistiert(name);
+	}
 
-		return false;
+	/**
+	 * Gibt alle möglichen Fontnamen des Systems aus, auf dem man sich gerade befindet.<br /> Diese
+	 * werden erst beim ersten Aufruf abgefragt.
+	 *
+	 * @return Die Namen aller Schriftfamilien dieses Systems
+	 */
+	public static String[] fontNamen () {
+		return SchriftartenRegister.systemSchriften();
 	}
 
 	/**
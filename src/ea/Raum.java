@@ -22,11 +22,13 @@ package ea;
 import ea.internal.collision.BoxCollider;
 import ea.internal.collision.Collider;
 import ea.internal.collision.NullCollider;
+import ea.internal.gra.Zeichenflaechen;
 import ea.internal.gui.Fenster;
 import ea.internal.phy.*;
 
 import java.awt.*;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Locale;
 
 /**
@@ -120,6 +122,12 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	 */
 	private Composite composite;
 
+	/**
+	 * Die Knoten, an denen dieses Objekt angemeldet ist. Wird nur bei An- und Abmeldung ersetzt,
+	 * damit Benachrichtigungen ohne Synchronisation darüber laufen können.
+	 */
+	private transient volatile Knoten[] eltern;
+
 	/**
 	 * Setzt, ob sämtliche Kollisionstests in der Engine Alpha grob oder fein sein sollen.
 	 *
@@ -227,15 +235,37 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	}
 
 	/**
-	 * Setzt den Z-Index dieses Raumes. Je größer, desto weiter vorne wird ein Raum gezeichnet.
-	 * <b>Diese Methode muss ausgeführt werden, bevor der Raum zu einem Knoten hinzugefügt
-	 * wird.</b>
+	 * Setzt den Z-Index dieses Raumes. Je größer, desto weiter vorne wird ein Raum gezeichnet.<br />
+	 * Ist der Raum bereits an Knoten angemeldet, wird er dort neu einsortiert.
 	 *
 	 * @param z
 	 * 		zu setzender Index
 	 */
 	public void zIndex (int z) {
+		if (zIndex == z) {
+			return;
+		}
+
 		zIndex = z;
+
+		Knoten[] k = eltern;
+
+		if (k != null) {
+			for (Knoten knoten : k) {
+				knoten.zIndexGeaendert(this);
+			}
+		}
+	}
+
+	/**
+	 * Gibt den Z-Index dieses Raumes aus.
+	 *
+	 * @return Der Z-Index. Je größer, desto weiter vorne wird der Raum gezeichnet.
+	 *
+	 * @see #zIndex(int)
+	 */
+	public int getZIndex () {
+		return zIndex;
 	}
 
 	/**
@@ -733,7 +763,12 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	 * @see Physik
 	 */
 	public final void sichtbarSetzen (boolean sichtbar) {
+		if (this.sichtbar == sichtbar) {
+			return;
+		}
+
 		this.sichtbar = sichtbar;
+		darstellungGeaendert();
 	}
 
 	/**
@@ -787,10 +822,41 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	 * @see #zeichnen(Graphics2D, BoundingRechteck)
 	 */
 	public final void zeichnenBasic (Graphics2D g, BoundingRechteck r) {
-		statisch = (r.x == 0) && (r.y == 0);
+		zeichnenBasic(g, r, (r.x == 0) && (r.y == 0), Vektor.NULLVEKTOR);
+	}
+
+	/**
+	 * Die Basiszeichenmethode für Knoten, die ihren Kindern ein verändertes Rechteck übergeben
+	 * (lokale Koordinaten, Zwischenspeicher).
+	 *
+	 * @param g
+	 * 		Das zeichnende Graphics-Objekt
+	 * @param r
+	 * 		Das BoundingRechteck, dass die Kameraperspektive in den Koordinaten dieses Objekts
+	 * 		repräsentiert
+	 * @param statisch
+	 * 		Ob das ursprüngliche Kamerarechteck im Ursprung lag
+	 * @param bildschirm
+	 * 		Die Verschiebung von Koordinaten relativ zu <code>r</code> hin zum Bildschirm
+	 */
+	final void zeichnenBasic (Graphics2D g, BoundingRechteck r, boolean statisch, Vektor bildschirm) {
+		this.statisch = statisch;
+
+		Zeichenflaechen flaechen = Zeichenflaechen.aktuell();
+
+		if (flaechen != null && sichtbar) {
+			// dimension() und r liegen hier in denselben, eventuell lokalen Koordinaten
+			BoundingRechteck neu = flaecheInSicht(dimension(), r);
+
+			if (!bildschirm.unwirksam()) {
+				neu = neu.verschobeneInstanz(bildschirm);
+			}
+
+			flaechen.merken(this, neu);
+		}
 
 		if (sichtbar) {
-			zeichnen(g, r);
+			zeichnen(g, r, statisch, bildschirm);
 		}
 	}
 
@@ -806,6 +872,24 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	 */
 	public abstract void zeichnen (Graphics2D g, BoundingRechteck r);
 
+	/**
+	 * Zeichnet das Objekt und kennt dabei die Angaben aus
+	 * <code>zeichnenBasic(Graphics2D, BoundingRechteck, boolean, Vektor)</code>. Nur Knoten
+	 * benötigen diese, um sie an ihre Kinder weiterzugeben.
+	 *
+	 * @param g
+	 * 		Das zeichnende Graphics-Objekt
+	 * @param r
+	 * 		Das BoundingRechteck, dass die Kameraperspektive repräsentiert
+	 * @param statisch
+	 * 		Ob das ursprüngliche Kamerarechteck im Ursprung lag
+	 * @param bildschirm
+	 * 		Die Verschiebung von Koordinaten relativ zu <code>r</code> hin zum Bildschirm
+	 */
+	void zeichnen (Graphics2D g, BoundingRechteck r, boolean statisch, Vektor bildschirm) {
+		zeichnen(g, r);
+	}
+
 	/**
 	 * Setzt die Position des Objektes gänzlich neu auf der Zeichenebene. Das Setzen ist technisch
 	 * gesehen eine Verschiebung von der aktuellen Position an die neue. <br /><br />
@@ -852,10 +936,14 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	/**
 	 * Methode zum Beschreiben der rechteckigen Fläche, die dieses Objekt einnimmt.<br /> Diese
 	 * Methode wird zentral für die Trefferkollisionen innerhalb der Engine benutzt und gehört zu
-	 * den wichtigsten Methoden der Klasse und der Engine.
+	 * den wichtigsten Methoden der Klasse und der Engine.<br /> <br /> Hängt das Objekt an einem
+	 * Knoten mit lokalen Koordinaten, liegt das Ergebnis in dessen lokalen Koordinaten. Die Lage
+	 * auf der Zeichenebene liefert dann <code>weltDimension()</code>.
 	 *
 	 * @return Ein BoundingRechteck mit minimal nötigen Umfang, um das Objekt <b>voll
 	 * einzuschliessen</b>.
+	 *
+	 * @see #weltDimension()
 	 */
 	public abstract BoundingRechteck dimension ();
 
@@ -873,6 +961,139 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	 */
 	public void verschieben (Vektor v) {
 		position = position.verschobeneInstanz(v);
+		lageGeaendert();
+	}
+
+	/**
+	 * Teilt allen Knoten, an denen dieses Objekt angemeldet ist, mit, dass sich seine Lage oder
+	 * Größe geändert hat.<br /> Muss von ableitenden Klassen aufgerufen werden, wenn sich ihre
+	 * <code>dimension()</code> ändert, ohne dass <code>verschieben(Vektor)</code> aufgerufen wird.
+	 */
+	protected void lageGeaendert () {
+		benachrichtigen(this, true);
+	}
+
+	/**
+	 * Teilt allen Knoten, an denen dieses Objekt angemeldet ist, mit, dass sich sein Aussehen (z.B.
+	 * Farbe, Sichtbarkeit oder Animationsbild) geändert hat, nicht aber seine Lage oder Größe.<br />
+	 * Muss von ableitenden Klassen aufgerufen werden, wenn sie ihr Aussehen ändern.
+	 *
+	 * @see #lageGeaendert()
+	 */
+	protected void darstellungGeaendert () {
+		benachrichtigen(this, false);
+	}
+
+	/**
+	 * Leitet eine Änderung an alle Knoten weiter, an denen dieses Objekt angemeldet ist.
+	 *
+	 * @param ursprung
+	 * 		Das Objekt, das sich ursprünglich geändert hat
+	 * @param lage
+	 * 		<code>true</code>, wenn sich Lage oder Größe geändert haben, <code>false</code>, wenn nur
+	 * 		das Aussehen betroffen ist
+	 */
+	void benachrichtigen (Raum ursprung, boolean lage) {
+		Knoten[] k = eltern;
+
+		if (k == null) {
+			return;
+		}
+
+		for (Knoten knoten : k) {
+			knoten.kindGeaendert(this, ursprung, lage);
+		}
+	}
+
+	/**
+	 * Berechnet die Fläche auf dem Bildschirm, die dieses Objekt bei der angegebenen Kameraposition
+	 * bemalen würde. Eine Drehung wird dabei grob berücksichtigt, lokale Koordinaten eines Knotens
+	 * ebenfalls.
+	 *
+	 * @param r
+	 * 		Das Rechteck, dass die Kameraposition auf der Zeichenebene definiert
+	 *
+	 * @return Die Fläche auf dem Bildschirm
+	 */
+	@NoExternalUse
+	public BoundingRechteck zeichenflaeche (BoundingRechteck r) {
+		return flaecheInSicht(weltDimension(), r);
+	}
+
+	/**
+	 * Rechnet eine Dimension dieses Objekts in eine Fläche auf dem Bildschirm um.
+	 *
+	 * @param d
+	 * 		Die Dimension dieses Objekts
+	 * @param r
+	 * 		Das Rechteck, dass die Kameraposition in denselben Koordinaten wie <code>d</code>
+	 * 		definiert
+	 *
+	 * @return Die Fläche auf dem Bildschirm
+	 */
+	private BoundingRechteck flaecheInSicht (BoundingRechteck d, BoundingRechteck r) {
+		if (drehung != 0) {
+			// Umschließendes Quadrat um den Mittelpunkt, passt für jede Drehung
+			float radius = (float) Math.sqrt(d.breite * d.breite + d.hoehe * d.hoehe) / 2;
+			Punkt m = d.zentrum();
+			d = new BoundingRechteck(m.x - radius, m.y - radius, 2 * radius, 2 * radius);
+		}
+
+		return new BoundingRechteck(d.x - r.x, d.y - r.y, d.breite, d.hoehe);
+	}
+
+	/**
+	 * Merkt sich einen Knoten, an dem dieses Objekt angemeldet wurde.
+	 *
+	 * @param k
+	 * 		Der Knoten
+	 */
+	synchronized void elternHinzufuegen (Knoten k) {
+		Knoten[] alt = eltern;
+
+		if (alt == null) {
+			eltern = new Knoten[] {k};
+			return;
+		}
+
+		for (Knoten knoten : alt) {
+			if (knoten == k) {
+				return;
+			}
+		}
+
+		Knoten[] neu = Arrays.copyOf(alt, alt.length + 1);
+		neu[alt.length] = k;
+		eltern = neu;
+	}
+
+	/**
+	 * Vergisst einen Knoten, von dem dieses Objekt abgemeldet wurde.
+	 *
+	 * @param k
+	 * 		Der Knoten
+	 */
+	synchronized void elternEntfernen (Knoten k) {
+		Knoten[] alt = eltern;
+
+		if (alt == null) {
+			return;
+		}
+
+		for (int i = 0; i < alt.length; i++) {
+			if (alt[i] == k) {
+				if (alt.length == 1) {
+					eltern = null;
+				} else {
+					Knoten[] neu = new Knoten[alt.length - 1];
+					System.arraycopy(alt, 0, neu, 0, i);
+					System.arraycopy(alt, i + 1, neu, i, alt.length - i - 1);
+					eltern = neu;
+				}
+
+				return;
+			}
+		}
 	}
 
 	/**
@@ -1039,13 +1260,14 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
             }
         } else if (this instanceof Kreis) {
             if(r instanceof Kreis) {
-                float x = r.mittelPunkt().abstand(this.mittelPunkt());
-                return x <= ((Kreis)this).radius() + ((Kreis)r).radius();
+                Punkt a = this.mittelPunkt().verschobenerPunkt(this.weltVersatz());
+                Punkt b = r.mittelPunkt().verschobenerPunkt(r.weltVersatz());
+                return a.abstand(b) <= ((Kreis)this).radius() + ((Kreis)r).radius();
             } else {
-                return this.dimension().schneidetBasic(r.dimension());
+                return this.weltDimension().schneidetBasic(r.weltDimension());
             }
         } else {
-            return this.dimension().schneidetBasic(r.dimension());
+            return this.weltDimension().schneidetBasic(r.weltDimension());
         }
         return false;
 	}	/**
@@ -1087,7 +1309,9 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	 * Erzeugt einen neuen Collider für dieses Objekt. Diese Methode approximiert für das Objekt der
 	 * jeweils implementierenden <code>Raum</code>-Klasse einen möglichst "guten" Collider; also
 	 * einen solchen, der das tatsächliche Objekt möglichst genau umfängt, aber auch möglichst wenig
-	 * Rechenarbeit beansprucht.
+	 * Rechenarbeit beansprucht.<br /> Wie <code>dimension()</code> arbeitet der Collider in den
+	 * lokalen Koordinaten eines Knotens mit lokalen Koordinaten; nur <code>schneidet(Raum)</code>
+	 * und <code>beinhaltet(Punkt)</code> rechnen diese auf die Zeichenebene um.
 	 *
 	 * @return Ein möglichst optimaler Collider für dieses Raum-Objekt.
 	 *
@@ -1107,8 +1331,22 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	 */
 	@NoExternalUse
 	public final void beforeRender (Graphics2D g, BoundingRechteck r) {
+		beforeRender(g, r, true);
+	}
+
+	/**
+	 * Bereitet die Zeichenfläche wie {@link #beforeRender(Graphics2D, BoundingRechteck)} vor,
+	 * dreht sie aber nur auf Wunsch. Dies wird von Objekten verwendet, die ihre Drehung selbst
+	 * zeichnen können.<br /> <b><i>Diese Methode sollte nicht außerhalb der Engine verwendet
+	 * werden.</i></b>
+	 *
+	 * @param drehen
+	 * 		Ob die Zeichenfläche gedreht werden soll
+	 */
+	@NoExternalUse
+	public final void beforeRender (Graphics2D g, BoundingRechteck r, boolean drehen) {
 		lastMiddle = mittelPunkt().verschobeneInstanz(new Vektor(-r.x, -r.y));
-		lastDrehung = Math.toRadians(drehung);
+		lastDrehung = drehen ? Math.toRadians(drehung) : 0;
 
 		if (lastDrehung != 0) {
 			g.rotate(lastDrehung, lastMiddle.x, lastMiddle.y);
@@ -1156,7 +1394,8 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	}
 
 	/**
-	 * Prueft, ob ein bestimmter Punkt innerhalb des Raum-Objekts liegt.
+	 * Prueft, ob ein bestimmter Punkt innerhalb des Raum-Objekts liegt. Der Punkt liegt auf der
+	 * Zeichenebene, auch wenn das Objekt an einem Knoten mit lokalen Koordinaten hängt.
 	 *
 	 * @param p
 	 * 		Der Punkt, der auf Inhalt im Objekt getestet werden soll.
@@ -1169,6 +1408,13 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 			p = p.verschobeneInstanz(new Vektor(-b.x, -b.y));
 		}
 
+		Vektor v = weltVersatz();
+
+		if (!v.unwirksam()) {
+			// flaechen() liegt in lokalen Koordinaten
+			p = p.verschobeneInstanz(v.gegenrichtung());
+		}
+
 		BoundingRechteck[] dim = flaechen();
 
 		for (BoundingRechteck r : dim) {
@@ -1185,7 +1431,8 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	 * Methode wird von komplexeren Gebilden, wie geometrischen oder Listen ueberschrieben.
 	 *
 	 * @return Alle Rechtecksflaechen, auf denen dieses Objekt liegt. Ist standartisiert ein Array
-	 * der Groesse 1 mit der <code>dimension()</code> als Inhalt.
+	 * der Groesse 1 mit der <code>dimension()</code> als Inhalt. Sie liegen wie diese in lokalen
+	 * Koordinaten, wenn das Objekt an einem Knoten mit lokalen Koordinaten hängt.
 	 *
 	 * @see Knoten
 	 */
@@ -1254,17 +1501,73 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	/**
 	 * Gibt die Position der linken oberen Ecke zurück. Sollte das Raumobjekt nicht rechteckig sein,
 	 * so wird die Position der linken oberen Ecke des umschließenden Rechtecks genommen. <br /><br
-	 * />Mehr Informationen liefert die Methode {@link #dimension()}.
+	 * />Mehr Informationen liefert die Methode {@link #dimension()}.<br /> Hängt das Objekt an
+	 * einem Knoten mit lokalen Koordinaten, ist dies die Position in dessen lokalen Koordinaten,
+	 * siehe <code>weltPosition()</code>.
 	 *
 	 * @return Die Koordinaten des Punktes der linken, oberen Ecke in Form eines
 	 * <code>Punkt</code>-Objektes
 	 *
 	 * @see #dimension()
+	 * @see #weltPosition()
 	 */
 	public Punkt position () {
 		return position;
 	}
 
+	/**
+	 * Gibt die Position dieses Objekts auf der Zeichenebene aus. Diese unterscheidet sich nur dann
+	 * von <code>position()</code>, wenn das Objekt an einem Knoten mit lokalen Koordinaten hängt.
+	 *
+	 * @return Die linke, obere Ecke auf der Zeichenebene
+	 *
+	 * @see Knoten#lokaleKoordinatenSetzen(boolean)
+	 */
+	@API
+	public Punkt weltPosition () {
+		Vektor v = weltVersatz();
+
+		return v.unwirksam() ? position() : position().verschobenerPunkt(v);
+	}
+
+	/**
+	 * Gibt die Dimension dieses Objekts auf der Zeichenebene aus. Diese unterscheidet sich nur dann
+	 * von <code>dimension()</code>, wenn das Objekt an einem Knoten mit lokalen Koordinaten hängt.
+	 *
+	 * @return Das umschließende BoundingRechteck auf der Zeichenebene
+	 *
+	 * @see Knoten#lokaleKoordinatenSetzen(boolean)
+	 */
+	@API
+	public BoundingRechteck weltDimension () {
+		Vektor v = weltVersatz();
+
+		return v.unwirksam() ? dimension() : dimension().verschobeneInstanz(v);
+	}
+
+	/**
+	 * Summiert den Versatz aller Knoten mit lokalen Koordinaten, an denen dieses Objekt (über den
+	 * jeweils ersten Elternknoten) hängt.
+	 *
+	 * @return Der Versatz von den eigenen Koordinaten zur Zeichenebene
+	 */
+	Vektor weltVersatz () {
+		Vektor summe = Vektor.NULLVEKTOR;
+		Knoten[] k = eltern;
+
+		while (k != null && k.length > 0) {
+			Knoten knoten = k[0];
+
+			if (knoten.lokaleKoordinaten()) {
+				summe = summe.summe(knoten.versatz());
+			}
+
+			k = ((Raum) knoten).eltern;
+		}
+
+		return summe;
+	}
+
 	/**
 	 * Berechnet, ob dieses Raum-Objekt <b>exakt ueber einem zweiten steht</b>.<br /> Dies waere
 	 * fuer die Engine ein Stehen auf diesem.
@@ -1344,6 +1647,7 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	 */
 	public void drehenAbsolut (double grad) {
 		this.drehung = grad;
+		darstellungGeaendert();
 	}
 
 	/**
@@ -1354,6 +1658,7 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	 */
 	public void drehenRelativ (double grad) {
 		this.drehung -= grad;
+		darstellungGeaendert();
 	}
 
 	/**
@@ -1377,6 +1682,7 @@ public abstract class Raum implements Serializable, Comparable<Raum> {
 	@SuppressWarnings ( "unused" )
 	public void setOpacity (float opacity) {
 		this.opacity = opacity;
+		darstellungGeaendert();
 	}
 
 	/**
@@ -20,9 +20,8 @@
 package ea;
 
 import ea.internal.sound.SampledSound;
+import ea.internal.sound.SoundCache;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -32,11 +31,7 @@ public class Sound {
 	private SampledSound ss;
 
 	public Sound (String datei) {
-		try {
-			data = loadFromStream(new FileInputStream(datei));
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		}
+		data = SoundCache.holen(datei);
 	}
 
 	public static byte[] loadFromStream (InputStream is) {
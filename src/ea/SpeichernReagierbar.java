@@ -0,0 +1,41 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+/**
+ * SpeichernReagierbar kann auf das Ende eines Speichervorgangs reagieren, der im Hintergrund
+ * abläuft.
+ *
+ * @see DateiManager#schreibenImHintergrund(Figur, String, String, SpeichernReagierbar)
+ */
+public interface SpeichernReagierbar {
+	/**
+	 * Diese Methode wird einmal aufgerufen, sobald die Datei geschrieben wurde oder das Schreiben
+	 * fehlgeschlagen ist.<br /> <b>Achtung:</b> Der Aufruf erfolgt im Speicherthread, nicht im
+	 * Zeichen- oder Spielthread.
+	 *
+	 * @param pfad
+	 * 		Der Pfad der geschriebenen Datei
+	 * @param erfolg
+	 * 		<code>true</code>, wenn die Datei erfolgreich geschrieben wurde, sonst
+	 * 		<code>false</code>.
+	 */
+	public abstract void speichernBeendet (String pfad, boolean erfolg);
+}
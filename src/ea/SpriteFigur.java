@@ -0,0 +1,524 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+import ea.internal.gra.FarbFilter;
+import ea.internal.gra.PixelFeld;
+import ea.internal.gra.TexturAtlas;
+import ea.internal.io.ImageLoader;
+import ea.internal.util.Optimizer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Eine SpriteFigur ist eine Figur, deren Einzelbilder Ausschnitte eines einzigen Bildes (eines
+ * Sprite-Sheets) sind.<br /> Das Sprite-Sheet wird in gleich große Einzelbilder eingeteilt, die
+ * zeilenweise von links oben nach rechts unten die Animation bilden. Alle SpriteFiguren aus
+ * derselben Datei teilen sich dasselbe Bild, ein Bildwechsel kostet nichts.<br /><br /> <code>
+ * SpriteFigur held = new SpriteFigur(100, 200, "held.png", 32, 48);<br /> wurzel.add(held);
+ * </code><br /><br /> Animation, Spiegelung und Einfärben funktionieren genau wie bei jeder
+ * anderen Figur. Werden die Einzelbilder selbst bearbeitet (ersetzt, verschoben oder gelöscht),
+ * löst sich die SpriteFigur vom Sprite-Sheet: Sie erhält eigene Einzelbilder und verhält sich ab
+ * dann wie eine gewöhnliche Figur.
+ */
+public class SpriteFigur extends Figur {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Der Pfad des Sprite-Sheets, um es nach dem Deserialisieren erneut laden zu können.
+	 */
+	private final String verzeichnis;
+
+	/**
+	 * Das Sprite-Sheet. Solange die Farben nicht verändert wurden, ist es mit allen anderen
+	 * SpriteFiguren derselben Datei geteilt.
+	 */
+	private transient BufferedImage blatt;
+
+	/**
+	 * Das eingefärbte Sprite-Sheet, <code>null</code> wenn nicht eingefärbt.
+	 */
+	private transient BufferedImage eingefaerbt;
+
+	/**
+	 * Die aktuelle Einfärbung, <code>null</code> wenn nicht eingefärbt.
+	 */
+	private Color farbe;
+
+	/**
+	 * Ob das Sprite-Sheet eine eigene Kopie mit veränderten Farben ist.
+	 */
+	private boolean eigenesBlatt = false;
+
+	/**
+	 * Die Größe eines Einzelbildes im Sprite-Sheet.
+	 */
+	private final int bildBreite, bildHoehe;
+
+	/**
+	 * Die Anzahl an Einzelbildern pro Zeile des Sprite-Sheets.
+	 */
+	private final int spalten;
+
+	/**
+	 * Die Anzahl an Einzelbildern.
+	 */
+	private final int anzahl;
+
+	/**
+	 * Der Größenfaktor, mit dem die Einzelbilder gezeichnet werden.
+	 */
+	private int faktor = 1;
+
+	/**
+	 * Die Einzelbilder als PixelFelder, werden erst bei Bedarf erstellt.
+	 *
+	 * @see #animation()
+	 */
+	private transient PixelFeld[] felder;
+
+	/**
+	 * Ob sich diese SpriteFigur vom Sprite-Sheet gelöst hat. Sie verwendet dann eigene Einzelbilder
+	 * wie eine gewöhnliche Figur.
+	 */
+	private boolean geloest = false;
+
+	/**
+	 * Erstellt eine neue SpriteFigur, die alle Einzelbilder des Sprite-Sheets verwendet.
+	 *
+	 * @param x
+	 * 		X-Position; die links obere Ecke
+	 * @param y
+	 * 		Y-Position; die links obere Ecke
+	 * @param verzeichnis
+	 * 		Der Pfad des Sprite-Sheets
+	 * @param bildBreite
+	 * 		Die Breite eines Einzelbildes in Pixeln
+	 * @param bildHoehe
+	 * 		Die Höhe eines Einzelbildes in Pixeln
+	 */
+	public SpriteFigur (float x, float y, String verzeichnis, int bildBreite, int bildHoehe) {
+		this(x, y, verzeichnis, bildBreite, bildHoehe, 0);
+	}
+
+	/**
+	 * Erstellt eine neue SpriteFigur.
+	 *
+	 * @param x
+	 * 		X-Position; die links obere Ecke
+	 * @param y
+	 * 		Y-Position; die links obere Ecke
+	 * @param verzeichnis
+	 * 		Der Pfad des Sprite-Sheets
+	 * @param bildBreite
+	 * 		Die Breite eines Einzelbildes in Pixeln
+	 * @param bildHoehe
+	 * 		Die Höhe eines Einzelbildes in Pixeln
+	 * @param anzahl
+	 * 		Die Anzahl an Einzelbildern, falls die letzte Zeile nicht voll ist. <code>0</code>
+	 * 		verwendet alle Einzelbilder.
+	 */
+	public SpriteFigur (float x, float y, String verzeichnis, int bildBreite, int bildHoehe, int anzahl) {
+		super();
+
+		if (bildBreite <= 0 || bildHoehe <= 0) {
+			throw new IllegalArgumentException("Die Größe der Einzelbilder muss größer als 0 sein. Deine Eingabe: " + bildBreite + "x" + bildHoehe);
+		}
+
+		this.position = new Punkt(x, y);
+		this.verzeichnis = verzeichnis;
+		this.bildBreite = bildBreite;
+		this.bildHoehe = bildHoehe;
+
+		BufferedImage blatt = blatt();
+
+		this.spalten = blatt.getWidth() / bildBreite;
+		int moeglich = spalten * (blatt.getHeight() / bildHoehe);
+
+		if (moeglich == 0) {
+			throw new IllegalArgumentException("Das Sprite-Sheet ist kleiner als ein Einzelbild: " + verzeichnis);
+		}
+
+		if (anzahl < 0 || anzahl > moeglich) {
+			throw new IllegalArgumentException("Das Sprite-Sheet enthält nur " + moeglich + " Einzelbilder. Deine Eingabe: " + anzahl);
+		}
+
+		this.anzahl = anzahl == 0 ? moeglich : anzahl;
+
+		animiertSetzen(this.anzahl > 1);
+	}
+
+	/**
+	 * @return Das Sprite-Sheet, wird nach dem Deserialisieren erneut geladen.
+	 */
+	BufferedImage blatt () {
+		if (blatt == null) {
+			blatt = ImageLoader.loadExternalImage(verzeichnis);
+
+			if (blatt == null) {
+				throw new IllegalArgumentException("Das Sprite-Sheet konnte nicht geladen werden: " + verzeichnis);
+			}
+		}
+
+		return blatt;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int bildAnzahl () {
+		return geloest ? super.bildAnzahl() : anzahl;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void zeichnen (Graphics2D g, BoundingRechteck r) {
+		if (geloest) {
+			super.zeichnen(g, r);
+			return;
+		}
+
+		if (!r.schneidetBasic(this.dimension())) {
+			return;
+		}
+
+		BufferedImage quelle = farbe != null ? eingefaerbt() : blatt();
+
+		int bild = aktuellesBild();
+		int sx = (bild % spalten) * bildBreite;
+		int sy = (bild / spalten) * bildHoehe;
+
+		int x = (int) (position.x - r.x);
+		int y = (int) (position.y - r.y);
+		int w = bildBreite * faktor;
+		int h = bildHoehe * faktor;
+
+		int x1 = xGespiegelt() ? x + w : x, x2 = xGespiegelt() ? x : x + w;
+		int y1 = yGespiegelt() ? y + h : y, y2 = yGespiegelt() ? y : y + h;
+
+		TexturAtlas.Region region = TexturAtlas.global().region(quelle);
+
+		if (region != null) {
+			quelle = region.seite;
+			sx += region.x;
+			sy += region.y;
+		}
+
+		super.beforeRender(g, r);
+		g.drawImage(quelle, x1, y1, x2, y2, sx, sy, sx + bildBreite, sy + bildHoehe, null);
+		super.afterRender(g, r);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BoundingRechteck dimension () {
+		if (geloest) {
+			return super.dimension();
+		}
+
+		return new BoundingRechteck(position.x, position.y, bildBreite * faktor, bildHoehe * faktor);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BoundingRechteck[] flaechen () {
+		if (geloest) {
+			return super.flaechen();
+		}
+
+		return new BoundingRechteck[] {dimension()};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void faktorSetzen (int faktor) {
+		if (faktor <= 0) {
+			throw new IllegalArgumentException("Der Faktor muss größer als 0 sein. Deine Eingabe: " + faktor);
+		}
+
+		if (geloest) {
+			super.faktorSetzen(faktor);
+			return;
+		}
+
+		this.faktor = faktor;
+		this.felder = null;
+
+		lageGeaendert();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void einfaerben (Farbe f) {
+		if (geloest) {
+			super.einfaerben(f);
+			return;
+		}
+
+		this.farbe = f.wert();
+		this.eingefaerbt = null;
+
+		darstellungGeaendert();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void zurueckFaerben () {
+		if (geloest) {
+			super.zurueckFaerben();
+			return;
+		}
+
+		this.farbe = null;
+		this.eingefaerbt = null;
+
+		darstellungGeaendert();
+	}
+
+	/**
+	 * @return Das Sprite-Sheet, in dem alle sichtbaren Pixel die Einfärbung haben.
+	 */
+	private BufferedImage eingefaerbt () {
+		if (eingefaerbt == null) {
+			BufferedImage quelle = blatt();
+			BufferedImage ziel = Optimizer.createCompatibleImage(quelle.getWidth(), quelle.getHeight(), Transparency.TRANSLUCENT);
+
+			Graphics2D g = ziel.createGraphics();
+			g.drawImage(quelle, 0, 0, null);
+			g.setComposite(AlphaComposite.SrcIn);
+			g.setColor(farbe);
+			g.fillRect(0, 0, ziel.getWidth(), ziel.getHeight());
+			g.dispose();
+
+			eingefaerbt = ziel;
+		}
+
+		return eingefaerbt;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void negativ () {
+		if (geloest) {
+			super.negativ();
+			return;
+		}
+
+		filtern(FarbFilter.NEGATIV);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void heller () {
+		if (geloest) {
+			super.heller();
+			return;
+		}
+
+		filtern(FarbFilter.HELLER);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void dunkler () {
+		if (geloest) {
+			super.dunkler();
+			return;
+		}
+
+		filtern(FarbFilter.DUNKLER);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void farbenTransformieren (int r, int g, int b) {
+		if (geloest) {
+			super.farbenTransformieren(r, g, b);
+			return;
+		}
+
+		filtern(FarbFilter.transformation(r, g, b));
+	}
+
+	/**
+	 * Wendet einen Farbfilter auf eine eigene Kopie des Sprite-Sheets an.
+	 */
+	private void filtern (FarbFilter filter) {
+		BufferedImage quelle = blatt();
+		int w = quelle.getWidth();
+		int h = quelle.getHeight();
+
+		int[] pixel = quelle.getRGB(0, 0, w, h, null, 0, w);
+		filter.anwenden(pixel, w);
+
+		BufferedImage ziel;
+
+		if (eigenesBlatt) {
+			ziel = quelle;
+			TexturAtlas.global().entfernen(ziel);
+		} else {
+			ziel = Optimizer.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+		}
+
+		ziel.setRGB(0, 0, w, h, pixel, 0, w);
+
+		blatt = ziel;
+		eigenesBlatt = true;
+		eingefaerbt = null;
+		felder = null;
+
+		darstellungGeaendert();
+	}
+
+	/**
+	 * Gibt die Einzelbilder als PixelFelder aus, zum Beispiel um die Figur mit dem
+	 * <code>DateiManager</code> als <code>.eaf</code>-Datei zu speichern.<br /> Die PixelFelder
+	 * werden beim ersten Aufruf aus dem Sprite-Sheet erstellt und bis zur nächsten Änderung der
+	 * Farben oder des Größenfaktors wiederverwendet. Wie bei jeder Figur sollten sie nur gelesen
+	 * werden, für Änderungen gibt es die entsprechenden Methoden dieser Figur.
+	 *
+	 * @return Die Einzelbilder als PixelFelder
+	 */
+	@Override
+	public PixelFeld[] animation () {
+		if (geloest) {
+			return super.animation();
+		}
+
+		PixelFeld[] ret = felder;
+
+		if (ret == null) {
+			ret = felder = felderErstellen();
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Erstellt für jedes Einzelbild des Sprite-Sheets ein PixelFeld.
+	 *
+	 * @return Die Einzelbilder als PixelFelder
+	 */
+	private PixelFeld[] felderErstellen () {
+		BufferedImage quelle = blatt();
+		PixelFeld[] ret = new PixelFeld[anzahl];
+
+		for (int i = 0; i < anzahl; i++) {
+			ret[i] = new PixelFeld(bildBreite, bildHoehe, faktor);
+			quelle.getRGB((i % spalten) * bildBreite, (i / spalten) * bildHoehe, bildBreite, bildHoehe, ret[i].daten(), 0, bildBreite);
+
+			// Vollständig durchsichtige Pixel werden nicht gezeichnet
+			int[] daten = ret[i].daten();
+
+			for (int j = 0; j < daten.length; j++) {
+				if ((daten[j] & 0xFF000000) == 0) {
+					daten[j] = 0;
+				}
+			}
+
+			ret[i].datenGeaendert();
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Löst diese SpriteFigur vom Sprite-Sheet. Sie erhält eigene Einzelbilder mit den aktuellen
+	 * Farben und dem aktuellen Größenfaktor und verhält sich ab dann wie eine gewöhnliche Figur.
+	 */
+	private void loesen () {
+		if (geloest) {
+			return;
+		}
+
+		PixelFeld[] eigene = felder != null ? felder : felderErstellen();
+
+		if (farbe != null) {
+			for (PixelFeld feld : eigene) {
+				feld.einfaerben(farbe);
+			}
+		}
+
+		animation = eigene;
+		geloest = true;
+
+		felder = null;
+		blatt = null;
+		eingefaerbt = null;
+	}
+
+	/**
+	 * {@inheritDoc} Die SpriteFigur löst sich dabei vom Sprite-Sheet.
+	 */
+	@Override
+	public void animationSetzen (PixelFeld[] a) {
+		loesen();
+		super.animationSetzen(a);
+	}
+
+	/**
+	 * {@inheritDoc} Die SpriteFigur löst sich dabei vom Sprite-Sheet.
+	 */
+	@Override
+	public void animationsBildSetzen (PixelFeld bild, int index) {
+		loesen();
+		super.animationsBildSetzen(bild, index);
+	}
+
+	/**
+	 * {@inheritDoc} Die SpriteFigur löst sich dabei vom Sprite-Sheet.
+	 */
+	@Override
+	public void animationsBildVerschieben (int indexAlt, int indexNeu) {
+		loesen();
+		super.animationsBildVerschieben(indexAlt, indexNeu);
+	}
+
+	/**
+	 * {@inheritDoc} Die SpriteFigur löst sich dabei vom Sprite-Sheet.
+	 */
+	@Override
+	public void animationLoeschen (int index) {
+		loesen();
+		super.animationLoeschen(index);
+	}
+}
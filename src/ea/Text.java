@@ -21,14 +21,12 @@ package ea;
 
 import ea.internal.collision.Collider;
 import ea.internal.gui.Fenster;
+import ea.internal.io.SchriftartenRegister;
 import ea.internal.util.Logger;
 
 import java.awt.*;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Zur Darstellung von Texten im Programmbildschirm.
@@ -40,38 +38,6 @@ import java.util.ArrayList;
 public class Text extends Raum implements Leuchtend {
 	private static final long serialVersionUID = -2145724725115670955L;
 
-	/**
-	 * Ein Feld aller existenten Fonts, die im Hauptprojektordner gespeichert sind.<br /> Macht das
-	 * interne verwenden dieser Fonts moeglich, ohne das Vorhandensein der Fonts in den
-	 * Computerressourcen selber zur Voraussetzung zu haben.
-	 */
-	private static Font[] eigene;
-
-	/**
-	 * static-Konstruktor.<br />
-	 * hier werden die externen Fonts geladen.
-	 */
-	static {
-		ArrayList<File> alleFonts = new ArrayList<>();
-		fontsEinbauen(alleFonts, new File(System.getProperty("user.dir")));
-		File[] unter = alleFonts.toArray(new File[alleFonts.size()]);
-		eigene = new Font[unter.length];
-
-		for (int i = 0; i < unter.length; i++) {
-			try {
-				FileInputStream s = new FileInputStream(unter[i]);
-				eigene[i] = Font.createFont(Font.TRUETYPE_FONT, s);
-				s.close();
-			} catch (FileNotFoundException e) {
-				Logger.error("Interner Lesefehler. Dies hätte unter keinen Umständen passieren dürfen.");
-			} catch (FontFormatException e) {
-				Logger.error("Das TrueType-Font-Format einer Datei (" + unter[i].getPath() + ") war nicht einlesbar!");
-			} catch (IOException e) {
-				Logger.error("Lesefehler beim Laden der eigenen Fonts! Zugriffsrechte überprüfen.");
-			}
-		}
-	}
-
 	/**
 	 * Die Schriftgröße des Textes
 	 */
@@ -93,6 +59,12 @@ public class Text extends Raum implements Leuchtend {
 	 */
 	protected Font font;
 
+	/**
+	 * Der Name der zuletzt gewünschten Schriftart. Wird eine eigene Schriftart erst nach dem
+	 * Setzen gefunden, wird sie nur übernommen, wenn sie noch gewünscht ist.
+	 */
+	private volatile String fontName;
+
 	/**
 	 * Die Farbe, in der der Text dargestellt wird.
 	 */
@@ -118,6 +90,21 @@ public class Text extends Raum implements Leuchtend {
 	 */
 	private Anker anker = Anker.LINKS;
 
+	/**
+	 * Ob Breite, Höhe und Versatz des Textes bereits gemessen wurden.
+	 */
+	private transient boolean vermessen = false;
+
+	/**
+	 * Die gemessene Breite und Höhe des Textes.
+	 */
+	private transient int textBreite, textHoehe;
+
+	/**
+	 * Der gemessene Versatz der linken Kante zur X-Koordinate, abhängig vom Anker.
+	 */
+	private transient int versatz;
+
 	/**
 	 * Ebenefalls ein vereinfachter Konstruktor. Hierbei ist die Farbe "Weiss" und der Text weder
 	 * kursiv noch fett; weiterhin ist die Schriftgroesse automatisch 24.
@@ -206,23 +193,55 @@ public class Text extends Raum implements Leuchtend {
 	 * @param fontName
 	 * 		Der Name des neuen Fonts fuer den Text
 	 */
-	public void setzeFont (String fontName) {
-		Font base = null;
-		for (int i = 0; i < eigene.length; i++) {
-			if (eigene[i].getName().equals(fontName)) {
-				base = eigene[i];
-				break;
-			}
+	public void setzeFont (final String fontName) {
+		this.fontName = fontName;
+
+		if (SchriftartenRegister.holen(fontName) == null && !Manager.fontExistiert(fontName) && SchriftartenRegister.sucht()) {
+			// Die eigenen Schriftarten werden noch gesucht: bis dahin die Standardschrift zeigen und
+			// danach neu vermessen, statt auf die ganze Suche zu warten
+			fontAnwenden(fontName, false);
+
+			SchriftartenRegister.nachSuche(new Runnable() {
+				@Override
+				public void run () {
+					if (fontName.equals(Text.this.fontName)) {
+						fontAnwenden(fontName, true);
+					}
+				}
+			});
+
+			return;
 		}
+
+		fontAnwenden(fontName, true);
+	}
+
+	/**
+	 * Setzt den Font anhand seines Namens und vermisst den Text neu.
+	 *
+	 * @param fontName
+	 * 		Der Name des Fonts
+	 * @param melden
+	 * 		Ob ein unbekannter Name als Fehler gemeldet werden soll
+	 */
+	private void fontAnwenden (String fontName, boolean melden) {
+		Font base = SchriftartenRegister.holen(fontName);
+
 		if (base != null) {
 			this.font = base.deriveFont(schriftart, groesse);
 		} else {
 			if (!Manager.fontExistiert(fontName)) {
 				fontName = "SansSerif";
-				Logger.error("Achtung! Die gewuenschte Schriftart existiert nicht im Font-Verzeichnis dieses PC! " + "Wurde der Name falsch geschrieben? Oder existiert der Font nicht?");
+
+				if (melden) {
+					Logger.error("Achtung! Die gewuenschte Schriftart existiert nicht im Font-Verzeichnis dieses PC! " + "Wurde der Name falsch geschrieben? Oder existiert der Font nicht?");
+				}
 			}
 			this.font = new Font(fontName, schriftart, groesse);
 		}
+
+		vermessen = false;
+		lageGeaendert();
 	}
 
 	/**
@@ -292,36 +311,13 @@ public class Text extends Raum implements Leuchtend {
 		this(inhalt, x, y, "SansSerif", schriftGroesse, 0, "Weiss");
 	} // TODO: Mehr Verwirrung als Hilfe?
 
-	private static void fontsEinbauen (final ArrayList<File> liste, File akt) {
-		File[] files = akt.listFiles();
-
-		if (files != null) {
-			for (int i = 0; i < files.length; i++) {
-				if (files[i].equals(akt)) {
-					Logger.error("Das Sub-Directory war das Directory selbst. Das darf nicht passieren!");
-					continue;
-				}
-				if (files[i].isDirectory()) {
-					fontsEinbauen(liste, files[i]);
-				}
-				if (files[i].getName().toLowerCase().endsWith(".ttf")) {
-					liste.add(files[i]);
-				}
-			}
-		}
-	}
-
 	/**
 	 * TODO: Dokumentation
 	 */
 	public static Font holeFont (String fontName) {
-		Font base = null;
-		for (int i = 0; i < eigene.length; i++) {
-			if (eigene[i].getName().equals(fontName)) {
-				base = eigene[i];
-				break;
-			}
-		}
+		// Der Font wird direkt ausgegeben und kann nicht nachträglich ersetzt werden
+		Font base = SchriftartenRegister.holenWartend(fontName);
+
 		if (base != null) {
 			return base;
 		} else {
@@ -333,6 +329,20 @@ public class Text extends Raum implements Leuchtend {
 		}
 	}
 
+	/**
+	 * Fügt ein weiteres Verzeichnis hinzu, in dem nach eigenen Schriftarten (<code>.ttf</code>)
+	 * gesucht wird. Das Arbeitsverzeichnis wird immer durchsucht.<br /> Die Suche läuft im
+	 * Hintergrund, die gefundenen Schriftarten können danach wie gewohnt über ihren Namen verwendet
+	 * werden.
+	 *
+	 * @param verzeichnis
+	 * 		Der Pfad des Verzeichnisses
+	 */
+	@API
+	public static void schriftartenVerzeichnisHinzufuegen (String verzeichnis) {
+		SchriftartenRegister.verzeichnisHinzufuegen(new File(verzeichnis));
+	}
+
 	/**
 	 * Sehr wichtige Methode!<br /> Diese Methode liefert als Protokoll an die Konsole alle Namen,
 	 * mit denen die aus dem Projektordner geladenen ".ttf"-Fontdateien gewaehlt werden koennen.<br
@@ -345,14 +355,16 @@ public class Text extends Raum implements Leuchtend {
 	public static void geladeneSchriftartenAusgeben () {
 		Logger.info("Protokoll aller aus dem Projektordner geladener Fontdateien");
 
-		if (eigene.length == 0) {
+		List<String> namen = SchriftartenRegister.namen();
+
+		if (namen.isEmpty()) {
 			Logger.info("Es wurden keine \".ttf\"-Dateien im Projektordner gefunden");
 		} else {
-			Logger.info("Es wurden " + eigene.length + " \".ttf\"-Dateien im Projektordner gefunden.");
+			Logger.info("Es wurden " + namen.size() + " \".ttf\"-Dateien im Projektordner gefunden.");
 			Logger.info("Diese sind unter folgenden Namen abrufbar:");
 
-			for (Font font : eigene) {
-				Logger.info(font.getName());
+			for (String name : namen) {
+				Logger.info(name);
 			}
 		}
 	}
@@ -377,6 +389,8 @@ public class Text extends Raum implements Leuchtend {
 	 */
 	public void setzeInhalt (String inhalt) {
 		this.inhalt = inhalt;
+		vermessen = false;
+		lageGeaendert();
 	}
 
 	/**
@@ -413,6 +427,8 @@ public class Text extends Raum implements Leuchtend {
 	 */
 	private void aktualisieren () {
 		this.font = this.font.deriveFont(schriftart, groesse);
+		vermessen = false;
+		lageGeaendert();
 	}
 
 	/**
@@ -446,7 +462,7 @@ public class Text extends Raum implements Leuchtend {
 	 */
 	public void setzeFarbe (Color c) {
 		farbe = c;
-		aktualisieren();
+		darstellungGeaendert();
 	}
 
 	/**
@@ -525,18 +541,11 @@ public class Text extends Raum implements Leuchtend {
 
 		super.beforeRender(g, r);
 
-		FontMetrics f = Fenster.metrik(font);
-		float x = position.x, y = position.y;
-
-		if (anker == Anker.MITTE) {
-			x = position.x - f.stringWidth(inhalt) / 2;
-		} else if (anker == Anker.RECHTS) {
-			x = position.x - f.stringWidth(inhalt);
-		}
+		vermessen();
 
 		g.setColor(farbe);
 		g.setFont(font);
-		g.drawString(inhalt, (int) (x - r.x), (int) (y - r.y + groesse));
+		g.drawString(inhalt, (int) (position.x - versatz - r.x), (int) (position.y - r.y + groesse));
 
 		super.afterRender(g, r);
 	}
@@ -547,16 +556,47 @@ public class Text extends Raum implements Leuchtend {
 	 */
 	@Override
 	public BoundingRechteck dimension () {
+		vermessen();
+
+		return new BoundingRechteck(position.x - versatz, position.y, textBreite, textHoehe);
+	}
+
+	/**
+	 * Misst die Breite des Inhalts. Wird nur aufgerufen, wenn sich Inhalt, Font oder Anker
+	 * geändert haben.
+	 *
+	 * @param f
+	 * 		Die Metriken des aktuellen Fonts
+	 *
+	 * @return Die Breite des Inhalts in Pixeln
+	 */
+	protected int breiteMessen (FontMetrics f) {
+		return f.stringWidth(inhalt);
+	}
+
+	/**
+	 * Misst Breite, Höhe und Versatz des Textes, falls sich Inhalt, Font oder Anker seit der
+	 * letzten Messung geändert haben.
+	 */
+	private void vermessen () {
+		if (vermessen) {
+			return;
+		}
+
 		FontMetrics f = Fenster.metrik(font);
-		float x = position.x, y = position.y;
+
+		textBreite = breiteMessen(f);
+		textHoehe = f.getHeight();
 
 		if (anker == Anker.MITTE) {
-			x = position.x - f.stringWidth(inhalt) / 2;
+			versatz = textBreite / 2;
 		} else if (anker == Anker.RECHTS) {
-			x = position.x - f.stringWidth(inhalt);
+			versatz = textBreite;
+		} else {
+			versatz = 0;
 		}
 
-		return new BoundingRechteck(x, y, f.stringWidth(inhalt), f.getHeight());
+		vermessen = true;
 	}
 
 	/**
@@ -668,6 +708,8 @@ public class Text extends Raum implements Leuchtend {
 	 */
 	public void setAnker (Anker anker) {
 		this.anker = anker;
+		vermessen = false;
+		lageGeaendert();
 	}
 
 	/**
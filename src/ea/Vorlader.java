@@ -0,0 +1,417 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea;
+
+import ea.internal.gra.FigurCache;
+import ea.internal.gra.FigurDaten;
+import ea.internal.io.ImageLoader;
+import ea.internal.io.SchriftartenRegister;
+import ea.internal.sound.SoundCache;
+import ea.internal.util.Logger;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ein Vorlader lädt Bilder, Figuren, Sounds und Schriftarten parallel im Hintergrund, zum Beispiel
+ * während ein Ladebildschirm angezeigt wird.<br /> Sobald eine Datei geladen ist, greifen die
+ * normalen Konstruktoren (<code>new Bild(...)</code>, <code>new Figur(...)</code>, <code>new
+ * Sound(...)</code>, <code>new Text(...)</code>) auf die geladenen Daten zu, ohne die Datei erneut
+ * zu lesen. Alle vorgeladenen Daten bleiben im Speicher, bis {@link #freigeben()} aufgerufen wird,
+ * auch wenn der Bild-Zwischenspeicher sein Budget überschreitet.<br /><br /> <code> Vorlader vorlader = new Vorlader(meinLadebildschirm, "hintergrund.png",
+ * "held.eaf", "musik.wav");<br /> // ... später, z.B. in einem Ticker<br /> if (vorlader.fertig())
+ * { levelStarten(); } </code>
+ */
+public class Vorlader {
+	/**
+	 * Die Aufträge aller angemeldeten Dateien.
+	 */
+	private final List<Future<Boolean>> auftraege = new ArrayList<>();
+
+	/**
+	 * Die von diesem Vorlader gehaltenen Figurdaten.
+	 */
+	private final List<FigurDaten> figuren = new ArrayList<>();
+
+	/**
+	 * Die von diesem Vorlader gehaltenen Bilder. Solange sie hier gehalten werden, findet der
+	 * Bild-Zwischenspeicher sie auch nach dem Verdrängen wieder.
+	 */
+	private final List<BufferedImage> bilder = new ArrayList<>();
+
+	/**
+	 * Die von diesem Vorlader gehaltenen Sounddaten. Der Sound-Zwischenspeicher hält sie nur weich,
+	 * erst über diese Liste bleiben sie sicher im Speicher.
+	 */
+	private final List<byte[]> sounds = new ArrayList<>();
+
+	/**
+	 * Die Anzahl an angemeldeten Dateien.
+	 */
+	private final AtomicInteger angemeldet = new AtomicInteger();
+
+	/**
+	 * Die Anzahl an fertig geladenen Dateien.
+	 */
+	private final AtomicInteger geladen = new AtomicInteger();
+
+	/**
+	 * Wird über den Fortschritt informiert, darf <code>null</code> sein.
+	 */
+	private final LadenReagierbar reagierbar;
+
+	/**
+	 * Erstellt einen neuen Vorlader ohne Fortschrittsanzeige.
+	 *
+	 * @param dateien
+	 * 		Die zu ladenden Dateien, siehe {@link #laden(String)}
+	 */
+	public Vorlader (String... dateien) {
+		this(null, dateien);
+	}
+
+	/**
+	 * Erstellt einen neuen Vorlader und beginnt sofort mit dem Laden.
+	 *
+	 * @param reagierbar
+	 * 		Wird über den Fortschritt informiert, darf <code>null</code> sein.
+	 * @param dateien
+	 * 		Die zu ladenden Dateien, siehe {@link #laden(String)}
+	 */
+	public Vorlader (LadenReagierbar reagierbar, String... dateien) {
+		this.reagierbar = reagierbar;
+
+		for (String datei : dateien) {
+			laden(datei);
+		}
+	}
+
+	/**
+	 * Meldet eine Datei zum Laden an, die Art wird anhand der Dateiendung erkannt:
+	 * <code>.eaf</code> für Figuren, <code>.ttf</code> für Schriftarten, <code>.wav</code>,
+	 * <code>.mp3</code>, <code>.aiff</code> und <code>.au</code> für Sounds, alles andere wird als
+	 * Bild geladen.
+	 *
+	 * @param datei
+	 * 		Der Pfad der Datei
+	 *
+	 * @return Ist fertig, sobald die Datei geladen ist. Das Ergebnis gibt an, ob das Laden
+	 * erfolgreich war.
+	 */
+	@API
+	public Future<Boolean> laden (String datei) {
+		String name = datei.toLowerCase();
+
+		if (name.endsWith(".eaf")) {
+			return figur(datei);
+		} else if (name.endsWith(".ttf")) {
+			return schriftart(datei);
+		} else if (name.endsWith(".wav") || name.endsWith(".mp3") || name.endsWith(".aiff") || name.endsWith(".au")) {
+			return sound(datei);
+		} else {
+			return bild(datei);
+		}
+	}
+
+	/**
+	 * Meldet ein Bild in Originalgröße zum Laden an, wie es <code>new Bild(x, y, datei)</code>
+	 * verwendet.<br /> Das Bild bleibt im Speicher, bis {@link #freigeben()} aufgerufen wird.
+	 *
+	 * @param datei
+	 * 		Der Pfad der Bilddatei
+	 *
+	 * @return Ist fertig, sobald das Bild geladen ist.
+	 */
+	@API
+	public Future<Boolean> bild (final String datei) {
+		return anmelden(new Callable<Boolean>() {
+			@Override
+			public Boolean call () {
+				return halten(ImageLoader.loadExternalImage(datei));
+			}
+		});
+	}
+
+	/**
+	 * Meldet ein Bild in einer bestimmten Größe zum Laden an, wie es <code>new Bild(x, y, breite,
+	 * hoehe, datei)</code> verwendet.<br /> Das Bild bleibt im Speicher, bis {@link #freigeben()}
+	 * aufgerufen wird.
+	 *
+	 * @param datei
+	 * 		Der Pfad der Bilddatei
+	 * @param breite
+	 * 		Die Breite, in der das Bild später verwendet wird
+	 * @param hoehe
+	 * 		Die Höhe, in der das Bild später verwendet wird
+	 *
+	 * @return Ist fertig, sobald das Bild geladen ist.
+	 */
+	@API
+	public Future<Boolean> bild (final String datei, final int breite, final int hoehe) {
+		if (breite <= 0 || hoehe <= 0) {
+			throw new IllegalArgumentException("Breite und Höhe müssen größer als 0 sein. Deine Eingabe: " + breite + "x" + hoehe);
+		}
+
+		return anmelden(new Callable<Boolean>() {
+			@Override
+			public Boolean call () {
+				// Die Originalgröße wird vom Konstruktor ebenfalls abgefragt
+				return ImageLoader.bildGroesse(datei) != null && halten(ImageLoader.loadExternalImage(datei, breite, hoehe));
+			}
+		});
+	}
+
+	/**
+	 * Hält ein geladenes Bild bis zum Freigeben fest.
+	 *
+	 * @return <code>true</code>, falls das Bild geladen wurde
+	 */
+	private boolean halten (BufferedImage img) {
+		if (img == null) {
+			return false;
+		}
+
+		synchronized (bilder) {
+			bilder.add(img);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Meldet eine Figur zum Laden an.<br /> Die Daten der Figur bleiben im Speicher, bis
+	 * {@link #freigeben()} aufgerufen wird.
+	 *
+	 * @param datei
+	 * 		Der Pfad der <code>.eaf</code>-Datei
+	 *
+	 * @return Ist fertig, sobald die Figur geladen ist.
+	 */
+	@API
+	public Future<Boolean> figur (final String datei) {
+		return anmelden(new Callable<Boolean>() {
+			@Override
+			public Boolean call () {
+				FigurDaten daten = FigurCache.holen(new File(DateiManager.normalizePath(datei)));
+
+				if (daten == null) {
+					return false;
+				}
+
+				synchronized (figuren) {
+					figuren.add(daten);
+				}
+
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Meldet einen Sound zum Laden an.<br /> Die Daten des Sounds bleiben im Speicher, bis
+	 * {@link #freigeben()} aufgerufen wird.
+	 *
+	 * @param datei
+	 * 		Der Pfad der Sounddatei
+	 *
+	 * @return Ist fertig, sobald der Sound geladen ist.
+	 */
+	@API
+	public Future<Boolean> sound (final String datei) {
+		return anmelden(new Callable<Boolean>() {
+			@Override
+			public Boolean call () {
+				byte[] daten = SoundCache.holen(datei);
+
+				if (daten == null) {
+					return false;
+				}
+
+				synchronized (sounds) {
+					sounds.add(daten);
+				}
+
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Meldet eine TrueType-Schriftart zum Laden an. Danach kann sie über ihren Namen verwendet
+	 * werden, auch wenn sie nicht im Projektordner liegt.
+	 *
+	 * @param datei
+	 * 		Der Pfad der <code>.ttf</code>-Datei
+	 *
+	 * @return Ist fertig, sobald die Schriftart geladen ist.
+	 */
+	@API
+	public Future<Boolean> schriftart (final String datei) {
+		return anmelden(new Callable<Boolean>() {
+			@Override
+			public Boolean call () {
+				try {
+					SchriftartenRegister.hinzufuegen(Font.createFont(Font.TRUETYPE_FONT, new File(datei)));
+					return true;
+				} catch (FontFormatException | IOException e) {
+					Logger.error("Die Schriftart konnte nicht geladen werden: " + datei);
+					return false;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Übergibt einen Auftrag an die Ladethreads und zählt nach dessen Ende den Fortschritt hoch.
+	 */
+	private Future<Boolean> anmelden (final Callable<Boolean> auftrag) {
+		angemeldet.incrementAndGet();
+
+		Future<Boolean> future = Ladethreads.POOL.submit(new Callable<Boolean>() {
+			@Override
+			public Boolean call () throws Exception {
+				try {
+					return auftrag.call();
+				} finally {
+					int fertig = geladen.incrementAndGet();
+
+					if (reagierbar != null) {
+						reagierbar.ladeFortschritt(fertig, anzahl());
+					}
+				}
+			}
+		});
+
+		synchronized (auftraege) {
+			auftraege.add(future);
+		}
+
+		return future;
+	}
+
+	/**
+	 * @return Die Anzahl an angemeldeten Dateien
+	 */
+	public int anzahl () {
+		return angemeldet.get();
+	}
+
+	/**
+	 * @return Die Anzahl an bereits fertig geladenen Dateien
+	 */
+	public int geladen () {
+		return geladen.get();
+	}
+
+	/**
+	 * @return Der Fortschritt als Wert zwischen <code>0</code> und <code>1</code>
+	 */
+	public float fortschritt () {
+		int anzahl = anzahl();
+
+		return anzahl == 0 ? 1 : (float) geladen() / anzahl;
+	}
+
+	/**
+	 * @return <code>true</code>, sobald alle angemeldeten Dateien geladen wurden
+	 */
+	public boolean fertig () {
+		return geladen() >= anzahl();
+	}
+
+	/**
+	 * Wartet, bis alle angemeldeten Dateien geladen wurden.
+	 *
+	 * @return <code>true</code>, falls alle Dateien erfolgreich geladen wurden
+	 */
+	public boolean warten () {
+		List<Future<Boolean>> kopie;
+
+		synchronized (auftraege) {
+			kopie = new ArrayList<>(auftraege);
+		}
+
+		boolean erfolg = true;
+
+		for (Future<Boolean> future : kopie) {
+			try {
+				erfolg &= future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			} catch (ExecutionException e) {
+				Logger.error("Fehler beim Vorladen: " + e.getCause());
+				erfolg = false;
+			}
+		}
+
+		return erfolg;
+	}
+
+	/**
+	 * Gibt die von diesem Vorlader gehaltenen Bilder, Figur- und Sounddaten frei. Bilder, Figuren
+	 * und Sounds, die diese bereits verwenden, sind davon nicht betroffen.
+	 */
+	public void freigeben () {
+		synchronized (bilder) {
+			bilder.clear();
+		}
+
+		synchronized (sounds) {
+			sounds.clear();
+		}
+
+		synchronized (figuren) {
+			for (FigurDaten daten : figuren) {
+				FigurCache.freigeben(daten);
+			}
+
+			figuren.clear();
+		}
+	}
+
+	/**
+	 * Hält die gemeinsamen Ladethreads, einen pro Prozessorkern.
+	 */
+	private static class Ladethreads {
+		static final ExecutorService POOL = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()), new ThreadFactory() {
+			private final AtomicInteger nummer = new AtomicInteger();
+
+			@Override
+			public Thread newThread (Runnable r) {
+				Thread thread = new Thread(r, "Ladethread-" + nummer.incrementAndGet());
+				thread.setDaemon(true);
+
+				return thread;
+			}
+		});
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.Raum;
+
+/**
+ * Ein Beobachter wird von einem Knoten über Änderungen in dessen Teilbaum informiert.
+ */
+public interface AenderungsBeobachter {
+	/**
+	 * Wird aufgerufen, wenn sich ein Objekt im beobachteten Teilbaum geändert hat. Der Aufruf kann
+	 * aus beliebigen Threads erfolgen.
+	 *
+	 * @param ursprung
+	 * 		Das Objekt, das sich geändert hat
+	 */
+	void geaendert (Raum ursprung);
+}
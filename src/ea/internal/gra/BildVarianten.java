@@ -0,0 +1,290 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.internal.io.BildCache;
+import ea.internal.util.Optimizer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Hält bereits berechnete gedrehte und skalierte Varianten eines Bildes, damit diese nicht bei
+ * jedem Aufruf neu gezeichnet werden müssen.<br /> Pro Quellbild wird höchstens eine bestimmte
+ * Menge an Speicher belegt, darüber hinaus werden die am längsten nicht verwendeten Varianten
+ * verworfen. Die Varianten werden geteilt und dürfen nicht verändert werden.
+ */
+public class BildVarianten {
+	/**
+	 * Die Varianten aller Quellbilder. Quellbilder, die nicht mehr verwendet werden, fallen
+	 * automatisch heraus.
+	 */
+	private static final Map<BufferedImage, BildVarianten> alle = new WeakHashMap<>();
+
+	/**
+	 * Der maximale Speicherbedarf der Varianten eines Quellbildes in Bytes.
+	 */
+	private static volatile long maximum = 16L << 20;
+
+	/**
+	 * Ob beim starken Verkleinern über Zwischenstufen halber Größe skaliert wird.
+	 */
+	private static volatile boolean mipmaps = false;
+
+	/**
+	 * Das Quellbild, nur schwach referenziert, damit es weiterhin aus {@link #alle} fallen kann.
+	 */
+	private final WeakReference<BufferedImage> quelle;
+
+	/**
+	 * Die Varianten in LRU-Reihenfolge.
+	 */
+	private final LinkedHashMap<String, BufferedImage> varianten = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Die Zwischenstufen halber Größe, beginnend mit der halben Größe des Quellbildes.
+	 */
+	private final List<BufferedImage> stufen = new ArrayList<>();
+
+	/**
+	 * Der Speicherbedarf aller Varianten und Zwischenstufen in Bytes.
+	 */
+	private long bytes;
+
+	private BildVarianten (BufferedImage quelle) {
+		this.quelle = new WeakReference<>(quelle);
+	}
+
+	/**
+	 * @return Das Quellbild. Solange Varianten angefragt werden, hält der Aufrufer es fest.
+	 */
+	private BufferedImage quelle () {
+		BufferedImage img = quelle.get();
+
+		if (img == null) {
+			throw new IllegalStateException("Das Quellbild wurde bereits entfernt.");
+		}
+
+		return img;
+	}
+
+	/**
+	 * Gibt die Varianten eines Quellbildes aus.
+	 *
+	 * @param quelle
+	 * 		Das Quellbild
+	 *
+	 * @return Die Varianten des Quellbildes
+	 */
+	public static BildVarianten von (BufferedImage quelle) {
+		synchronized (alle) {
+			BildVarianten v = alle.get(quelle);
+
+			if (v == null) {
+				v = new BildVarianten(quelle);
+				alle.put(quelle, v);
+			}
+
+			return v;
+		}
+	}
+
+	/**
+	 * Setzt den maximalen Speicherbedarf der Varianten pro Quellbild.
+	 *
+	 * @param bytes
+	 * 		Das Maximum in Bytes
+	 */
+	public static void maximumSetzen (long bytes) {
+		if (bytes < 0) {
+			throw new IllegalArgumentException("Das Maximum darf nicht negativ sein. Deine Eingabe: " + bytes);
+		}
+
+		maximum = bytes;
+	}
+
+	/**
+	 * Setzt, ob beim Verkleinern auf weniger als die halbe Größe über Zwischenstufen halber Größe
+	 * skaliert wird. Das sieht deutlich ruhiger aus, kostet aber etwa ein Drittel mehr Speicher.
+	 *
+	 * @param aktiv
+	 * 		<code>true</code>, um Zwischenstufen zu verwenden
+	 */
+	public static void mipmapsSetzen (boolean aktiv) {
+		mipmaps = aktiv;
+	}
+
+	/**
+	 * Gibt das Quellbild in einer bestimmten Größe aus.
+	 *
+	 * @param breite
+	 * 		Die Breite in Pixeln
+	 * @param hoehe
+	 * 		Die Höhe in Pixeln
+	 *
+	 * @return Das skalierte Bild
+	 */
+	public synchronized BufferedImage skaliert (int breite, int hoehe) {
+		BufferedImage quelle = quelle();
+
+		if (breite == quelle.getWidth() && hoehe == quelle.getHeight()) {
+			return quelle;
+		}
+
+		String schluessel = "s" + breite + "x" + hoehe + (mipmaps ? "m" : "");
+		BufferedImage img = varianten.get(schluessel);
+
+		if (img == null) {
+			img = Optimizer.skalieren(mipmaps ? stufe(quelle, breite, hoehe) : quelle, breite, hoehe);
+			ablegen(schluessel, img);
+		}
+
+		return img;
+	}
+
+	/**
+	 * Gibt das Quellbild um seine Mitte gedreht aus. Das Ergebnis ist gerade so groß, dass das
+	 * gedrehte Bild vollständig hineinpasst, die Mitte bleibt die Mitte.
+	 *
+	 * @param winkel
+	 * 		Der Winkel im Bogenmaß, positiv im Uhrzeigersinn
+	 *
+	 * @return Das gedrehte Bild
+	 */
+	public synchronized BufferedImage gedreht (double winkel) {
+		String schluessel = "d" + Double.doubleToLongBits(winkel);
+		BufferedImage img = varianten.get(schluessel);
+
+		if (img == null) {
+			img = drehen(winkel);
+			ablegen(schluessel, img);
+		}
+
+		return img;
+	}
+
+	/**
+	 * Gibt das Quellbild auf eine feste Anzahl an Schritten gerundet gedreht aus, sodass für eine
+	 * fortlaufende Drehung höchstens <code>schritte</code> Varianten entstehen.
+	 *
+	 * @param grad
+	 * 		Der gewünschte Winkel in Grad, positiv im Uhrzeigersinn
+	 * @param schritte
+	 * 		Die Anzahl an Schritten für eine volle Drehung
+	 *
+	 * @return Das gedrehte Bild
+	 */
+	public BufferedImage gedreht (double grad, int schritte) {
+		long schritt = Math.round(grad / 360 * schritte) % schritte;
+
+		if (schritt < 0) {
+			schritt += schritte;
+		}
+
+		if (schritt == 0) {
+			return quelle();
+		}
+
+		return gedreht(2 * Math.PI * schritt / schritte);
+	}
+
+	/**
+	 * Zeichnet das Quellbild gedreht in ein neues Bild.
+	 */
+	private BufferedImage drehen (double winkel) {
+		BufferedImage quelle = quelle();
+		int w = quelle.getWidth();
+		int h = quelle.getHeight();
+
+		double sin = Math.abs(Math.sin(winkel));
+		double cos = Math.abs(Math.cos(winkel));
+
+		// Rundungsfehler wie cos(90°) != 0 sollen keine zusätzliche Zeile ergeben
+		int breite = (int) Math.ceil(w * cos + h * sin - 1e-9);
+		int hoehe = (int) Math.ceil(w * sin + h * cos - 1e-9);
+
+		BufferedImage ziel = Optimizer.createCompatibleImage(Math.max(1, breite), Math.max(1, hoehe), Transparency.TRANSLUCENT);
+		Graphics2D g = ziel.createGraphics();
+
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.translate(breite / 2.0, hoehe / 2.0);
+		g.rotate(winkel);
+		g.translate(-w / 2.0, -h / 2.0);
+		g.drawImage(quelle, 0, 0, null);
+		g.dispose();
+
+		return ziel;
+	}
+
+	/**
+	 * Gibt die kleinste Zwischenstufe aus, die noch mindestens die gewünschte Größe hat.
+	 */
+	private BufferedImage stufe (BufferedImage quelle, int breite, int hoehe) {
+		BufferedImage stufe = quelle;
+
+		for (int i = 0; stufe.getWidth() >= 2 * breite && stufe.getHeight() >= 2 * hoehe; i++) {
+			if (i == stufen.size()) {
+				BufferedImage halb = Optimizer.skalieren(stufe, Math.max(1, stufe.getWidth() / 2), Math.max(1, stufe.getHeight() / 2));
+				stufen.add(halb);
+				bytes += BildCache.groesse(halb);
+			}
+
+			stufe = stufen.get(i);
+		}
+
+		return stufe;
+	}
+
+	/**
+	 * Legt eine Variante ab und verwirft, falls nötig, die am längsten nicht verwendeten.
+	 */
+	private void ablegen (String schluessel, BufferedImage img) {
+		varianten.put(schluessel, img);
+		bytes += BildCache.groesse(img);
+
+		Iterator<BufferedImage> it = varianten.values().iterator();
+
+		while (bytes > maximum && it.hasNext()) {
+			BufferedImage alt = it.next();
+
+			// Die gerade erstellte Variante wird noch gebraucht
+			if (alt == img) {
+				break;
+			}
+
+			it.remove();
+			bytes -= BildCache.groesse(alt);
+		}
+	}
+
+	/**
+	 * @return Der Speicherbedarf aller Varianten und Zwischenstufen dieses Quellbildes in Bytes
+	 */
+	public synchronized long bytes () {
+		return bytes;
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.NoExternalUse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ein Farbfilter verändert die Farben von PixelFeldern direkt in deren ARGB-Rastern.<br /> Die
+ * Kanäle werden über Tabellen mit 256 Einträgen umgerechnet, pro Pixel wird also nichts erzeugt.
+ * Ab einer gewissen Gesamtgröße wird parallel über Frames und Zeilen gearbeitet.
+ */
+@NoExternalUse
+public class FarbFilter {
+	/**
+	 * Ab dieser Anzahl an Pixeln wird parallel gearbeitet, ebenso ist dies die Größe der Stücke,
+	 * in welche die Arbeit höchstens aufgeteilt wird.
+	 */
+	private static final int SCHWELLE = 1 << 14;
+
+	/**
+	 * Invertiert alle Farben, die Transparenz bleibt erhalten.
+	 */
+	public static final FarbFilter NEGATIV = new FarbFilter(new Kanal() {
+		@Override
+		public int wert (int wert) {
+			return 255 - wert;
+		}
+	});
+
+	/**
+	 * Hellt alle Farben auf, entspricht <code>Color.brighter()</code>.
+	 */
+	public static final FarbFilter HELLER = new FarbFilter(new Kanal() {
+		@Override
+		public int wert (int wert) {
+			if (wert > 0 && wert < 3) {
+				wert = 3;
+			}
+
+			return Math.min((int) (wert / 0.7), 255);
+		}
+	}) {
+		@Override
+		int filtern (int argb) {
+			// Schwarz wird wie bei Color.brighter() zu einem dunklen Grau
+			if ((argb & 0x00FFFFFF) == 0) {
+				return (argb & 0xFF000000) | 0x00030303;
+			}
+
+			return super.filtern(argb);
+		}
+	};
+
+	/**
+	 * Dunkelt alle Farben ab, entspricht <code>Color.darker()</code>.
+	 */
+	public static final FarbFilter DUNKLER = new FarbFilter(new Kanal() {
+		@Override
+		public int wert (int wert) {
+			return (int) (wert * 0.7);
+		}
+	});
+
+	/**
+	 * Die Umrechnungstabellen für Rot, Grün und Blau.
+	 */
+	private final int[] rot, gruen, blau;
+
+	/**
+	 * Erstellt einen Filter, der alle drei Kanäle gleich umrechnet.
+	 *
+	 * @param kanal
+	 * 		Die Umrechnung eines einzelnen Kanals
+	 */
+	private FarbFilter (Kanal kanal) {
+		this(kanal, kanal, kanal);
+	}
+
+	/**
+	 * Erstellt einen Filter mit eigener Umrechnung je Kanal.
+	 *
+	 * @param r
+	 * 		Umrechnung des Rot-Kanals
+	 * @param g
+	 * 		Umrechnung des Grün-Kanals
+	 * @param b
+	 * 		Umrechnung des Blau-Kanals
+	 */
+	private FarbFilter (Kanal r, Kanal g, Kanal b) {
+		this.rot = new int[256];
+		this.gruen = new int[256];
+		this.blau = new int[256];
+
+		for (int i = 0; i < 256; i++) {
+			rot[i] = r.wert(i) << 16;
+			gruen[i] = g.wert(i) << 8;
+			blau[i] = b.wert(i);
+		}
+	}
+
+	/**
+	 * Erstellt einen Filter, der zu jedem Kanal einen festen Betrag addiert. Werte außerhalb von
+	 * [0; 255] werden auf den näheren Grenzwert gesetzt.
+	 *
+	 * @param r
+	 * 		Der Rot-Aenderungswert
+	 * @param g
+	 * 		Der Gruen-Aenderungswert
+	 * @param b
+	 * 		Der Blau-Aenderungswert
+	 *
+	 * @return Der passende Filter
+	 */
+	public static FarbFilter transformation (int r, int g, int b) {
+		return new FarbFilter(new Summe(r), new Summe(g), new Summe(b));
+	}
+
+	/**
+	 * Rechnet einen einzelnen, nicht durchsichtigen ARGB-Wert um.
+	 *
+	 * @param argb
+	 * 		Der alte Wert
+	 *
+	 * @return Der neue Wert, mit unveränderter Transparenz
+	 */
+	int filtern (int argb) {
+		return (argb & 0xFF000000) | rot[(argb >> 16) & 0xFF] | gruen[(argb >> 8) & 0xFF] | blau[argb & 0xFF];
+	}
+
+	/**
+	 * Wendet diesen Filter direkt auf einen Abschnitt eines Rasters an.
+	 *
+	 * @param daten
+	 * 		Das Raster
+	 * @param von
+	 * 		Erster Index (inklusive)
+	 * @param bis
+	 * 		Letzter Index (exklusive)
+	 */
+	void filtern (int[] daten, int von, int bis) {
+		for (int i = von; i < bis; i++) {
+			int c = daten[i];
+
+			if (c != 0) {
+				daten[i] = filtern(c);
+			}
+		}
+	}
+
+	/**
+	 * Wendet diesen Filter auf alle übergebenen PixelFelder an.<br /> Ist die Gesamtzahl der Pixel
+	 * groß genug, wird über Frames und Zeilen verteilt parallel gefiltert.
+	 *
+	 * @param felder
+	 * 		Die zu filternden PixelFelder, <code>null</code>-Einträge werden übersprungen
+	 */
+	public void anwenden (PixelFeld... felder) {
+		int gesamt = 0;
+
+		for (PixelFeld feld : felder) {
+			if (feld != null) {
+				gesamt += feld.daten().length;
+			}
+		}
+
+		if (gesamt < SCHWELLE) {
+			for (PixelFeld feld : felder) {
+				if (feld != null) {
+					filtern(feld.daten(), 0, feld.daten().length);
+				}
+			}
+		} else {
+			List<Aufgabe> aufgaben = new ArrayList<>(felder.length);
+
+			for (PixelFeld feld : felder) {
+				if (feld != null) {
+					aufgaben.add(new Aufgabe(feld.daten(), Math.max(feld.breiteN(), 1), 0, feld.daten().length));
+				}
+			}
+
+			Pool.POOL.invoke(new Gesamtaufgabe(aufgaben));
+		}
+
+		for (PixelFeld feld : felder) {
+			if (feld != null) {
+				feld.datenGeaendert();
+			}
+		}
+	}
+
+	/**
+	 * Wendet diesen Filter direkt auf ein ARGB-Raster an, das zu keinem PixelFeld gehört.
+	 *
+	 * @param daten
+	 * 		Das Raster, zeilenweise abgelegt
+	 * @param breite
+	 * 		Die Breite einer Zeile
+	 */
+	public void anwenden (int[] daten, int breite) {
+		if (daten.length < SCHWELLE) {
+			filtern(daten, 0, daten.length);
+		} else {
+			Pool.POOL.invoke(new Aufgabe(daten, Math.max(breite, 1), 0, daten.length));
+		}
+	}
+
+	/**
+	 * Umrechnung eines einzelnen Farbkanals.
+	 */
+	private interface Kanal {
+		int wert (int wert);
+	}
+
+	/**
+	 * Addiert einen festen Betrag und hält das Ergebnis in [0; 255].
+	 */
+	private static class Summe implements Kanal {
+		private final int betrag;
+
+		Summe (int betrag) {
+			this.betrag = betrag;
+		}
+
+		@Override
+		public int wert (int wert) {
+			return Math.max(0, Math.min(255, wert + betrag));
+		}
+	}
+
+	/**
+	 * Hält den Thread-Pool, er wird erst bei der ersten parallelen Anwendung erstellt.
+	 */
+	private static class Pool {
+		static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+
+	/**
+	 * Filtert alle Frames gleichzeitig.
+	 */
+	@SuppressWarnings ("serial")
+	private static class Gesamtaufgabe extends RecursiveAction {
+		private final List<Aufgabe> aufgaben;
+
+		Gesamtaufgabe (List<Aufgabe> aufgaben) {
+			this.aufgaben = aufgaben;
+		}
+
+		@Override
+		protected void compute () {
+			invokeAll(aufgaben);
+		}
+	}
+
+	/**
+	 * Filtert einen Abschnitt eines Rasters und teilt ihn an Zeilengrenzen, solange er zu groß ist.
+	 */
+	@SuppressWarnings ("serial")
+	private class Aufgabe extends RecursiveAction {
+		private final int[] daten;
+		private final int zeile, von, bis;
+
+		Aufgabe (int[] daten, int zeile, int von, int bis) {
+			this.daten = daten;
+			this.zeile = zeile;
+			this.von = von;
+			this.bis = bis;
+		}
+
+		@Override
+		protected void compute () {
+			int zeilen = (bis - von) / zeile;
+
+			if (bis - von <= SCHWELLE || zeilen < 2) {
+				filtern(daten, von, bis);
+				return;
+			}
+
+			int mitte = von + zeilen / 2 * zeile;
+			invokeAll(new Aufgabe(daten, zeile, von, mitte), new Aufgabe(daten, zeile, mitte, bis));
+		}
+	}
+}
@@ -0,0 +1,227 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.DateiManager;
+import ea.NoExternalUse;
+
+import java.io.File;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hält die Daten aller gerade verwendeten Figur-Dateien, sodass jede Datei nur einmal gelesen und
+ * im Speicher gehalten wird.<br /> Die Daten werden nur schwach referenziert: Sobald keine Figur
+ * sie mehr verwendet, kann der Garbage Collector sie entfernen, auch wenn sie nie freigegeben
+ * wurden. Eine Figur, die ihre Bilder verändert, gibt ihre Referenz direkt frei.<br /> Ändert
+ * sich eine Datei (Änderungszeit oder Größe) oder wird sie über den <code>DateiManager</code>
+ * neu geschrieben, wird sie beim nächsten Zugriff neu gelesen.
+ */
+@NoExternalUse
+public class FigurCache {
+	/**
+	 * Die geteilten Daten, nach absolutem Pfad.
+	 */
+	private static final Map<String, Eintrag> daten = new HashMap<>();
+
+	/**
+	 * Nimmt die Einträge auf, deren Daten vom Garbage Collector entfernt wurden.
+	 */
+	private static final ReferenceQueue<FigurDaten> entfernt = new ReferenceQueue<>();
+
+	private FigurCache () {
+		// keine Objekte erlaubt!
+	}
+
+	/**
+	 * Gibt die geteilten Daten einer Figur-Datei aus und lädt diese, falls sie noch nicht oder nur
+	 * in einer veralteten Fassung im Cache liegen.<br /> Ein Aufruf kann später mit {@link
+	 * #freigeben(FigurDaten)} ausgeglichen werden, damit die Daten sofort aus dem Cache entfernt
+	 * werden.
+	 *
+	 * @param datei
+	 * 		Die Figur-Datei
+	 *
+	 * @return Die geteilten Daten oder <code>null</code>, falls die Datei nicht gelesen werden
+	 * konnte.
+	 */
+	public static FigurDaten holen (File datei) {
+		String schluessel = schluessel(datei);
+		File quelle = new File(schluessel);
+
+		long geaendert = quelle.lastModified();
+		long groesse = quelle.length();
+
+		synchronized (FigurCache.class) {
+			FigurDaten eintrag = aktuell(schluessel, geaendert, groesse);
+
+			if (eintrag != null) {
+				eintrag.referenzen++;
+				return eintrag;
+			}
+		}
+
+		// Außerhalb der Sperre lesen, damit mehrere Dateien parallel geladen werden können
+		FigurDaten gelesen = DateiManager.figurDatenEinlesen(quelle);
+
+		if (gelesen == null) {
+			return null;
+		}
+
+		synchronized (FigurCache.class) {
+			FigurDaten eintrag = aktuell(schluessel, geaendert, groesse);
+
+			if (eintrag == null) {
+				eintrag = gelesen;
+				eintrag.schluessel = schluessel;
+				daten.put(schluessel, new Eintrag(eintrag, schluessel, geaendert, groesse));
+			}
+
+			eintrag.referenzen++;
+
+			return eintrag;
+		}
+	}
+
+	/**
+	 * Gibt eine Referenz auf geteilte Daten frei. Wird die letzte Referenz freigegeben, werden die
+	 * Daten sofort aus dem Cache entfernt.
+	 *
+	 * @param eintrag
+	 * 		Die Daten, die zuvor über {@link #holen(File)} geholt wurden
+	 */
+	public static synchronized void freigeben (FigurDaten eintrag) {
+		if (eintrag.schluessel == null || eintrag.referenzen <= 0) {
+			return;
+		}
+
+		eintrag.referenzen--;
+
+		if (eintrag.referenzen == 0) {
+			Eintrag e = daten.get(eintrag.schluessel);
+
+			// Nach einer Änderung der Datei liegt unter dem Schlüssel bereits ein neuer Eintrag
+			if (e != null && e.get() == eintrag) {
+				daten.remove(eintrag.schluessel);
+			}
+		}
+	}
+
+	/**
+	 * Entfernt eine Datei aus dem Cache, etwa weil sie gerade neu geschrieben wurde. Figuren, die
+	 * die alten Daten bereits verwenden, behalten diese.
+	 *
+	 * @param datei
+	 * 		Die Figur-Datei
+	 */
+	public static synchronized void entfernen (File datei) {
+		daten.remove(schluessel(datei));
+	}
+
+	/**
+	 * @return Die Anzahl an Figur-Dateien, deren Daten gerade im Cache liegen.
+	 */
+	public static synchronized int anzahl () {
+		aufraeumen();
+
+		return daten.size();
+	}
+
+	/**
+	 * Gibt aus, wie viele Figuren die Daten einer Datei gerade teilen.
+	 *
+	 * @param eintrag
+	 * 		Die geteilten Daten
+	 *
+	 * @return Die Anzahl an Referenzen
+	 */
+	public static synchronized int referenzen (FigurDaten eintrag) {
+		return eintrag.referenzen;
+	}
+
+	/**
+	 * @return Der Schlüssel einer Datei im Cache, ihr absoluter Pfad mit der Endung
+	 * <code>.eaf</code>.
+	 */
+	private static String schluessel (File datei) {
+		String schluessel = datei.getAbsolutePath();
+
+		if (!schluessel.endsWith(".eaf")) {
+			schluessel += ".eaf";
+		}
+
+		return schluessel;
+	}
+
+	/**
+	 * Sucht die Daten einer Datei im Cache. Muss mit Sperre auf <code>FigurCache.class</code>
+	 * aufgerufen werden.
+	 *
+	 * @return Die Daten oder <code>null</code>, falls sie nicht (mehr) im Cache liegen oder die Datei
+	 * sich inzwischen geändert hat.
+	 */
+	private static FigurDaten aktuell (String schluessel, long geaendert, long groesse) {
+		aufraeumen();
+
+		Eintrag e = daten.get(schluessel);
+
+		if (e == null || e.geaendert != geaendert || e.groesse != groesse) {
+			return null;
+		}
+
+		return e.get();
+	}
+
+	/**
+	 * Entfernt alle Einträge, deren Daten der Garbage Collector bereits entfernt hat. Muss mit
+	 * Sperre auf <code>FigurCache.class</code> aufgerufen werden.
+	 */
+	private static void aufraeumen () {
+		Reference<? extends FigurDaten> r;
+
+		while ((r = entfernt.poll()) != null) {
+			Eintrag e = (Eintrag) r;
+
+			if (daten.get(e.schluessel) == e) {
+				daten.remove(e.schluessel);
+			}
+		}
+	}
+
+	/**
+	 * Ein schwach referenzierter Eintrag mit dem Stand der Datei beim Lesen.
+	 */
+	private static class Eintrag extends WeakReference<FigurDaten> {
+		final String schluessel;
+		final long geaendert;
+		final long groesse;
+
+		Eintrag (FigurDaten daten, String schluessel, long geaendert, long groesse) {
+			super(daten, entfernt);
+
+			this.schluessel = schluessel;
+			this.geaendert = geaendert;
+			this.groesse = groesse;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.NoExternalUse;
+
+/**
+ * Die aus einer Figur-Datei gelesenen Daten: die Einzelbilder und die gespeicherte Position.<br />
+ * Über den {@link FigurCache} werden diese Daten zwischen allen Figuren geteilt, die aus derselben
+ * Datei geladen wurden. Die Einzelbilder dürfen dann nicht mehr verändert werden.
+ */
+@NoExternalUse
+public final class FigurDaten {
+	/**
+	 * Die Einzelbilder der Figur.
+	 */
+	public final PixelFeld[] bilder;
+
+	/**
+	 * Die in der Datei gespeicherte Position.
+	 */
+	public final int x, y;
+
+	/**
+	 * Der Schlüssel im Cache, <code>null</code> für nicht geteilte Daten.
+	 */
+	String schluessel;
+
+	/**
+	 * Anzahl an Figuren, welche diese Daten gerade teilen.
+	 */
+	int referenzen;
+
+	/**
+	 * Erstellt einen neuen Datensatz.
+	 *
+	 * @param bilder
+	 * 		Die Einzelbilder der Figur
+	 * @param x
+	 * 		Die gespeicherte X-Position
+	 * @param y
+	 * 		Die gespeicherte Y-Position
+	 */
+	public FigurDaten (PixelFeld[] bilder, int x, int y) {
+		this.bilder = bilder;
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * Prüft, ob ein PixelFeld zu diesen Daten gehört.
+	 *
+	 * @param feld
+	 * 		Das zu prüfende PixelFeld
+	 *
+	 * @return <code>true</code>, falls das PixelFeld eines der Einzelbilder ist
+	 */
+	public boolean enthaelt (PixelFeld feld) {
+		for (PixelFeld bild : bilder) {
+			if (bild == feld) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,399 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.internal.util.Optimizer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hält die bereits gezeichneten Zeichen einer Schriftart in einer Farbe.<br /> Jedes Zeichen wird
+ * beim ersten Bedarf einmal mit Kantenglättung auf eine Seite gezeichnet. Danach besteht das
+ * Zeichnen eines Textes nur noch aus dem Kopieren von Ausschnitten dieser Seiten.
+ */
+public class GlyphenAtlas {
+	/**
+	 * Die maximale Anzahl an Atlanten, die gleichzeitig gehalten werden.
+	 */
+	private static final int MAXIMALE_ATLANTEN = 64;
+
+	/**
+	 * Die maximale Anzahl an gemerkten Textbreiten pro Schriftart.
+	 */
+	private static final int MAXIMALE_BREITEN = 256;
+
+	/**
+	 * Die Kantenlänge einer Seite in Pixeln, sofern die Zeichen nicht größer sind.
+	 */
+	private static final int SEITENGROESSE = 512;
+
+	/**
+	 * Alle Atlanten nach Schriftart und Farbe, in LRU-Reihenfolge.
+	 */
+	private static final Begrenzt<Map.Entry<Font, Color>, GlyphenAtlas> alle = new Begrenzt<>(MAXIMALE_ATLANTEN);
+
+	/**
+	 * Die Maße aller Schriftarten, unabhängig von der Farbe, in LRU-Reihenfolge.
+	 */
+	private static final Begrenzt<Font, Masse> alleMasse = new Begrenzt<>(MAXIMALE_ATLANTEN);
+
+	/**
+	 * Eine Map, die nur eine begrenzte Anzahl an Einträgen hält und dabei die am längsten nicht
+	 * benutzten verwirft.
+	 */
+	@SuppressWarnings ("serial")
+	private static final class Begrenzt<K, V> extends LinkedHashMap<K, V> {
+		private final int maximum;
+
+		private Begrenzt (int maximum) {
+			super(16, 0.75f, true);
+			this.maximum = maximum;
+		}
+
+		@Override
+		protected boolean removeEldestEntry (Map.Entry<K, V> eldest) {
+			return size() > maximum;
+		}
+	}
+
+	/**
+	 * Die Maße einer Schriftart. Sie hängen nicht von der Farbe ab und werden deshalb von allen
+	 * Atlanten einer Schriftart geteilt und auch ohne Atlas zum Messen benutzt.
+	 */
+	private static final class Masse {
+		private final FontMetrics metrik;
+
+		/**
+		 * Die Vorschübe der Zeichen bis <code>0xFF</code>, <code>-1</code> falls noch nicht
+		 * gemessen.
+		 */
+		private final int[] latin = new int[256];
+
+		/**
+		 * Die Vorschübe aller übrigen Zeichen nach Codepoint.
+		 */
+		private final Map<Integer, Integer> weitere = new HashMap<>();
+
+		/**
+		 * Die gemerkten Breiten von Texten.
+		 */
+		private final Begrenzt<String, Integer> breiten = new Begrenzt<>(MAXIMALE_BREITEN);
+
+		private Masse (Font font) {
+			BufferedImage messen = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = messen.createGraphics();
+			Zeichner.renderHinweiseSetzen(g);
+			this.metrik = g.getFontMetrics(font);
+			g.dispose();
+
+			Arrays.fill(latin, -1);
+		}
+
+		private static Masse holen (Font font) {
+			synchronized (alleMasse) {
+				Masse masse = alleMasse.get(font);
+
+				if (masse == null) {
+					masse = new Masse(font);
+					alleMasse.put(font, masse);
+				}
+
+				return masse;
+			}
+		}
+
+		private synchronized int vorschub (int zeichen) {
+			if (zeichen < latin.length && latin[zeichen] >= 0) {
+				return latin[zeichen];
+			}
+
+			Integer bekannt = zeichen < latin.length ? null : weitere.get(zeichen);
+
+			if (bekannt != null) {
+				return bekannt;
+			}
+
+			int vorschub = metrik.stringWidth(new String(Character.toChars(zeichen)));
+
+			if (zeichen < latin.length) {
+				latin[zeichen] = vorschub;
+			} else {
+				weitere.put(zeichen, vorschub);
+			}
+
+			return vorschub;
+		}
+
+		private synchronized int breite (String text) {
+			Integer breite = breiten.get(text);
+
+			if (breite == null) {
+				int summe = 0;
+
+				for (int i = 0; i < text.length(); ) {
+					int zeichen = text.codePointAt(i);
+					summe += vorschub(zeichen);
+					i += Character.charCount(zeichen);
+				}
+
+				breite = summe;
+				breiten.put(text, breite);
+			}
+
+			return breite;
+		}
+	}
+
+	/**
+	 * Ein gezeichnetes Zeichen.
+	 */
+	private static final class Glyphe {
+		private final BufferedImage seite;
+		private final int x, y, breite, vorschub;
+
+		private Glyphe (BufferedImage seite, int x, int y, int breite, int vorschub) {
+			this.seite = seite;
+			this.x = x;
+			this.y = y;
+			this.breite = breite;
+			this.vorschub = vorschub;
+		}
+	}
+
+	private final Font font;
+
+	private final Color farbe;
+
+	private final Masse masse;
+
+	/**
+	 * Der Platz links und rechts jedes Zeichens für Überhänge, etwa bei kursiver Schrift.
+	 */
+	private final int rand;
+
+	/**
+	 * Die Höhe einer Zeile und der Abstand der Grundlinie von ihrer Oberkante.
+	 */
+	private final int zeilenHoehe, oberlaenge;
+
+	/**
+	 * Die Zeichen bis <code>0xFF</code>, diese werden direkt im Feld gefunden.
+	 */
+	private final Glyphe[] latin = new Glyphe[256];
+
+	/**
+	 * Alle übrigen Zeichen nach Codepoint.
+	 */
+	private final Map<Integer, Glyphe> weitere = new HashMap<>();
+
+	private final List<BufferedImage> seiten = new ArrayList<>();
+
+	private Graphics2D stift;
+
+	/**
+	 * Die nächste freie Stelle auf der aktuellen Seite.
+	 */
+	private int freiX, freiY;
+
+	private GlyphenAtlas (Font font, Color farbe) {
+		this.font = font;
+		this.farbe = farbe;
+
+		this.masse = Masse.holen(font);
+
+		FontMetrics metrik = masse.metrik;
+		this.rand = Math.max(1, font.getSize() / 4);
+		this.zeilenHoehe = metrik.getAscent() + metrik.getDescent() + 2;
+		this.oberlaenge = metrik.getAscent() + 1;
+	}
+
+	/**
+	 * Gibt den Atlas zu einer Schriftart und Farbe aus und erstellt ihn bei Bedarf.
+	 *
+	 * @param font
+	 * 		Die Schriftart samt Größe und Stil
+	 * @param farbe
+	 * 		Die Textfarbe
+	 *
+	 * @return Der geteilte Atlas
+	 */
+	public static GlyphenAtlas holen (Font font, Color farbe) {
+		Map.Entry<Font, Color> schluessel = new AbstractMap.SimpleImmutableEntry<>(font, farbe);
+
+		synchronized (alle) {
+			GlyphenAtlas atlas = alle.get(schluessel);
+
+			if (atlas == null) {
+				atlas = new GlyphenAtlas(font, farbe);
+				alle.put(schluessel, atlas);
+			}
+
+			return atlas;
+		}
+	}
+
+	/**
+	 * Gibt die Breite eines Textes in einer Schriftart aus, ohne dafür einen Atlas zu erstellen.
+	 * Die Breite hängt nicht von der Farbe ab und wird nur beim ersten Mal berechnet.
+	 *
+	 * @param font
+	 * 		Die Schriftart samt Größe und Stil
+	 * @param text
+	 * 		Der Text
+	 *
+	 * @return Die Breite des Textes in Pixeln
+	 */
+	public static int breite (Font font, String text) {
+		return Masse.holen(font).breite(text);
+	}
+
+	/**
+	 * Gibt die Breite eines Textes aus. Die Breite wird nur beim ersten Mal berechnet.
+	 *
+	 * @param text
+	 * 		Der Text
+	 *
+	 * @return Die Breite des Textes in Pixeln
+	 */
+	public int breite (String text) {
+		return masse.breite(text);
+	}
+
+	/**
+	 * @return Die Anzahl an Atlanten, die derzeit gehalten werden
+	 */
+	public static int anzahl () {
+		synchronized (alle) {
+			return alle.size();
+		}
+	}
+
+	/**
+	 * Zeichnet einen Text.
+	 *
+	 * @param g
+	 * 		Das zeichnende Graphics-Objekt
+	 * @param text
+	 * 		Der zu zeichnende Text
+	 * @param x
+	 * 		Die linke Kante des Textes
+	 * @param grundlinie
+	 * 		Die Höhe der Grundlinie
+	 */
+	public void zeichnen (Graphics2D g, String text, int x, int grundlinie) {
+		int y = grundlinie - oberlaenge;
+
+		for (int i = 0; i < text.length(); ) {
+			int zeichen = text.codePointAt(i);
+			Glyphe glyphe = glyphe(zeichen);
+
+			if (glyphe.breite > 0) {
+				int links = x - rand;
+				g.drawImage(glyphe.seite, links, y, links + glyphe.breite, y + zeilenHoehe, glyphe.x, glyphe.y, glyphe.x + glyphe.breite, glyphe.y + zeilenHoehe, null);
+			}
+
+			x += glyphe.vorschub;
+			i += Character.charCount(zeichen);
+		}
+	}
+
+	/**
+	 * @return Die Anzahl an Seiten, auf denen bisher Zeichen liegen
+	 */
+	public synchronized int seitenAnzahl () {
+		return seiten.size();
+	}
+
+	/**
+	 * Gibt ein Zeichen aus und zeichnet es beim ersten Bedarf auf die aktuelle Seite.
+	 */
+	private synchronized Glyphe glyphe (int zeichen) {
+		Glyphe glyphe = zeichen < latin.length ? latin[zeichen] : weitere.get(zeichen);
+
+		if (glyphe != null) {
+			return glyphe;
+		}
+
+		String text = new String(Character.toChars(zeichen));
+		int vorschub = masse.vorschub(zeichen);
+
+		if (Character.isWhitespace(zeichen) || Character.isISOControl(zeichen)) {
+			// Leerzeichen müssen nicht gezeichnet werden
+			glyphe = new Glyphe(null, 0, 0, 0, vorschub);
+		} else {
+			int breite = vorschub + 2 * rand;
+			BufferedImage seite = seiten.isEmpty() ? null : seiten.get(seiten.size() - 1);
+
+			if (seite == null || breite > seite.getWidth()) {
+				seite = neueSeite(breite);
+			} else if (freiX + breite > seite.getWidth()) {
+				freiX = 0;
+				freiY += zeilenHoehe;
+
+				if (freiY + zeilenHoehe > seite.getHeight()) {
+					seite = neueSeite(breite);
+				}
+			}
+
+			stift.drawString(text, freiX + rand, freiY + oberlaenge);
+			glyphe = new Glyphe(seite, freiX, freiY, breite, vorschub);
+
+			freiX += breite;
+		}
+
+		if (zeichen < latin.length) {
+			latin[zeichen] = glyphe;
+		} else {
+			weitere.put(zeichen, glyphe);
+		}
+
+		return glyphe;
+	}
+
+	/**
+	 * Beginnt eine neue Seite, auf der mindestens ein Zeichen der angegebenen Breite Platz hat.
+	 */
+	private BufferedImage neueSeite (int breite) {
+		if (stift != null) {
+			stift.dispose();
+		}
+
+		BufferedImage seite = Optimizer.createCompatibleImage(Math.max(SEITENGROESSE, breite), Math.max(SEITENGROESSE, zeilenHoehe), Transparency.TRANSLUCENT);
+		seiten.add(seite);
+
+		stift = seite.createGraphics();
+		Zeichner.renderHinweiseSetzen(stift);
+		stift.setFont(font);
+		stift.setColor(farbe);
+
+		freiX = 0;
+		freiY = 0;
+
+		return seite;
+	}
+}
@@ -0,0 +1,298 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.Raum;
+
+import java.util.*;
+
+/**
+ * Die nach Z-Index geordnete Liste der Kinder eines Knotens.<br /> Die Kinder liegen in einem
+ * balancierten Baum, sortiert nach Z-Index und innerhalb eines Z-Index nach der Reihenfolge des
+ * Hinzufügens. Einfügen und Entfernen kosten dadurch <code>O(log n)</code>, statt dass bei jedem
+ * Einfügen die gesamte Liste neu sortiert wird.<br /> <br /> Ein Objekt darf mehrfach enthalten
+ * sein.<br /> <br /> Schreibende Zugriffe sind synchronisiert. Zum Lesen wird ein unveränderlicher
+ * Schnappschuss in Zeichenreihenfolge herausgegeben, der nach einer Änderung einmalig neu erstellt
+ * und dann ohne Sperre geteilt wird. So kann der Zeichenthread die Kinder durchlaufen, während
+ * andere Threads den Knoten verändern.
+ */
+public class KindListe {
+	/**
+	 * Zeichenreihenfolge: aufsteigend nach Z-Index, dann nach Reihenfolge des Hinzufügens.
+	 */
+	private static final Comparator<Eintrag> ORDNUNG = new Comparator<Eintrag>() {
+		@Override
+		public int compare (Eintrag a, Eintrag b) {
+			if (a.z != b.z) {
+				return a.z < b.z ? -1 : 1;
+			}
+
+			return Long.compare(a.nummer, b.nummer);
+		}
+	};
+
+	/**
+	 * Alle Einträge in Zeichenreihenfolge.
+	 */
+	private final TreeSet<Eintrag> baum = new TreeSet<>(ORDNUNG);
+
+	/**
+	 * Die Einträge jedes Objekts, in der Reihenfolge des Hinzufügens.
+	 */
+	private final IdentityHashMap<Raum, ArrayList<Eintrag>> eintraege = new IdentityHashMap<>();
+
+	/**
+	 * Laufende Nummer für den nächsten Eintrag.
+	 */
+	private long naechsteNummer;
+
+	/**
+	 * Der aktuelle Schnappschuss aller Einträge in Zeichenreihenfolge. Ist <code>null</code>, wenn
+	 * sich die Liste seit dem letzten Lesen geändert hat.
+	 */
+	private volatile Raum[] schnappschuss;
+
+	/**
+	 * Fügt ein Objekt hinzu. Es wird innerhalb seines Z-Index hinter allen bisherigen Objekten
+	 * einsortiert.
+	 *
+	 * @param r
+	 * 		Das hinzuzufügende Objekt
+	 *
+	 * @return Die laufende Nummer des neuen Eintrags
+	 */
+	public synchronized long einfuegen (Raum r) {
+		Eintrag e = new Eintrag(r, r.getZIndex(), naechsteNummer++);
+
+		baum.add(e);
+		eintraegeVon(r).add(e);
+		schnappschuss = null;
+
+		return e.nummer;
+	}
+
+	/**
+	 * Fügt mehrere Objekte auf einmal hinzu. Die neuen Einträge werden einmal gemeinsam sortiert und
+	 * dann eingefügt.
+	 *
+	 * @param r
+	 * 		Die hinzuzufügenden Objekte, in der Reihenfolge des Hinzufügens
+	 *
+	 * @return Die laufende Nummer des ersten neuen Eintrags, die weiteren sind fortlaufend
+	 * nummeriert
+	 */
+	public synchronized long alleEinfuegen (Raum... r) {
+		long erste = naechsteNummer;
+		Eintrag[] neu = new Eintrag[r.length];
+
+		for (int i = 0; i < r.length; i++) {
+			neu[i] = new Eintrag(r[i], r[i].getZIndex(), naechsteNummer++);
+			eintraegeVon(r[i]).add(neu[i]);
+		}
+
+		Arrays.sort(neu, ORDNUNG);
+		baum.addAll(Arrays.asList(neu));
+		schnappschuss = null;
+
+		return erste;
+	}
+
+	/**
+	 * Entfernt alle Vorkommen eines Objekts.
+	 *
+	 * @param r
+	 * 		Das zu entfernende Objekt
+	 *
+	 * @return <code>true</code>, falls das Objekt enthalten war
+	 */
+	public synchronized boolean entfernen (Raum r) {
+		ArrayList<Eintrag> liste = eintraege.remove(r);
+
+		if (liste == null) {
+			return false;
+		}
+
+		for (Eintrag e : liste) {
+			baum.remove(e);
+		}
+
+		schnappschuss = null;
+
+		return true;
+	}
+
+	/**
+	 * Entfernt das zuletzt hinzugefügte Vorkommen eines Objekts.
+	 *
+	 * @param r
+	 * 		Das zu entfernende Objekt
+	 *
+	 * @return <code>true</code>, falls das Objekt enthalten war und ein Vorkommen entfernt wurde
+	 */
+	public synchronized boolean einmalEntfernen (Raum r) {
+		ArrayList<Eintrag> liste = eintraege.get(r);
+
+		if (liste == null) {
+			return false;
+		}
+
+		baum.remove(liste.remove(liste.size() - 1));
+		schnappschuss = null;
+
+		if (liste.isEmpty()) {
+			eintraege.remove(r);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Sortiert ein Objekt neu ein, nachdem sich sein Z-Index geändert hat. Innerhalb des neuen
+	 * Z-Index bleibt die Reihenfolge des Hinzufügens erhalten.
+	 *
+	 * @param r
+	 * 		Das veränderte Objekt
+	 *
+	 * @return <code>true</code>, falls das Objekt enthalten war
+	 */
+	public synchronized boolean zIndexAktualisieren (Raum r) {
+		ArrayList<Eintrag> liste = eintraege.get(r);
+
+		if (liste == null) {
+			return false;
+		}
+
+		int z = r.getZIndex();
+
+		for (int i = 0; i < liste.size(); i++) {
+			Eintrag alt = liste.get(i);
+
+			if (alt.z != z) {
+				Eintrag neu = new Eintrag(r, z, alt.nummer);
+
+				baum.remove(alt);
+				baum.add(neu);
+				liste.set(i, neu);
+				schnappschuss = null;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @param r
+	 * 		Das zu prüfende Objekt
+	 *
+	 * @return <code>true</code>, falls das Objekt mindestens einmal enthalten ist
+	 */
+	public synchronized boolean enthaelt (Raum r) {
+		return eintraege.containsKey(r);
+	}
+
+	/**
+	 * @param r
+	 * 		Das gesuchte Objekt
+	 *
+	 * @return Die laufende Nummer des ersten Vorkommens, <code>-1</code> falls nicht enthalten
+	 */
+	public synchronized long nummer (Raum r) {
+		ArrayList<Eintrag> liste = eintraege.get(r);
+
+		return liste == null ? -1 : liste.get(0).nummer;
+	}
+
+	/**
+	 * Entfernt alle Objekte.
+	 */
+	public synchronized void leeren () {
+		baum.clear();
+		eintraege.clear();
+		schnappschuss = null;
+	}
+
+	/**
+	 * @return Anzahl der Einträge, mehrfach enthaltene Objekte zählen mehrfach
+	 */
+	public synchronized int anzahl () {
+		return baum.size();
+	}
+
+	/**
+	 * Gibt alle Einträge in Zeichenreihenfolge aus, also aufsteigend nach Z-Index und innerhalb
+	 * eines Z-Index in der Reihenfolge des Hinzufügens.<br /> Solange sich die Liste nicht ändert,
+	 * wird jedes Mal derselbe Schnappschuss ohne Sperre zurückgegeben. <b>Das Array darf deshalb
+	 * nicht verändert werden.</b>
+	 *
+	 * @return Alle Einträge in Zeichenreihenfolge
+	 */
+	public Raum[] zeichenreihenfolge () {
+		Raum[] ret = schnappschuss;
+
+		if (ret != null) {
+			return ret;
+		}
+
+		synchronized (this) {
+			ret = schnappschuss;
+
+			if (ret == null) {
+				ret = new Raum[baum.size()];
+				int i = 0;
+
+				for (Eintrag e : baum) {
+					ret[i++] = e.raum;
+				}
+
+				schnappschuss = ret;
+			}
+
+			return ret;
+		}
+	}
+
+	private ArrayList<Eintrag> eintraegeVon (Raum r) {
+		ArrayList<Eintrag> liste = eintraege.get(r);
+
+		if (liste == null) {
+			liste = new ArrayList<>(1);
+			eintraege.put(r, liste);
+		}
+
+		return liste;
+	}
+
+	/**
+	 * Ein einzelnes Vorkommen eines Objekts mit dem Z-Index, unter dem es einsortiert ist.
+	 */
+	private static class Eintrag {
+		final Raum raum;
+
+		final int z;
+
+		final long nummer;
+
+		Eintrag (Raum raum, int z, long nummer) {
+			this.raum = raum;
+			this.z = z;
+			this.nummer = nummer;
+		}
+	}
+}
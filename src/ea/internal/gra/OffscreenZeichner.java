@@ -0,0 +1,166 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.Kamera;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Ein Zeichner, der nicht in ein Fenster, sondern in ein <code>BufferedImage</code> zeichnet.<br />
+ * Er nutzt dieselbe Zeichenroutine (<code>render(Graphics2D)</code>) wie der normale Zeichner,
+ * benötigt aber keinen Bildschirm und funktioniert daher auch mit
+ * <code>java.awt.headless=true</code>, z.B. für Frame-Time-Messungen oder Pixel-Vergleiche in
+ * Tests.<br /> <br /> Einzelne Frames können mit {@link #frameZeichnen()} synchron gezeichnet
+ * werden, mit {@link #init()} wird wie beim normalen Zeichner eine eigene Zeichenschleife
+ * gestartet.
+ */
+public class OffscreenZeichner extends Zeichner {
+	private static final long serialVersionUID = 7042611315724935114L;
+
+	/**
+	 * Das Bild, in das gezeichnet wird.
+	 */
+	private final BufferedImage bild;
+
+	/**
+	 * Das Graphics-Objekt des Bildes.
+	 */
+	private final Graphics2D g;
+
+	/**
+	 * Anzahl der bisher gezeichneten Frames.
+	 */
+	private long frames;
+
+	/**
+	 * Dauer des letzten Frames in Nanosekunden.
+	 */
+	private long letzteDauer;
+
+	/**
+	 * Summierte Dauer aller Frames in Nanosekunden.
+	 */
+	private long gesamtDauer;
+
+	/**
+	 * Erstellt einen Offscreen-Zeichner mit eigener Kamera und Zeichenebene.
+	 *
+	 * @param x
+	 * 		Die Breite des Bildes
+	 * @param y
+	 * 		Die Höhe des Bildes
+	 */
+	public OffscreenZeichner (int x, int y) {
+		this(x, y, new Kamera(x, y, new Zeichenebene()));
+	}
+
+	/**
+	 * Konstruktor für Objekte der Klasse OffscreenZeichner
+	 *
+	 * @param x
+	 * 		Die Breite des Bildes
+	 * @param y
+	 * 		Die Höhe des Bildes
+	 * @param c
+	 * 		Die Kamera, deren Sicht gezeichnet werden soll.
+	 */
+	public OffscreenZeichner (int x, int y, Kamera c) {
+		super(x, y, c);
+
+		bild = new BufferedImage(x, y, BufferedImage.TYPE_INT_RGB);
+		g = bild.createGraphics();
+
+		renderHinweiseSetzen(g);
+	}
+
+	/**
+	 * Die Zeichenschleife, wird wie beim normalen Zeichner über den Taktgeber gesteuert.
+	 */
+	@Override
+	public void run () {
+		while (arbeitet()) {
+			takt().frameBeginnen();
+			frameZeichnen();
+
+			try {
+				takt().warten();
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Zeichnet synchron einen einzelnen Frame in das Bild.
+	 *
+	 * @return Die Dauer des Frames in Nanosekunden
+	 */
+	public synchronized long frameZeichnen () {
+		long start = System.nanoTime();
+
+		if (nurAenderungenZeichnen()) {
+			aenderungenRendern(g);
+		} else {
+			render(g);
+		}
+
+		letzteDauer = System.nanoTime() - start;
+		gesamtDauer += letzteDauer;
+		frames++;
+
+		return letzteDauer;
+	}
+
+	/**
+	 * Gibt eine Kopie des zuletzt gezeichneten Frames zurück.
+	 *
+	 * @return Kopie des aktuellen Bildinhalts
+	 */
+	public synchronized BufferedImage bild () {
+		BufferedImage kopie = new BufferedImage(bild.getWidth(), bild.getHeight(), bild.getType());
+		bild.copyData(kopie.getRaster());
+
+		return kopie;
+	}
+
+	/**
+	 * @return Anzahl der bisher gezeichneten Frames
+	 */
+	public synchronized long frameAnzahl () {
+		return frames;
+	}
+
+	/**
+	 * @return Dauer des letzten Frames in Nanosekunden
+	 */
+	public synchronized long letzteFrameDauer () {
+		return letzteDauer;
+	}
+
+	/**
+	 * @return Durchschnittliche Dauer aller bisherigen Frames in Nanosekunden, <code>0</code> falls
+	 * noch kein Frame gezeichnet wurde
+	 */
+	public synchronized long durchschnittlicheFrameDauer () {
+		return frames == 0 ? 0 : gesamtDauer / frames;
+	}
+}
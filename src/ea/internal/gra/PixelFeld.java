@@ -20,6 +20,7 @@
 package ea.internal.gra;
 
 import ea.BoundingRechteck;
+import ea.NoExternalUse;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -29,28 +30,43 @@ import java.awt.image.BufferedImage;
  * mehreren Quadraten gleicher Groesse, die aneinandergereiht das Rechteck mit deren Groesse
  * darstellen. <br /> <b>Achtung!</b> Pixelfelder leiten sich nicht aus der notwendigen Ueberklasse
  * <code>Raum</code> ab, um direkt grafisch dargestellt werden zu koennen ein einzelnes Pixelfeld
- * kann in einer unanimierten Figur dargestellt werden!
+ * kann in einer unanimierten Figur dargestellt werden!<br /> <br /> Die Farben werden gepackt als
+ * ARGB-Werte in einem <code>int</code>-Array gehalten (4 Byte pro Unterquadrat). Ein vollständig
+ * durchsichtiger Wert (<code>0</code>) bedeutet, dass an dieser Stelle nicht gezeichnet wird.
  *
  * @author Michael Andonie
  */
 public class PixelFeld implements java.io.Serializable {
-	private static final long serialVersionUID = 78L;
+	private static final long serialVersionUID = 79L;
 
 	/**
-	 * Die Farbinformation der einzelnen Pixel.<br /> Ist einer dieser Werte <code>null</code>, so
-	 * wird an dieser Position nicht gezeichnet.
+	 * Die Anzahl an Unterquadraten in Richtung X.
 	 */
-	private final Color[][] farbe;
+	private final int breiteN;
 
 	/**
-	 * Speichert das Bild zwischen, damit das Rendern schneller geht.
+	 * Die Anzahl an Unterquadraten in Richtung Y.
+	 */
+	private final int hoeheN;
+
+	/**
+	 * Die Farbinformation der einzelnen Pixel als ARGB-Werte, zeilenweise abgelegt (Index
+	 * <code>y * breiteN + x</code>).<br /> Ist einer dieser Werte <code>0</code>, so wird an dieser
+	 * Position nicht gezeichnet.
+	 */
+	private final int[] daten;
+
+	/**
+	 * Speichert das Bild in Originalgröße (ein Bildpunkt pro Unterquadrat) zwischen, damit das
+	 * Rendern schneller geht.
 	 */
 	private transient BufferedImage cache;
 
 	/**
-	 * Bei Änderungen wird dies falsch gesetzt.
+	 * Bei Änderungen wird dies <code>true</code> gesetzt, beim Neuaufbau des Caches wieder
+	 * <code>false</code>.
 	 */
-	private transient boolean cacheOutdated;
+	private transient volatile boolean cacheOutdated = true;
 
 	/**
 	 * Alternative Farbe fuer das einfarbige Zeichnen
@@ -84,14 +100,14 @@ public class PixelFeld implements java.io.Serializable {
 	 * 		Der Genauigkeitsfaktor der Figur. <b>MUSS</b> groesser als 0 zu sein !
 	 */
 	public PixelFeld (int grX, int grY, int faktor) {
-		farbe = new Color[grX][grY];
-
 		if (faktor <= 0) {
 			throw new IllegalArgumentException("Der Eingabefaktor muss größer als 0 sein. Deine Eingabe: " + faktor);
 		}
 
+		this.breiteN = grX;
+		this.hoeheN = grY;
+		this.daten = new int[grX * grY];
 		this.faktor = faktor;
-		this.cacheOutdated = true;
 	}
 
 	/**
@@ -105,8 +121,8 @@ public class PixelFeld implements java.io.Serializable {
 			throw new IllegalArgumentException("Zoomfaktor muss größer als 0 sein. Deine Eingabe: " + faktor);
 		}
 
+		// Der Cache liegt in Originalgröße vor und muss nicht neu aufgebaut werden
 		this.faktor = faktor;
-		this.cacheOutdated = true;
 	}
 
 	/**
@@ -125,74 +141,47 @@ public class PixelFeld implements java.io.Serializable {
 	 */
 	public void angleichen (PixelFeld f) {
 		if (f.hoeheN() == this.hoeheN() && f.breiteN() == this.breiteN()) {
-			for (int i = 0; i < farbe.length; i++) {
-				// Deutlich performanter als ein weiterer for-loop.
-				System.arraycopy(f.farbe[i], 0, this.farbe[i], 0, farbe[0].length);
-			}
+			System.arraycopy(f.daten, 0, this.daten, 0, daten.length);
 		} else {
 			throw new IllegalArgumentException("Achtung!\nDie beiden zum Angleich angeführten PixelFelder haben unterschiedliche Masse in Höhe und/oder Breite!");
 		}
 
-		this.cacheOutdated = true;
+		geaendert();
 	}
 
 	/**
 	 * @return die Anzahl an Unterquadraten in Richtung X
 	 */
 	public int breiteN () {
-		return farbe.length;
+		return breiteN;
 	}
 
 	/**
 	 * @return die Anzahl an Unterquadraten in Richtung Y
 	 */
 	public int hoeheN () {
-		return farbe[0].length;
+		return hoeheN;
 	}
 
 	/**
 	 * Ändert alle Farben des Feldes in ihr Negativ um.
 	 */
 	public void negativ () {
-		for (int i = 0; i < farbe.length; i++) {
-			for (int j = 0; j < farbe[0].length; j++) {
-				if (this.farbe[i][j] != null) {
-					this.farbe[i][j] = new Color(255 - farbe[i][j].getRed(), 255 - farbe[i][j].getGreen(), 255 - farbe[i][j].getBlue(), farbe[i][j].getAlpha());
-				}
-			}
-		}
-
-		this.cacheOutdated = true;
+		FarbFilter.NEGATIV.anwenden(this);
 	}
 
 	/**
-	 * Hellt alle Farbwerte auf.
+	 * Hellt alle Farbwerte auf.<br /> Entspricht <code>Color.brighter()</code> für jeden Pixel.
 	 */
 	public void heller () {
-		for (int i = 0; i < farbe.length; i++) {
-			for (int j = 0; j < farbe[0].length; j++) {
-				if (this.farbe[i][j] != null) {
-					this.farbe[i][j] = this.farbe[i][j].brighter();
-				}
-			}
-		}
-
-		this.cacheOutdated = true;
+		FarbFilter.HELLER.anwenden(this);
 	}
 
 	/**
-	 * Dunkelt alle Farbwerte ab.
+	 * Dunkelt alle Farbwerte ab.<br /> Entspricht <code>Color.darker()</code> für jeden Pixel.
 	 */
 	public void dunkler () {
-		for (int i = 0; i < farbe.length; i++) {
-			for (int j = 0; j < farbe[0].length; j++) {
-				if (this.farbe[i][j] != null) {
-					this.farbe[i][j] = this.farbe[i][j].darker();
-				}
-			}
-		}
-
-		this.cacheOutdated = true;
+		FarbFilter.DUNKLER.anwenden(this);
 	}
 
 	/**
@@ -207,29 +196,7 @@ public class PixelFeld implements java.io.Serializable {
 	 * 		Der Blau-Aenderungswert
 	 */
 	public void transformieren (int r, int g, int b) {
-		for (int i = 0; i < farbe.length; i++) {
-			for (int j = 0; j < farbe[0].length; j++) {
-				if (this.farbe[i][j] != null) {
-					Color c = farbe[i][j];
-					farbe[i][j] = new Color(zahlenSumme(c.getRed(), r), zahlenSumme(c.getGreen(), g), zahlenSumme(c.getBlue(), b));
-				}
-			}
-		}
-	}
-
-	/**
-	 * Errechnet aus zwei Zahlen die Summe und setzt das Ergebnis, sofern nicht im
-	 * Definitionsbereich der Farbwerte auf den naeheren Grenzwert (0 bzw. 255)
-	 *
-	 * @param a
-	 * 		Wert 1
-	 * @param b
-	 * 		Wert 2
-	 *
-	 * @return Die Summe, unter Garantie im Definitionsbereich
-	 */
-	private static int zahlenSumme (int a, int b) {
-		return Math.max(0, Math.min(255, a + b));
+		FarbFilter.transformation(r, g, b).anwenden(this);
 	}
 
 	/**
@@ -240,6 +207,7 @@ public class PixelFeld implements java.io.Serializable {
 	 */
 	public void einfaerben (Color c) {
 		alternativ = c;
+		cacheOutdated = true;
 	}
 
 	/**
@@ -247,10 +215,13 @@ public class PixelFeld implements java.io.Serializable {
 	 */
 	public void zurueckFaerben () {
 		alternativ = null;
+		cacheOutdated = true;
 	}
 
 	/**
-	 * Zeichnet das Feld mit einem bestimmten Verzug.
+	 * Zeichnet das Feld mit einem bestimmten Verzug.<br /> Das zwischengespeicherte Bild wird nur
+	 * neu aufgebaut, wenn sich die Farben geändert haben, und dann mit dem Faktor skaliert in einem
+	 * Schritt gezeichnet.
 	 *
 	 * @param g
 	 * 		Das zeichnende Graphics-Objekt
@@ -264,68 +235,150 @@ public class PixelFeld implements java.io.Serializable {
 	 * 		Ob dieses Pixelfeld entlang der Y-Achse gespiegelt werden soll
 	 */
 	public void zeichnen (Graphics2D g, int x, int y, boolean spiegelX, boolean spiegelY) {
-		if (cache == null || cacheOutdated) {
-			int width = farbe.length * faktor, height = farbe.length == 0 ? 0 : farbe[0].length * faktor;
+		if (breiteN == 0 || hoeheN == 0) {
+			return;
+		}
+
+		BufferedImage bild = cache();
+
+		int w = breite(), h = hoehe();
+		int x1 = spiegelX ? x + w : x, x2 = spiegelX ? x : x + w;
+		int y1 = spiegelY ? y + h : y, y2 = spiegelY ? y : y + h;
+
+		Object interpolation = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+
+		TexturAtlas.Region region = TexturAtlas.global().region(bild);
+
+		if (region != null) {
+			g.drawImage(region.seite, x1, y1, x2, y2, region.x, region.y, region.x + breiteN, region.y + hoeheN, null);
+		} else {
+			g.drawImage(bild, x1, y1, x2, y2, 0, 0, breiteN, hoeheN, null);
+		}
+
+		if (interpolation != null) {
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+		}
+	}
+
+	/**
+	 * Gibt das zwischengespeicherte Bild in Originalgröße aus und baut es vorher neu auf, falls es
+	 * veraltet ist.
+	 *
+	 * @return Das Bild mit einem Bildpunkt pro Unterquadrat
+	 */
+	BufferedImage cache () {
+		BufferedImage bild = cache;
 
-			cache = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-			Graphics2D cacheGraphics = cache.createGraphics();
+		if (bild == null || cacheOutdated) {
+			cacheOutdated = false;
 
-			for (int i = 0; i < farbe.length; i++) {
-				for (int j = 0; j < farbe[i].length; j++) {
-					Color c = farbe[i][j];
+			if (bild == null) {
+				bild = new BufferedImage(breiteN, hoeheN, BufferedImage.TYPE_INT_ARGB);
+			} else {
+				// Die Kopie im Atlas stimmt nicht mehr
+				TexturAtlas.global().entfernen(bild);
+			}
 
-					if (c == null) {
-						continue;
-					}
+			int[] quelle = daten;
 
-					if (alternativ == null) {
-						cacheGraphics.setColor(c);
-					} else {
-						cacheGraphics.setColor(alternativ);
-					}
+			if (alternativ != null) {
+				int ersatz = alternativ.getRGB();
+				quelle = new int[daten.length];
 
-					cacheGraphics.fillRect(i * faktor, j * faktor, faktor, faktor);
+				for (int i = 0; i < daten.length; i++) {
+					quelle[i] = daten[i] == 0 ? 0 : ersatz;
 				}
 			}
 
-			cacheGraphics.dispose();
+			// Direkt in den DataBufferInt des Bildes schreiben
+			bild.getRaster().setDataElements(0, 0, breiteN, hoeheN, quelle);
+			cache = bild;
 		}
 
-		int w = breite(), h = hoehe();
+		return bild;
+	}
 
-		if (spiegelX && spiegelY) {
-			g.drawImage(cache, x + w, y + h, x, y, 0, 0, w, h, null);
-		} else if (spiegelX) {
-			g.drawImage(cache, x + w, y, x, y + h, 0, 0, w, h, null);
-		} else if (spiegelY) {
-			g.drawImage(cache, x, y + h, x + w, y, 0, 0, w, h, null);
-		} else {
-			g.drawImage(cache, x, y, null);
-		}
+	/**
+	 * Markiert den Cache und die Pixelanzahl als veraltet.
+	 */
+	private void geaendert () {
+		cacheOutdated = true;
+		changed = true;
 	}
 
 	/**
 	 * @return die Breite des Feldes in der Zeichenebene.
 	 */
 	public int breite () {
-		return farbe.length * faktor;
+		return breiteN * faktor;
 	}
 
 	/**
 	 * @return die Hoehe des Feldes in der Zeichenebene.
 	 */
 	public int hoehe () {
-		return farbe[0].length * faktor;
+		return hoeheN * faktor;
 	}
 
 	/**
 	 * In dieser Methode werden die einzelnen Quadrate von ihrer Informationsdichte her
-	 * zurueckgegeben.
+	 * zurueckgegeben.<br /> <b>Achtung:</b> Früher wurde hier das interne Array selbst
+	 * ausgegeben. Inzwischen wird bei jedem Aufruf eine neue Kopie samt neuer
+	 * <code>Color</code>-Objekte erstellt. Änderungen daran wirken sich nicht mehr auf das
+	 * PixelFeld aus, dafür gibt es {@link #farbeSetzen(int, int, Color)}. Zum häufigen Lesen
+	 * einzelner Farben ist {@link #argb(int, int)} deutlich günstiger.
 	 *
-	 * @return Die Farbinformationen ueber dieses Pixelfeld.
+	 * @return Eine Kopie der Farbinformationen ueber dieses Pixelfeld. Unterquadrate, an denen
+	 * nicht gezeichnet wird (ARGB-Wert <code>0</code>), sind <code>null</code>.
 	 */
 	public Color[][] getPic () {
-		return farbe;
+		Color[][] ret = new Color[breiteN][hoeheN];
+
+		for (int i = 0; i < breiteN; i++) {
+			for (int j = 0; j < hoeheN; j++) {
+				int c = daten[j * breiteN + i];
+
+				if (c != 0) {
+					ret[i][j] = new Color(c, true);
+				}
+			}
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Gibt die Farbe eines Unterquadrats als gepackten ARGB-Wert aus.
+	 *
+	 * @param x
+	 * 		Die Relative X-Position des Quadrats
+	 * @param y
+	 * 		Die Relative Y-Position des Quadrats
+	 *
+	 * @return Der ARGB-Wert, <code>0</code> wenn an dieser Stelle nicht gezeichnet wird
+	 */
+	public int argb (int x, int y) {
+		return daten[y * breiteN + x];
+	}
+
+	/**
+	 * Gibt die gepackten ARGB-Werte direkt aus, zeilenweise abgelegt (Index <code>y * breiteN() +
+	 * x</code>).<br /> Wer das Array verändert, muss danach {@link #datenGeaendert()} aufrufen.
+	 *
+	 * @return Die ARGB-Werte dieses PixelFeldes
+	 */
+	@NoExternalUse
+	public int[] daten () {
+		return daten;
+	}
+
+	/**
+	 * Muss aufgerufen werden, nachdem das Array aus {@link #daten()} direkt verändert wurde.
+	 */
+	@NoExternalUse
+	public void datenGeaendert () {
+		geaendert();
 	}
 
 	/**
@@ -335,13 +388,8 @@ public class PixelFeld implements java.io.Serializable {
 	 * @return Ein neues PixelFeld-Objekt mit genau demselben Zustand wie dieses.
 	 */
 	public PixelFeld erstelleKlon () {
-		PixelFeld ret = new PixelFeld(farbe.length, farbe[0].length, faktor);
-
-		for (int i = 0; i < farbe.length; i++) {
-			for (int j = 0; j < farbe[0].length; j++) {
-				ret.farbeSetzen(i, j, farbe[i][j]);
-			}
-		}
+		PixelFeld ret = new PixelFeld(breiteN, hoeheN, faktor);
+		System.arraycopy(daten, 0, ret.daten, 0, daten.length);
 
 		return ret;
 	}
@@ -355,11 +403,14 @@ public class PixelFeld implements java.io.Serializable {
 	 * 		Die Relative Y-Position des zu aendernden Quadrats
 	 * @param c
 	 * 		Die neu zu setzende Farbe. Ist dieser Wert null, so wird dieses Unterquadrat nicht
-	 * 		mitgezeichnet.
+	 * 		mitgezeichnet. Dasselbe gilt für eine vollständig durchsichtige Farbe mit dem ARGB-Wert
+	 * 		<code>0</code> (z.B. <code>new Color(0, 0, 0, 0)</code>): sie wird wie <code>null</code>
+	 * 		behandelt, zählt nicht für Kollisionen und wird von {@link #getPic()} als
+	 * 		<code>null</code> ausgegeben. Andere durchsichtige Farben bleiben erhalten.
 	 */
 	public void farbeSetzen (int x, int y, Color c) {
-		farbe[x][y] = c;
-		this.cacheOutdated = true;
+		daten[y * breiteN + x] = c == null ? 0 : c.getRGB();
+		geaendert();
 	}
 
 	/**
@@ -377,9 +428,9 @@ public class PixelFeld implements java.io.Serializable {
 
 		int cnt = 0;
 
-		for (int i = 0; i < farbe.length; i++) {
-			for (int j = 0; j < farbe[0].length; j++) {
-				if (farbe[i][j] != null) {
+		for (int i = 0; i < breiteN; i++) {
+			for (int j = 0; j < hoeheN; j++) {
+				if (daten[j * breiteN + i] != 0) {
 					ret[cnt] = new BoundingRechteck(x + i * faktor, y + j * faktor, faktor, faktor);
 					cnt++;
 				}
@@ -398,11 +449,9 @@ public class PixelFeld implements java.io.Serializable {
 		if (changed) {
 			int neu = 0;
 
-			for (int i = 0; i < farbe.length; i++) {
-				for (int j = 0; j < farbe[0].length; j++) {
-					if (farbe[i][j] != null) {
-						neu++;
-					}
+			for (int i = 0; i < daten.length; i++) {
+				if (daten[i] != 0) {
+					neu++;
 				}
 			}
 
@@ -0,0 +1,367 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.BoundingRechteck;
+import ea.Raum;
+
+import java.util.*;
+
+/**
+ * Ein gleichmäßiges Raster als räumlicher Index für die Kinder eines Knotens.<br /> Jedes
+ * <code>Raum</code>-Objekt wird in allen Zellen eingetragen, die seine <code>dimension()</code>
+ * berührt. Beim Zeichnen müssen so nur die Objekte betrachtet werden, deren Zellen den sichtbaren
+ * Bereich schneiden.<br /> <br /> Objekte, die sehr viele Zellen bedecken, werden nicht in die
+ * Zellen, sondern in eine eigene Liste eingetragen, die bei jeder Abfrage vollständig
+ * berücksichtigt wird.<br /> <br /> Wie im Knoten selbst darf ein Objekt mehrfach eingetragen
+ * werden und wird dann ebenso oft ausgegeben, allerdings direkt hintereinander an der Stelle des
+ * ersten Eintrags.
+ */
+public class RaumRaster {
+	/**
+	 * Ab dieser Anzahl an Zellen wird ein Objekt nicht mehr in die Zellen eingetragen.
+	 */
+	private static final int MAX_ZELLEN = 256;
+
+	/**
+	 * Sortiert Einträge in Zeichenreihenfolge: aufsteigend nach Z-Index, bei gleichem Z-Index nach
+	 * Reihenfolge des Hinzufügens.
+	 */
+	private static final Comparator<Eintrag> ZEICHENREIHENFOLGE = new Comparator<Eintrag>() {
+		@Override
+		public int compare (Eintrag a, Eintrag b) {
+			int z = b.raum.compareTo(a.raum);
+
+			if (z != 0) {
+				return z;
+			}
+
+			return Long.compare(a.nummer, b.nummer);
+		}
+	};
+
+	/**
+	 * Kantenlänge einer Zelle in Pixeln.
+	 */
+	private final float zellgroesse;
+
+	/**
+	 * Die Zellen, Schlüssel ist die kombinierte Zellkoordinate.
+	 */
+	private final HashMap<Long, ArrayList<Eintrag>> zellen = new HashMap<>();
+
+	/**
+	 * Alle Einträge, zugeordnet zu ihrem <code>Raum</code>-Objekt.
+	 */
+	private final IdentityHashMap<Raum, Eintrag> eintraege = new IdentityHashMap<>();
+
+	/**
+	 * Einträge, die zu viele Zellen bedecken und deshalb bei jeder Abfrage berücksichtigt werden.
+	 */
+	private final ArrayList<Eintrag> grosse = new ArrayList<>();
+
+	/**
+	 * Wird bei jeder Abfrage hochgezählt, um doppelte Treffer ohne zusätzliche Menge zu erkennen.
+	 */
+	private long abfrage;
+
+	/**
+	 * Zwischenspeicher für Abfrageergebnisse.
+	 */
+	private final ArrayList<Eintrag> treffer = new ArrayList<>();
+
+	/**
+	 * Erstellt ein neues Raster.
+	 *
+	 * @param zellgroesse
+	 * 		Kantenlänge einer Zelle in Pixeln. Sinnvoll ist etwa die typische Größe der
+	 * 		eingetragenen Objekte.
+	 */
+	public RaumRaster (float zellgroesse) {
+		if (zellgroesse <= 0) {
+			throw new IllegalArgumentException("Die Zellgröße muss größer als 0 sein!");
+		}
+
+		this.zellgroesse = zellgroesse;
+	}
+
+	/**
+	 * @return Die Kantenlänge einer Zelle in Pixeln
+	 */
+	public float zellgroesse () {
+		return zellgroesse;
+	}
+
+	/**
+	 * Trägt ein Objekt in das Raster ein. Ist es bereits eingetragen, wird es ein weiteres Mal
+	 * gezählt.
+	 *
+	 * @param r
+	 * 		Das einzutragende Objekt
+	 * @param nummer
+	 * 		Laufende Nummer des Objekts im Knoten, bestimmt die Zeichenreihenfolge bei gleichem
+	 * 		Z-Index
+	 */
+	public synchronized void einfuegen (Raum r, long nummer) {
+		Eintrag e = eintraege.get(r);
+
+		if (e != null) {
+			e.anzahl++;
+			return;
+		}
+
+		e = new Eintrag(r, nummer);
+		eintraege.put(r, e);
+		eintragen(e, r.dimension());
+	}
+
+	/**
+	 * Entfernt ein Vorkommen eines Objekts aus dem Raster. War es nur einmal eingetragen, wird es
+	 * ganz entfernt.
+	 *
+	 * @param r
+	 * 		Das zu entfernende Objekt
+	 */
+	public synchronized void einmalEntfernen (Raum r) {
+		Eintrag e = eintraege.get(r);
+
+		if (e == null) {
+			return;
+		}
+
+		if (e.anzahl > 1) {
+			e.anzahl--;
+			return;
+		}
+
+		eintraege.remove(r);
+		austragen(e);
+	}
+
+	/**
+	 * Entfernt ein Objekt mit allen Vorkommen aus dem Raster.
+	 *
+	 * @param r
+	 * 		Das zu entfernende Objekt
+	 */
+	public synchronized void entfernen (Raum r) {
+		Eintrag e = eintraege.remove(r);
+
+		if (e != null) {
+			austragen(e);
+		}
+	}
+
+	/**
+	 * Aktualisiert die Lage eines Objekts im Raster, nachdem es verschoben oder verändert wurde.
+	 *
+	 * @param r
+	 * 		Das veränderte Objekt
+	 */
+	public synchronized void aktualisieren (Raum r) {
+		Eintrag e = eintraege.get(r);
+
+		if (e == null) {
+			return;
+		}
+
+		BoundingRechteck b = r.dimension();
+
+		if (!e.gross && e.x0 == zelle(b.x) && e.y0 == zelle(b.y) && e.x1 == zelle(b.x + b.breite) && e.y1 == zelle(b.y + b.hoehe)) {
+			return;
+		}
+
+		austragen(e);
+		eintragen(e, b);
+	}
+
+	/**
+	 * Aktualisiert die Lage aller eingetragenen Objekte.
+	 */
+	public synchronized void alleAktualisieren () {
+		zellen.clear();
+		grosse.clear();
+
+		for (Eintrag e : eintraege.values()) {
+			eintragen(e, e.raum.dimension());
+		}
+	}
+
+	/**
+	 * Entfernt alle Objekte aus dem Raster.
+	 */
+	public synchronized void leeren () {
+		zellen.clear();
+		grosse.clear();
+		eintraege.clear();
+	}
+
+	/**
+	 * Sucht alle Objekte, deren Zellen einen Bereich schneiden.<br /> Das Ergebnis kann auch
+	 * Objekte enthalten, die den Bereich selbst knapp nicht schneiden.
+	 *
+	 * @param bereich
+	 * 		Der abzufragende Bereich
+	 * @param ziel
+	 * 		Die Liste, in die die gefundenen Objekte in Zeichenreihenfolge geschrieben werden. Sie wird
+	 * 		vorher geleert.
+	 */
+	public synchronized void abfragen (BoundingRechteck bereich, List<Raum> ziel) {
+		ziel.clear();
+		treffer.clear();
+		abfrage++;
+
+		int x0 = zelle(bereich.x), y0 = zelle(bereich.y);
+		int x1 = zelle(bereich.x + bereich.breite), y1 = zelle(bereich.y + bereich.hoehe);
+
+		if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > zellen.size()) {
+			// Bereich ist größer als das belegte Raster, direkt über die Zellen gehen
+			for (Map.Entry<Long, ArrayList<Eintrag>> zelle : zellen.entrySet()) {
+				int x = (int) (zelle.getKey() >> 32), y = (int) (long) zelle.getKey();
+
+				if (x >= x0 && x <= x1 && y >= y0 && y <= y1) {
+					sammeln(zelle.getValue());
+				}
+			}
+		} else {
+			for (int x = x0; x <= x1; x++) {
+				for (int y = y0; y <= y1; y++) {
+					ArrayList<Eintrag> zelle = zellen.get(schluessel(x, y));
+
+					if (zelle != null) {
+						sammeln(zelle);
+					}
+				}
+			}
+		}
+
+		sammeln(grosse);
+
+		Collections.sort(treffer, ZEICHENREIHENFOLGE);
+
+		for (Eintrag e : treffer) {
+			for (int i = 0; i < e.anzahl; i++) {
+				ziel.add(e.raum);
+			}
+		}
+
+		treffer.clear();
+	}
+
+	/**
+	 * @return Anzahl der eingetragenen Objekte
+	 */
+	public synchronized int anzahl () {
+		return eintraege.size();
+	}
+
+	private void sammeln (ArrayList<Eintrag> liste) {
+		for (int i = 0; i < liste.size(); i++) {
+			Eintrag e = liste.get(i);
+
+			if (e.abfrage != abfrage) {
+				e.abfrage = abfrage;
+				treffer.add(e);
+			}
+		}
+	}
+
+	private void eintragen (Eintrag e, BoundingRechteck b) {
+		e.x0 = zelle(b.x);
+		e.y0 = zelle(b.y);
+		e.x1 = zelle(b.x + b.breite);
+		e.y1 = zelle(b.y + b.hoehe);
+		e.gross = (long) (e.x1 - e.x0 + 1) * (e.y1 - e.y0 + 1) > MAX_ZELLEN;
+
+		if (e.gross) {
+			grosse.add(e);
+			return;
+		}
+
+		for (int x = e.x0; x <= e.x1; x++) {
+			for (int y = e.y0; y <= e.y1; y++) {
+				Long s = schluessel(x, y);
+				ArrayList<Eintrag> zelle = zellen.get(s);
+
+				if (zelle == null) {
+					zelle = new ArrayList<>(4);
+					zellen.put(s, zelle);
+				}
+
+				zelle.add(e);
+			}
+		}
+	}
+
+	private void austragen (Eintrag e) {
+		if (e.gross) {
+			grosse.remove(e);
+			return;
+		}
+
+		for (int x = e.x0; x <= e.x1; x++) {
+			for (int y = e.y0; y <= e.y1; y++) {
+				Long s = schluessel(x, y);
+				ArrayList<Eintrag> zelle = zellen.get(s);
+
+				if (zelle != null) {
+					zelle.remove(e);
+
+					if (zelle.isEmpty()) {
+						zellen.remove(s);
+					}
+				}
+			}
+		}
+	}
+
+	private int zelle (float koordinate) {
+		return (int) Math.floor(koordinate / zellgroesse);
+	}
+
+	private static long schluessel (int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Ein Eintrag im Raster mit den zuletzt belegten Zellen.
+	 */
+	private static class Eintrag {
+		final Raum raum;
+
+		final long nummer;
+
+		int x0, y0, x1, y1;
+
+		boolean gross;
+
+		long abfrage;
+
+		/**
+		 * Wie oft das Objekt eingetragen wurde.
+		 */
+		int anzahl = 1;
+
+		Eintrag (Raum raum, long nummer) {
+			this.raum = raum;
+			this.nummer = nummer;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+/**
+ * Der Taktgeber bestimmt, wann der nächste Frame gezeichnet wird.<br /> Anders als ein festes
+ * <code>Thread.sleep(...)</code> wird die Renderzeit von der Wartezeit abgezogen, sodass die
+ * Zielrate auch bei aufwändigen Frames gehalten wird. Gewartet wird zunächst per
+ * <code>Thread.sleep</code> und kurz vor Ablauf aktiv, um die Ungenauigkeit des Schlafens
+ * auszugleichen.<br /> <br /> Hängt die Schleife mehr als einen Frame hinterher, werden die
+ * verpassten Frames übersprungen statt nachgeholt.
+ */
+public class Taktgeber {
+	/**
+	 * So lange vor der Deadline wird nicht mehr geschlafen, sondern aktiv gewartet (in ns).
+	 */
+	private static final long SPIN_SCHWELLE = 2000000;
+
+	/**
+	 * Die Zeitquelle eines Taktgebers. Sie lässt sich für Tests durch eine eigene Uhr ersetzen,
+	 * deren Zeit nur beim Warten voranschreitet.
+	 */
+	public interface Uhr {
+		/**
+		 * @return Die aktuelle Zeit in Nanosekunden, wie bei <code>System.nanoTime()</code>
+		 */
+		long nanos ();
+
+		/**
+		 * Schläft ungefähr die angegebene Zeit.
+		 *
+		 * @param nanos
+		 * 		Die Dauer in Nanosekunden
+		 *
+		 * @throws InterruptedException
+		 * 		Falls der Thread beim Schlafen unterbrochen wurde
+		 */
+		void schlafen (long nanos) throws InterruptedException;
+
+		/**
+		 * Gibt beim aktiven Warten kurz die Rechenzeit ab.
+		 */
+		void nachgeben ();
+	}
+
+	/**
+	 * Die Uhr des Systems.
+	 */
+	public static final Uhr SYSTEM = new Uhr() {
+		@Override
+		public long nanos () {
+			return System.nanoTime();
+		}
+
+		@Override
+		public void schlafen (long nanos) throws InterruptedException {
+			Thread.sleep(nanos / 1000000, (int) (nanos % 1000000));
+		}
+
+		@Override
+		public void nachgeben () {
+			Thread.yield();
+		}
+	};
+
+	/**
+	 * Die Zeitquelle dieses Taktgebers.
+	 */
+	private final Uhr uhr;
+
+	/**
+	 * Abstand zwischen zwei Frames in Nanosekunden. <code>0</code> bedeutet ungebremst.
+	 */
+	private volatile long periode;
+
+	/**
+	 * Zeitpunkt, zu dem der nächste Frame beginnen soll.
+	 */
+	private long naechsterFrame;
+
+	/**
+	 * Beginn des letzten Frames.
+	 */
+	private long letzterFrame;
+
+	/**
+	 * Gemessene Zeit zwischen den letzten beiden Frames in Nanosekunden.
+	 */
+	private volatile long delta;
+
+	/**
+	 * Anzahl der übersprungenen Frames.
+	 */
+	private volatile long uebersprungen;
+
+	/**
+	 * Erstellt einen neuen Taktgeber.
+	 *
+	 * @param fps
+	 * 		Die Ziel-Framerate. <code>0</code> bedeutet ungebremst.
+	 */
+	public Taktgeber (int fps) {
+		this(fps, SYSTEM);
+	}
+
+	/**
+	 * Erstellt einen neuen Taktgeber mit einer eigenen Zeitquelle.
+	 *
+	 * @param fps
+	 * 		Die Ziel-Framerate. <code>0</code> bedeutet ungebremst.
+	 * @param uhr
+	 * 		Die Uhr, nach der sich der Taktgeber richtet
+	 */
+	public Taktgeber (int fps, Uhr uhr) {
+		this.uhr = uhr;
+		zielFpsSetzen(fps);
+	}
+
+	/**
+	 * Setzt die Ziel-Framerate.
+	 *
+	 * @param fps
+	 * 		Die Ziel-Framerate. <code>0</code> bedeutet ungebremst.
+	 */
+	public void zielFpsSetzen (int fps) {
+		if (fps < 0) {
+			throw new IllegalArgumentException("Die Framerate darf nicht negativ sein!");
+		}
+
+		periode = fps == 0 ? 0 : 1000000000L / fps;
+	}
+
+	/**
+	 * @return Die Ziel-Framerate, <code>0</code> falls ungebremst
+	 */
+	public int zielFps () {
+		long p = periode;
+
+		return p == 0 ? 0 : (int) Math.round(1000000000.0 / p);
+	}
+
+	/**
+	 * Markiert den Beginn eines neuen Frames und misst das Delta zum vorherigen.<br /> Muss vom
+	 * Zeichenthread zu Beginn jedes Frames aufgerufen werden.
+	 */
+	public void frameBeginnen () {
+		long jetzt = uhr.nanos();
+
+		if (letzterFrame != 0) {
+			delta = jetzt - letzterFrame;
+		} else {
+			naechsterFrame = jetzt;
+		}
+
+		letzterFrame = jetzt;
+		naechsterFrame += periode;
+	}
+
+	/**
+	 * Wartet bis zum Beginn des nächsten Frames.<br /> Ist die Deadline bereits verstrichen, wird
+	 * nicht gewartet. Liegt sie mehr als einen Frame zurück, werden die verpassten Frames verworfen.
+	 *
+	 * @throws InterruptedException
+	 * 		Falls der Thread beim Warten unterbrochen wurde
+	 */
+	public void warten () throws InterruptedException {
+		long p = periode;
+
+		if (p == 0) {
+			uhr.nachgeben();
+			return;
+		}
+
+		long jetzt = uhr.nanos();
+		long rest = naechsterFrame - jetzt;
+
+		if (rest < -p) {
+			uebersprungen += -rest / p;
+			naechsterFrame = jetzt;
+			return;
+		}
+
+		if (rest > SPIN_SCHWELLE) {
+			uhr.schlafen(rest - SPIN_SCHWELLE);
+		}
+
+		while (naechsterFrame - uhr.nanos() > 0) {
+			uhr.nachgeben();
+		}
+	}
+
+	/**
+	 * @return Die gemessene Zeit zwischen den letzten beiden Frames in Sekunden
+	 */
+	public float delta () {
+		return delta * 1e-9f;
+	}
+
+	/**
+	 * @return Die gemessene Zeit zwischen den letzten beiden Frames in Nanosekunden
+	 */
+	public long deltaNanos () {
+		return delta;
+	}
+
+	/**
+	 * @return Die Anzahl der Frames, die übersprungen wurden, weil die Schleife hinterherhing
+	 */
+	public long uebersprungeneFrames () {
+		return uebersprungen;
+	}
+}
@@ -0,0 +1,342 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.internal.util.Optimizer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Packt viele kleine Bilder in wenige große Seiten, damit beim Zeichnen nicht für jedes Bild die
+ * Quelle gewechselt werden muss.<br /> Bilder werden zunächst angemeldet und beim nächsten
+ * Aufbauen zeilenweise (nach Höhe sortiert) auf die Seiten verteilt. Beim Zeichnen wird über
+ * {@link #region(java.awt.image.BufferedImage)} der Ausschnitt der Seite gefunden, der das Bild
+ * enthält.<br /><br /> Die Seiten sind Kopien: Wird ein Bild danach verändert, muss es mit {@link
+ * #entfernen(java.awt.image.BufferedImage)} als veraltet markiert werden.
+ */
+public class TexturAtlas {
+	/**
+	 * Der Atlas, über den die Engine zeichnet.
+	 */
+	private static final TexturAtlas global = new TexturAtlas();
+
+	/**
+	 * Der Abstand zwischen zwei Bildern, damit beim Skalieren keine Nachbarpixel hineinbluten.
+	 */
+	private static final int ABSTAND = 1;
+
+	/**
+	 * Der Ausschnitt einer Seite, der ein angemeldetes Bild enthält.
+	 */
+	public static final class Region {
+		/**
+		 * Die Seite, auf der das Bild liegt.
+		 */
+		public final BufferedImage seite;
+
+		/**
+		 * Die Lage des Bildes auf der Seite.
+		 */
+		public final int x, y, breite, hoehe;
+
+		/**
+		 * Wird <code>false</code>, sobald sich das ursprüngliche Bild verändert hat.
+		 */
+		private volatile boolean gueltig = true;
+
+		private Region (BufferedImage seite, int x, int y, int breite, int hoehe) {
+			this.seite = seite;
+			this.x = x;
+			this.y = y;
+			this.breite = breite;
+			this.hoehe = hoehe;
+		}
+	}
+
+	/**
+	 * Ein fertig aufgebauter Atlas. Wird nach dem Aufbauen nicht mehr verändert und kann daher
+	 * ohne Sperre aus dem Zeichenthread gelesen werden.
+	 */
+	private static final class Stand {
+		private final Map<BufferedImage, Region> regionen;
+		private final List<BufferedImage> seiten;
+		private final long belegt;
+
+		private Stand (Map<BufferedImage, Region> regionen, List<BufferedImage> seiten, long belegt) {
+			this.regionen = regionen;
+			this.seiten = seiten;
+			this.belegt = belegt;
+		}
+	}
+
+	/**
+	 * Alle angemeldeten Bilder. Bilder, die nicht mehr verwendet werden, fallen automatisch
+	 * heraus.
+	 */
+	private final Set<BufferedImage> angemeldet = Collections.newSetFromMap(new WeakHashMap<BufferedImage, Boolean>());
+
+	/**
+	 * Der zuletzt aufgebaute Atlas.
+	 */
+	private volatile Stand stand = new Stand(Collections.<BufferedImage, Region>emptyMap(), Collections.<BufferedImage>emptyList(), 0);
+
+	/**
+	 * Die Kantenlänge einer Seite in Pixeln.
+	 */
+	private volatile int seitenGroesse = 1024;
+
+	/**
+	 * Die maximale Kantenlänge eines Bildes, das in den Atlas aufgenommen wird.
+	 */
+	private volatile int maximaleKante = 256;
+
+	/**
+	 * @return Der Atlas, über den die Engine zeichnet.
+	 */
+	public static TexturAtlas global () {
+		return global;
+	}
+
+	/**
+	 * Meldet ein Bild für den nächsten Aufbau an.
+	 *
+	 * @param bild
+	 * 		Das anzumeldende Bild
+	 *
+	 * @return <code>true</code>, falls das Bild klein genug für den Atlas ist
+	 */
+	public boolean anmelden (BufferedImage bild) {
+		if (bild == null || bild.getWidth() > maximaleKante || bild.getHeight() > maximaleKante) {
+			return false;
+		}
+
+		synchronized (angemeldet) {
+			angemeldet.add(bild);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Meldet das Bild eines PixelFeldes für den nächsten Aufbau an.
+	 *
+	 * @param feld
+	 * 		Das anzumeldende PixelFeld
+	 *
+	 * @return <code>true</code>, falls das PixelFeld klein genug für den Atlas ist
+	 */
+	public boolean anmelden (PixelFeld feld) {
+		return feld.breiteN() > 0 && feld.hoeheN() > 0 && anmelden(feld.cache());
+	}
+
+	/**
+	 * Markiert ein Bild als veraltet, es wird bis zum nächsten Aufbau wieder direkt gezeichnet.
+	 *
+	 * @param bild
+	 * 		Das veränderte Bild
+	 */
+	public void entfernen (BufferedImage bild) {
+		Region region = stand.regionen.get(bild);
+
+		if (region != null) {
+			region.gueltig = false;
+		}
+	}
+
+	/**
+	 * @param bild
+	 * 		Das gesuchte Bild
+	 *
+	 * @return Der Ausschnitt des Atlas, der das Bild enthält, oder <code>null</code>, wenn das Bild
+	 * direkt gezeichnet werden muss.
+	 */
+	public Region region (BufferedImage bild) {
+		Region region = stand.regionen.get(bild);
+		return region != null && region.gueltig ? region : null;
+	}
+
+	/**
+	 * Verteilt alle angemeldeten Bilder neu auf die Seiten.<br /> Bilder werden nach Höhe sortiert
+	 * und in Zeilen gelegt; jedes Bild kommt in die erste Zeile, in die es noch passt.
+	 */
+	public void aufbauen () {
+		List<BufferedImage> bilder;
+
+		synchronized (angemeldet) {
+			bilder = new ArrayList<>(angemeldet);
+		}
+
+		Collections.sort(bilder, new Comparator<BufferedImage>() {
+			@Override
+			public int compare (BufferedImage a, BufferedImage b) {
+				int vergleich = Integer.compare(b.getHeight(), a.getHeight());
+				return vergleich != 0 ? vergleich : Integer.compare(b.getWidth(), a.getWidth());
+			}
+		});
+
+		int groesse = seitenGroesse;
+
+		Map<BufferedImage, Region> regionen = new IdentityHashMap<>();
+		List<BufferedImage> seiten = new ArrayList<>();
+		List<Graphics2D> stifte = new ArrayList<>();
+
+		// Pro Zeile: Seite, Oberkante, Höhe und bereits belegte Breite
+		List<int[]> zeilen = new ArrayList<>();
+		int[] naechsteOberkante = new int[0];
+		long belegt = 0;
+
+		for (BufferedImage bild : bilder) {
+			int w = bild.getWidth() + ABSTAND;
+			int h = bild.getHeight() + ABSTAND;
+
+			if (w > groesse || h > groesse) {
+				continue;
+			}
+
+			int[] zeile = null;
+
+			for (int[] z : zeilen) {
+				if (h <= z[2] && z[3] + w <= groesse) {
+					zeile = z;
+					break;
+				}
+			}
+
+			if (zeile == null) {
+				int seite = -1;
+
+				for (int i = 0; i < seiten.size(); i++) {
+					if (naechsteOberkante[i] + h <= groesse) {
+						seite = i;
+						break;
+					}
+				}
+
+				if (seite == -1) {
+					seite = seiten.size();
+					BufferedImage neu = Optimizer.createCompatibleImage(groesse, groesse, Transparency.TRANSLUCENT);
+					seiten.add(neu);
+					stifte.add(neu.createGraphics());
+
+					int[] alt = naechsteOberkante;
+					naechsteOberkante = new int[seite + 1];
+					System.arraycopy(alt, 0, naechsteOberkante, 0, alt.length);
+				}
+
+				zeile = new int[] {seite, naechsteOberkante[seite], h, 0};
+				naechsteOberkante[seite] += h;
+				zeilen.add(zeile);
+			}
+
+			BufferedImage seite = seiten.get(zeile[0]);
+			stifte.get(zeile[0]).drawImage(bild, zeile[3], zeile[1], null);
+
+			regionen.put(bild, new Region(seite, zeile[3], zeile[1], bild.getWidth(), bild.getHeight()));
+			belegt += (long) bild.getWidth() * bild.getHeight();
+
+			zeile[3] += w;
+		}
+
+		for (Graphics2D g : stifte) {
+			g.dispose();
+		}
+
+		stand = new Stand(regionen, Collections.unmodifiableList(seiten), belegt);
+	}
+
+	/**
+	 * Verwirft alle Seiten und Anmeldungen.
+	 */
+	public void leeren () {
+		synchronized (angemeldet) {
+			angemeldet.clear();
+		}
+
+		stand = new Stand(Collections.<BufferedImage, Region>emptyMap(), Collections.<BufferedImage>emptyList(), 0);
+	}
+
+	/**
+	 * Setzt die Größe neuer Seiten und die maximale Größe aufgenommener Bilder. Wirkt sich erst
+	 * beim nächsten Aufbau aus.
+	 *
+	 * @param seitenGroesse
+	 * 		Die Kantenlänge einer Seite in Pixeln
+	 * @param maximaleKante
+	 * 		Die maximale Kantenlänge eines Bildes im Atlas
+	 */
+	public void groessenSetzen (int seitenGroesse, int maximaleKante) {
+		if (seitenGroesse <= 0 || maximaleKante <= 0 || maximaleKante > seitenGroesse) {
+			throw new IllegalArgumentException("Ungültige Atlasgrößen: " + seitenGroesse + ", " + maximaleKante);
+		}
+
+		this.seitenGroesse = seitenGroesse;
+		this.maximaleKante = maximaleKante;
+	}
+
+	/**
+	 * @return Die Anzahl an Bildern im aktuellen Atlas
+	 */
+	public int anzahl () {
+		return stand.regionen.size();
+	}
+
+	/**
+	 * @return Die Anzahl an Seiten des aktuellen Atlas
+	 */
+	public int seitenAnzahl () {
+		return stand.seiten.size();
+	}
+
+	/**
+	 * @return Die Seiten des aktuellen Atlas, zum Beispiel zur Fehlersuche
+	 */
+	public List<BufferedImage> seiten () {
+		return stand.seiten;
+	}
+
+	/**
+	 * @return Der Anteil der Seitenfläche, der von Bildern belegt ist, zwischen <code>0</code> und
+	 * <code>1</code>
+	 */
+	public float fuellgrad () {
+		Stand s = stand;
+
+		if (s.seiten.isEmpty()) {
+			return 0;
+		}
+
+		long flaeche = 0;
+
+		for (BufferedImage seite : s.seiten) {
+			flaeche += (long) seite.getWidth() * seite.getHeight();
+		}
+
+		return (float) s.belegt / flaeche;
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.gra;
+
+import ea.BoundingRechteck;
+import ea.NoExternalUse;
+import ea.Raum;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Merkt sich für einen Zeichner, welche Fläche auf dem Bildschirm jedes Objekt bemalt hat.<br />
+ * Jeder Zeichner hat seine eigenen Zeichenflächen, damit sich mehrere Zeichner (z.B. Fenster und
+ * Offscreen-Zeichner) nicht gegenseitig die Flächen entnehmen. Die Flächen werden nur von dem
+ * Thread benutzt, der gerade zeichnet.
+ */
+public class Zeichenflaechen {
+	/**
+	 * Die Zeichenflächen des Zeichners, der im aktuellen Thread gerade zeichnet.
+	 */
+	private static final ThreadLocal<Zeichenflaechen> aktuell = new ThreadLocal<>();
+
+	/**
+	 * Die Flächen der Objekte. Raum überschreibt <code>equals</code> nicht, die Schlüssel werden
+	 * also nach Identität verglichen. Nicht mehr benutzte Objekte werden automatisch vergessen.
+	 */
+	private final Map<Raum, BoundingRechteck> flaechen = new WeakHashMap<>();
+
+	/**
+	 * @return Die Zeichenflächen, in die im aktuellen Thread gerade gezeichnet wird, oder
+	 * <code>null</code>, falls keine Flächen gemerkt werden sollen
+	 */
+	@NoExternalUse
+	public static Zeichenflaechen aktuell () {
+		return aktuell.get();
+	}
+
+	/**
+	 * Meldet diese Zeichenflächen für den aktuellen Thread an.
+	 *
+	 * @return Die bisher angemeldeten Zeichenflächen, die nach dem Zeichnen über
+	 * {@link #abmelden(Zeichenflaechen)} wiederhergestellt werden
+	 */
+	Zeichenflaechen anmelden () {
+		Zeichenflaechen vorher = aktuell.get();
+		aktuell.set(this);
+
+		return vorher;
+	}
+
+	/**
+	 * Meldet diese Zeichenflächen für den aktuellen Thread wieder ab.
+	 *
+	 * @param vorher
+	 * 		Die vor dem Anmelden angemeldeten Zeichenflächen
+	 */
+	void abmelden (Zeichenflaechen vorher) {
+		if (vorher == null) {
+			aktuell.remove();
+		} else {
+			aktuell.set(vorher);
+		}
+	}
+
+	/**
+	 * Merkt sich eine bemalte Fläche. Wurde das Objekt seit dem letzten Entnehmen bereits an einer
+	 * anderen Stelle gezeichnet, umfasst die Fläche danach beide Stellen.
+	 *
+	 * @param raum
+	 * 		Das gezeichnete Objekt
+	 * @param flaeche
+	 * 		Die bemalte Fläche auf dem Bildschirm
+	 */
+	@NoExternalUse
+	public void merken (Raum raum, BoundingRechteck flaeche) {
+		BoundingRechteck alt = flaechen.get(raum);
+
+		flaechen.put(raum, alt == null || alt.equals(flaeche) ? flaeche : alt.summe(flaeche));
+	}
+
+	/**
+	 * Gibt die Fläche aus, die ein Objekt seit dem letzten Aufruf dieser Methode bemalt hat, und
+	 * vergisst sie danach.
+	 *
+	 * @param raum
+	 * 		Das Objekt
+	 *
+	 * @return Die bemalte Fläche oder <code>null</code>, falls das Objekt seitdem nicht gezeichnet
+	 * wurde
+	 */
+	BoundingRechteck entnehmen (Raum raum) {
+		return flaechen.remove(raum);
+	}
+}
@@ -22,9 +22,15 @@ package ea.internal.gra;
 import ea.*;
 import ea.internal.phy.Physik;
 
+import ea.internal.util.Optimizer;
+
 import java.awt.*;
 import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * Dies ist das Panel, in dem die einzelnen Dinge gezeichnet werden
@@ -33,12 +39,25 @@ import java.util.ArrayList;
  */
 public class Zeichner extends Canvas implements Runnable {
 	/**
-	 * Das Intervall, in dem das Fenster upgedated wird.
+	 * Das Intervall, in dem das Fenster upgedated wird.<br /> Bestimmt die Standard-Framerate des
+	 * Taktgebers und den festen Zeitschritt der Physik.
+	 *
+	 * @see #takt()
 	 */
 	public static final int UPDATE_INTERVALL = 40;
 
 	private static final long serialVersionUID = 188647530006553893L;
 
+	/**
+	 * Ab dieser Anzahl geänderter Objekte pro Frame wird alles neu gezeichnet.
+	 */
+	private static final int SCHADEN_MAX_OBJEKTE = 256;
+
+	/**
+	 * Ab diesem Anteil geänderter Fläche am Fenster wird alles neu gezeichnet.
+	 */
+	private static final float SCHADEN_MAX_ANTEIL = 0.5f;
+
 	/**
 	 * Die Liste der einfachen Geometrischen Koerper, die gezeichnet werden sollen.
 	 *
@@ -74,10 +93,52 @@ public class Zeichner extends Canvas implements Runnable {
 	/**
 	 * Gibt an, ob der Thread noch arbeiten soll.
 	 */
-	private boolean work = true;
+	private volatile boolean work = true;
 
 	private Thread thread;
 
+	/**
+	 * Der Taktgeber, der die Framerate der Zeichenschleife bestimmt.
+	 */
+	private final Taktgeber takt = new Taktgeber(1000 / UPDATE_INTERVALL);
+
+	/**
+	 * Gibt an, ob nur die geänderten Bereiche neu gezeichnet werden.
+	 *
+	 * @see #nurAenderungenZeichnen(boolean)
+	 */
+	private volatile boolean nurAenderungen = false;
+
+	/**
+	 * Sammelt die geänderten Objekte der Zeichenebene.
+	 */
+	private final Sammler weltAenderungen = new Sammler();
+
+	/**
+	 * Sammelt die geänderten Objekte des statischen Knotens.
+	 */
+	private final Sammler statischeAenderungen = new Sammler();
+
+	/**
+	 * Die Flächen, die die Objekte beim letzten Zeichnen dieses Zeichners bemalt haben.
+	 */
+	private final Zeichenflaechen zeichenflaechen = new Zeichenflaechen();
+
+	/**
+	 * Ist dieser Wert <code>true</code>, wird beim nächsten Frame alles neu gezeichnet.
+	 */
+	private volatile boolean allesNeu = true;
+
+	/**
+	 * Die Kameraposition beim letzten Frame.
+	 */
+	private BoundingRechteck letzteKamera;
+
+	/**
+	 * Die Fläche des Vordergrunds beim letzten Frame.
+	 */
+	private BoundingRechteck letzterVordergrund;
+
 	/**
 	 * Konstruktor für Objekte der Klasse Zeichner
 	 *
@@ -115,23 +176,194 @@ public class Zeichner extends Canvas implements Runnable {
 		BufferStrategy bs = getBufferStrategy();
 		Graphics2D g = (Graphics2D) bs.getDrawGraphics();
 
-		// have to be the same @ Game.screenshot!
-		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-		g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+		renderHinweiseSetzen(g);
+
+		BufferedImage puffer = null;
+		Graphics2D pg = null;
 
 		while (work) {
-			render(g);
-			bs.show();
+			takt.frameBeginnen();
+
+			if (nurAenderungen) {
+				if (puffer == null) {
+					puffer = Optimizer.createCompatibleImage((int) groesse.breite, (int) groesse.hoehe, Transparency.OPAQUE);
+					pg = puffer.createGraphics();
+					renderHinweiseSetzen(pg);
+					allesNeu = true;
+				}
+
+				// Der Puffer hält das fertige Bild, auf den Bildschirm muss er nur bei Änderungen
+				if (aenderungenRendern(pg) || bs.contentsLost() || bs.contentsRestored()) {
+					g.drawImage(puffer, 0, 0, null);
+					bs.show();
+				}
+			} else {
+				if (puffer != null) {
+					pg.dispose();
+					puffer = null;
+					pg = null;
+				}
+
+				render(g);
+				bs.show();
+			}
 
 			try {
-				Thread.sleep(UPDATE_INTERVALL);
+				takt.warten();
 			} catch (InterruptedException e) {
 				e.printStackTrace();
 			}
 		}
 	}
 
+	/**
+	 * Setzt die Rendering-Hinweise, mit denen die Engine zeichnet.<br /> Wird vom Zeichenthread,
+	 * vom Offscreen-Zeichner und von <code>Game.screenshot</code> genutzt, damit alle dasselbe
+	 * Ergebnis liefern.
+	 *
+	 * @param g
+	 * 		Das Graphics-Objekt, dessen Hinweise gesetzt werden sollen
+	 */
+	public static void renderHinweiseSetzen (Graphics2D g) {
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+		g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+	}
+
+	/**
+	 * Setzt, ob nur noch die Bereiche neu gezeichnet werden sollen, in denen sich etwas geändert
+	 * hat.<br /> Für Szenen, in denen sich meist nur wenig ändert, sinkt dadurch die Prozessorlast
+	 * deutlich. Ändert sich gar nichts, wird auch nichts gezeichnet. Bewegt sich die Kamera oder
+	 * ändert sich zu viel auf einmal, wird wie gewohnt alles neu gezeichnet.<br /> <br />
+	 * Änderungen werden über die <code>Raum</code>-Objekte an der Zeichenebene und am statischen
+	 * Knoten erkannt. Eigene Klassen, die ihr Aussehen ändern, ohne dies zu melden, werden nicht
+	 * korrekt aktualisiert.
+	 *
+	 * @param aktiv
+	 * 		<code>true</code>, wenn nur Änderungen gezeichnet werden sollen
+	 */
+	public void nurAenderungenZeichnen (boolean aktiv) {
+		cam.wurzel().beobachterSetzen(aktiv ? weltAenderungen : null);
+		statNode.beobachterSetzen(aktiv ? statischeAenderungen : null);
+
+		allesNeu = true;
+		nurAenderungen = aktiv;
+	}
+
+	/**
+	 * @return <code>true</code>, wenn nur die geänderten Bereiche neu gezeichnet werden
+	 */
+	public boolean nurAenderungenZeichnen () {
+		return nurAenderungen;
+	}
+
+	/**
+	 * Zeichnet nur die seit dem letzten Aufruf geänderten Bereiche neu.<br /> Das Graphics-Objekt
+	 * muss dabei immer auf dasselbe Bild zeichnen, da nicht geänderte Bereiche stehen bleiben.
+	 *
+	 * @param g
+	 * 		Das zum Zeichnen uebergebene Graphics-Objekt
+	 *
+	 * @return <code>true</code>, wenn etwas gezeichnet wurde
+	 */
+	protected boolean aenderungenRendern (Graphics2D g) {
+		Rectangle bereich = schadenErmitteln();
+
+		if (bereich == null) {
+			return false;
+		}
+
+		g.setClip(bereich);
+		Zeichenflaechen vorher = zeichenflaechen.anmelden();
+
+		try {
+			render(g);
+		} finally {
+			zeichenflaechen.abmelden(vorher);
+			g.setClip(null);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Ermittelt den Bereich, der neu gezeichnet werden muss.
+	 *
+	 * @return Der neu zu zeichnende Bereich in Pixeln oder <code>null</code>, wenn nichts neu
+	 * gezeichnet werden muss
+	 */
+	private Rectangle schadenErmitteln () {
+		Rectangle alles = new Rectangle(0, 0, (int) groesse.breite, (int) groesse.hoehe);
+
+		cam.nachjustieren();
+		BoundingRechteck kamera = cam.position();
+
+		Raum[] welt = weltAenderungen.entnehmen();
+		Raum[] statisch = statischeAenderungen.entnehmen();
+		BoundingRechteck maus = vordergrund == null ? null : vordergrund.zeichenflaeche(groesse);
+
+		boolean voll = allesNeu || !kamera.equals(letzteKamera) || welt.length + statisch.length > SCHADEN_MAX_OBJEKTE;
+		allesNeu = false;
+
+		BoundingRechteck schaden = null;
+
+		for (Raum r : welt) {
+			schaden = vereinigen(schaden, zeichenflaechen.entnehmen(r));
+			schaden = vereinigen(schaden, r.zeichenflaeche(kamera));
+		}
+
+		for (Raum r : statisch) {
+			schaden = vereinigen(schaden, zeichenflaechen.entnehmen(r));
+			schaden = vereinigen(schaden, r.zeichenflaeche(groesse));
+		}
+
+		if (maus == null ? letzterVordergrund != null : !maus.equals(letzterVordergrund)) {
+			schaden = vereinigen(schaden, letzterVordergrund);
+			schaden = vereinigen(schaden, maus);
+		}
+
+		letzteKamera = kamera;
+		letzterVordergrund = maus;
+
+		if (voll) {
+			return alles;
+		}
+
+		if (schaden == null) {
+			return null;
+		}
+
+		// Großzügig runden, damit keine Kanten stehen bleiben
+		int x = (int) Math.floor(schaden.x) - 1;
+		int y = (int) Math.floor(schaden.y) - 1;
+		Rectangle bereich = new Rectangle(x, y, (int) Math.ceil(schaden.x + schaden.breite) + 2 - x, (int) Math.ceil(schaden.y + schaden.hoehe) + 2 - y).intersection(alles);
+
+		if (bereich.isEmpty()) {
+			return null;
+		}
+
+		if (bereich.width * bereich.height > SCHADEN_MAX_ANTEIL * alles.width * alles.height) {
+			return alles;
+		}
+
+		return bereich;
+	}
+
+	private static BoundingRechteck vereinigen (BoundingRechteck a, BoundingRechteck b) {
+		if (b == null || b.breite <= 0 || b.hoehe <= 0) {
+			return a;
+		}
+
+		return a == null ? b : a.summe(b);
+	}
+
+	/**
+	 * @return <code>true</code>, solange der Zeichenthread weiterarbeiten soll
+	 */
+	protected boolean arbeitet () {
+		return work;
+	}
+
 	/**
 	 * Die render()-Methode, sie führt die gesamte Zeichenroutine aus.
 	 *
@@ -174,7 +406,9 @@ public class Zeichner extends Canvas implements Runnable {
 		work = false;
 
 		try {
-			thread.join();
+			if (thread != null) {
+				thread.join();
+			}
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -183,6 +417,16 @@ public class Zeichner extends Canvas implements Runnable {
 		AnimationsManager.neutralize();
 	}
 
+	/**
+	 * Gibt den Taktgeber der Zeichenschleife zurück.<br /> Über ihn kann die Ziel-Framerate gesetzt
+	 * und das gemessene Delta zwischen zwei Frames abgefragt werden.
+	 *
+	 * @return Der Taktgeber dieses Zeichners
+	 */
+	public Taktgeber takt () {
+		return takt;
+	}
+
 	/**
 	 * @return Die Kamera, die dieser Zeichner aufruft
 	 */
@@ -205,6 +449,7 @@ public class Zeichner extends Canvas implements Runnable {
 	 */
 	public void anmelden (Raum vordergrund) {
 		this.vordergrund = vordergrund;
+		allesNeu = true;
 	}
 
 	/**
@@ -215,6 +460,7 @@ public class Zeichner extends Canvas implements Runnable {
 	 */
 	public void hintergrundAnmelden (Raum hintergrund) {
 		this.hintergrund = hintergrund;
+		allesNeu = true;
 	}
 
 	/**
@@ -222,6 +468,7 @@ public class Zeichner extends Canvas implements Runnable {
 	 */
 	void vordergrundLoeschen () {
 		vordergrund = null;
+		allesNeu = true;
 	}
 
 	/**
@@ -233,9 +480,35 @@ public class Zeichner extends Canvas implements Runnable {
 
 	public void addSimple (SimpleGraphic g) {
 		simples.add(g);
+		allesNeu = true;
 	}
 
 	public void removeSimple (SimpleGraphic g) {
 		simples.remove(g);
+		allesNeu = true;
+	}
+
+	/**
+	 * Sammelt die Objekte, die sich seit dem letzten Frame geändert haben.
+	 */
+	private static class Sammler implements AenderungsBeobachter {
+		private final Set<Raum> geaendert = Collections.newSetFromMap(new IdentityHashMap<Raum, Boolean>());
+
+		@Override
+		public synchronized void geaendert (Raum ursprung) {
+			geaendert.add(ursprung);
+		}
+
+		/**
+		 * Gibt alle gesammelten Objekte aus und vergisst sie.
+		 *
+		 * @return Die seit dem letzten Aufruf geänderten Objekte
+		 */
+		synchronized Raum[] entnehmen () {
+			Raum[] ret = geaendert.toArray(new Raum[geaendert.size()]);
+			geaendert.clear();
+
+			return ret;
+		}
 	}
 }
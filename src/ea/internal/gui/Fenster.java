@@ -29,6 +29,8 @@ import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Das Fenster als Oberfenster.<br /> In ihm fängt sich die Maus, sie kann also das Fenster nicht
@@ -49,6 +51,26 @@ public class Fenster extends Frame {
 	 */
 	private static volatile int frameCount = 0;
 
+	/**
+	 * Die maximale Anzahl an zwischengespeicherten Fontmetriken.
+	 */
+	private static final int MAXIMALE_METRIKEN = 256;
+
+	/**
+	 * Bereits berechnete Fontmetriken, geteilt von allen Texten mit demselben Font.
+	 */
+	private static final Map<Font, FontMetrics> metriken = new ConcurrentHashMap<>();
+
+	/**
+	 * Das Fenster, zu dem die zwischengespeicherten Fontmetriken gehören.
+	 */
+	private static volatile Fenster metrikFenster;
+
+	/**
+	 * Graphics-Objekt zum Berechnen von Fontmetriken, falls kein Fenster existiert.
+	 */
+	private static Graphics2D metrikGrafik;
+
 	/**
 	 * Gibt an, ob das Fenster im Vollbildmodus arbeitet
 	 */
@@ -573,10 +595,40 @@ public class Fenster extends Frame {
 	 * @param f
 	 * 		Der zu ueberpruefende Font
 	 *
-	 * @return Das zu dem Font und aktiven Fenster gehoerende FontMetrics-Objekt
+	 * @return Das zu dem Font und aktiven Fenster gehoerende FontMetrics-Objekt. Gibt es (z.B. im
+	 * Headless-Betrieb) kein Fenster, werden die Metriken eines Offscreen-Bildes verwendet.
 	 */
 	public static FontMetrics metrik (Font f) {
-		return instanz.getFontMetrics(f);
+		Fenster fenster = instanz;
+
+		if (fenster != metrikFenster) {
+			// Metriken eines anderen Fensters gelten nicht mehr
+			metriken.clear();
+			metrikFenster = fenster;
+		}
+
+		FontMetrics metrik = metriken.get(f);
+
+		if (metrik == null) {
+			metrik = fenster == null ? offscreenMetrik(f) : fenster.getFontMetrics(f);
+
+			if (metriken.size() >= MAXIMALE_METRIKEN) {
+				metriken.clear();
+			}
+
+			metriken.put(f, metrik);
+		}
+
+		return metrik;
+	}
+
+	private static synchronized FontMetrics offscreenMetrik (Font f) {
+		if (metrikGrafik == null) {
+			metrikGrafik = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+			Zeichner.renderHinweiseSetzen(metrikGrafik);
+		}
+
+		return metrikGrafik.getFontMetrics(f);
 	}
 
 	/**
@@ -0,0 +1,270 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.io;
+
+import java.awt.image.BufferedImage;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Zwischenspeicher für fertig geladene Bilder, damit jede Datei nur einmal gelesen und im Speicher
+ * gehalten wird.<br /> Die zuletzt verwendeten Bilder werden bis zu einem Speicherbudget fest
+ * gehalten. Fällt ein Bild aus dem Budget, wird es nur noch schwach referenziert: Solange es noch
+ * von einem <code>Bild</code> verwendet wird, wird es weiterhin geteilt, danach kann der Garbage
+ * Collector es entfernen. Optional werden verdrängte Bilder weich referenziert, sodass sie bis zu
+ * echtem Speichermangel erhalten bleiben.
+ */
+public class BildCache {
+	/**
+	 * Fest gehaltene Bilder in LRU-Reihenfolge.
+	 */
+	private final LinkedHashMap<String, BufferedImage> fest = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Verdrängte Bilder, die noch verwendet werden könnten.
+	 */
+	private final Map<String, Reference<BufferedImage>> verdraengt = new HashMap<>();
+
+	/**
+	 * Das Speicherbudget in Bytes für fest gehaltene Bilder.
+	 */
+	private long budget;
+
+	/**
+	 * Ob verdrängte Bilder weich statt schwach referenziert werden.
+	 */
+	private boolean weich;
+
+	/**
+	 * Speicherbedarf aller fest gehaltenen Bilder in Bytes.
+	 */
+	private long bytes;
+
+	/**
+	 * Zähler für Treffer und Fehlschläge.
+	 */
+	private long treffer, fehlschlaege;
+
+	/**
+	 * Erstellt einen neuen Zwischenspeicher.
+	 *
+	 * @param budget
+	 * 		Das Speicherbudget in Bytes
+	 */
+	public BildCache (long budget) {
+		budgetSetzen(budget);
+	}
+
+	/**
+	 * Erstellt den Schlüssel für ein Bild.
+	 *
+	 * @param pfad
+	 * 		Der absolute Pfad der Bilddatei
+	 * @param breite
+	 * 		Die Breite, in der das Bild geladen wurde, <code>0</code> für die Originalgröße
+	 * @param hoehe
+	 * 		Die Höhe, in der das Bild geladen wurde, <code>0</code> für die Originalgröße
+	 *
+	 * @return Der Schlüssel
+	 */
+	public static String schluessel (String pfad, int breite, int hoehe) {
+		return pfad + "@" + breite + "x" + hoehe;
+	}
+
+	/**
+	 * Gibt ein Bild aus dem Zwischenspeicher aus.
+	 *
+	 * @param schluessel
+	 * 		Der Schlüssel des Bildes
+	 *
+	 * @return Das Bild oder <code>null</code>, falls es nicht (mehr) vorhanden ist.
+	 */
+	public synchronized BufferedImage holen (String schluessel) {
+		BufferedImage img = fest.get(schluessel);
+
+		if (img == null) {
+			Reference<BufferedImage> ref = verdraengt.remove(schluessel);
+			img = ref == null ? null : ref.get();
+
+			if (img != null) {
+				// Wieder in Gebrauch, also wieder fest halten
+				festHalten(schluessel, img);
+			}
+		}
+
+		if (img == null) {
+			fehlschlaege++;
+		} else {
+			treffer++;
+		}
+
+		return img;
+	}
+
+	/**
+	 * Legt ein Bild im Zwischenspeicher ab.
+	 *
+	 * @param schluessel
+	 * 		Der Schlüssel des Bildes
+	 * @param img
+	 * 		Das Bild
+	 *
+	 * @return Das abgelegte Bild. Wurde in der Zwischenzeit bereits ein Bild unter diesem Schlüssel
+	 * abgelegt, wird dieses ausgegeben, damit alle Verwender dasselbe Bild teilen.
+	 */
+	public synchronized BufferedImage ablegen (String schluessel, BufferedImage img) {
+		BufferedImage vorhanden = fest.get(schluessel);
+
+		if (vorhanden != null) {
+			return vorhanden;
+		}
+
+		Reference<BufferedImage> ref = verdraengt.remove(schluessel);
+
+		if (ref != null && ref.get() != null) {
+			img = ref.get();
+		}
+
+		festHalten(schluessel, img);
+
+		return img;
+	}
+
+	/**
+	 * Hält ein Bild fest und verdrängt, falls nötig, die am längsten nicht verwendeten Bilder.
+	 */
+	private void festHalten (String schluessel, BufferedImage img) {
+		fest.put(schluessel, img);
+		bytes += groesse(img);
+
+		verdraengen();
+	}
+
+	/**
+	 * Verdrängt die am längsten nicht verwendeten Bilder, bis das Budget eingehalten wird.
+	 */
+	private void verdraengen () {
+		Iterator<Map.Entry<String, BufferedImage>> it = fest.entrySet().iterator();
+
+		while (bytes > budget && it.hasNext()) {
+			Map.Entry<String, BufferedImage> eintrag = it.next();
+
+			it.remove();
+			bytes -= groesse(eintrag.getValue());
+
+			verdraengt.put(eintrag.getKey(), weich ? new SoftReference<>(eintrag.getValue()) : new WeakReference<>(eintrag.getValue()));
+		}
+
+		// Abgeräumte Referenzen entfernen
+		Iterator<Reference<BufferedImage>> refs = verdraengt.values().iterator();
+
+		while (refs.hasNext()) {
+			if (refs.next().get() == null) {
+				refs.remove();
+			}
+		}
+	}
+
+	/**
+	 * Schätzt den Speicherbedarf eines Bildes.
+	 *
+	 * @param img
+	 * 		Das Bild
+	 *
+	 * @return Der Speicherbedarf in Bytes
+	 */
+	public static long groesse (BufferedImage img) {
+		int bytesProPixel = (img.getColorModel().getPixelSize() + 7) / 8;
+
+		return (long) img.getWidth() * img.getHeight() * Math.max(1, bytesProPixel);
+	}
+
+	/**
+	 * Setzt das Speicherbudget für fest gehaltene Bilder.
+	 *
+	 * @param budget
+	 * 		Das Budget in Bytes
+	 */
+	public synchronized void budgetSetzen (long budget) {
+		if (budget < 0) {
+			throw new IllegalArgumentException("Das Budget darf nicht negativ sein. Deine Eingabe: " + budget);
+		}
+
+		this.budget = budget;
+
+		verdraengen();
+	}
+
+	/**
+	 * @return Das Speicherbudget in Bytes
+	 */
+	public synchronized long budget () {
+		return budget;
+	}
+
+	/**
+	 * Setzt, ob verdrängte Bilder weich referenziert werden sollen.<br /> Weich referenzierte
+	 * Bilder bleiben erhalten, bis der Speicher knapp wird. Sonst bleiben verdrängte Bilder nur
+	 * solange erhalten, wie sie noch verwendet werden.
+	 *
+	 * @param weich
+	 * 		<code>true</code> für weiche Referenzen
+	 */
+	public synchronized void weicheReferenzenSetzen (boolean weich) {
+		this.weich = weich;
+	}
+
+	/**
+	 * @return Die Anzahl an Anfragen, die aus dem Zwischenspeicher beantwortet wurden
+	 */
+	public synchronized long treffer () {
+		return treffer;
+	}
+
+	/**
+	 * @return Die Anzahl an Anfragen, für die das Bild geladen werden musste
+	 */
+	public synchronized long fehlschlaege () {
+		return fehlschlaege;
+	}
+
+	/**
+	 * @return Der Speicherbedarf aller fest gehaltenen Bilder in Bytes
+	 */
+	public synchronized long bytes () {
+		return bytes;
+	}
+
+	/**
+	 * Leert den Zwischenspeicher und setzt die Zähler zurück.
+	 */
+	public synchronized void leeren () {
+		fest.clear();
+		verdraengt.clear();
+		bytes = 0;
+		treffer = 0;
+		fehlschlaege = 0;
+	}
+}
@@ -0,0 +1,382 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.io;
+
+import ea.internal.gra.FigurDaten;
+import ea.internal.gra.PixelFeld;
+import ea.internal.util.Logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Liest und schreibt Figuren im binären <code>.eaf</code>-Format.<br /> Aufbau (alle Zahlen als
+ * <code>int</code> in Big-Endian):
+ * <p/>
+ * <ul> <li>Kennung <code>EAFB</code> und ein Byte Version</li> <li>Anzahl Bilder, Größenfaktor,
+ * Breite, Höhe, X- und Y-Position</li> <li>Länge der Palette und die Palette als ARGB-Werte, Index
+ * 0 steht für durchsichtig. Eine Länge von 0 bedeutet, dass keine Palette verwendet wird.</li>
+ * <li>Länge und Inhalt der mit Deflate komprimierten Bilddaten: zeilenweise je ein Byte
+ * Palettenindex bzw. ohne Palette je ein ARGB-Wert pro Unterquadrat</li> </ul>
+ */
+public class FigurFormat {
+	/**
+	 * Die Kennung am Anfang jeder binären Figur-Datei.
+	 */
+	private static final byte[] KENNUNG = {'E', 'A', 'F', 'B'};
+
+	/**
+	 * Die aktuelle Version des Formats.
+	 */
+	private static final byte VERSION = 1;
+
+	/**
+	 * Größe des Kopfes bis einschließlich der Palettenlänge.
+	 */
+	private static final int KOPF = KENNUNG.length + 1 + 7 * 4;
+
+	/**
+	 * Die größte Länge eines Byte-Arrays, die die JVM sicher anlegen kann.
+	 */
+	private static final long MAXIMALE_LAENGE = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Das höchste Verhältnis, in dem Deflate Daten komprimieren kann.
+	 */
+	private static final long MAXIMALE_KOMPRIMIERUNG = 1032;
+
+	private FigurFormat () {
+		// keine Objekte erlaubt!
+	}
+
+	/**
+	 * Prüft, ob eine Datei im binären Format vorliegt.
+	 *
+	 * @param datei
+	 * 		Die zu prüfende Datei
+	 *
+	 * @return <code>true</code>, falls die Datei mit der Kennung des Binärformats beginnt
+	 */
+	public static boolean istBinaer (File datei) {
+		try (FileChannel kanal = new FileInputStream(datei).getChannel()) {
+			ByteBuffer puffer = ByteBuffer.allocate(KENNUNG.length);
+
+			while (puffer.hasRemaining() && kanal.read(puffer) >= 0) {
+				// weiterlesen
+			}
+
+			return !puffer.hasRemaining() && Arrays.equals(puffer.array(), KENNUNG);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Liest eine binäre Figur-Datei ein.
+	 *
+	 * @param datei
+	 * 		Die einzulesende Datei
+	 *
+	 * @return Die eingelesenen Daten oder <code>null</code>, falls die Datei nicht gelesen werden
+	 * konnte oder beschädigt ist.
+	 */
+	public static FigurDaten lesen (File datei) {
+		ByteBuffer puffer;
+
+		try (FileChannel kanal = new FileInputStream(datei).getChannel()) {
+			if (kanal.size() > MAXIMALE_LAENGE) {
+				Logger.error("Die Figur-Datei ist zu groß: " + datei);
+				return null;
+			}
+
+			puffer = ByteBuffer.allocate((int) kanal.size());
+
+			while (puffer.hasRemaining() && kanal.read(puffer) >= 0) {
+				// weiterlesen
+			}
+
+			puffer.flip();
+		} catch (IOException e) {
+			Logger.error("Fehler beim Lesen der Datei. Existiert die Datei mit diesem Namen wirklich?\n" + datei);
+			return null;
+		}
+
+		try {
+			return lesen(puffer);
+		} catch (IllegalArgumentException | java.nio.BufferUnderflowException | DataFormatException e) {
+			Logger.error("Die Figur-Datei ist beschädigt: " + datei + " (" + e.getMessage() + ")");
+			return null;
+		}
+	}
+
+	/**
+	 * Liest die Figur aus einem Puffer.
+	 *
+	 * @param puffer
+	 * 		Der Puffer mit dem gesamten Dateiinhalt
+	 *
+	 * @return Die eingelesenen Daten
+	 *
+	 * @throws DataFormatException
+	 * 		Falls die komprimierten Daten beschädigt sind
+	 */
+	private static FigurDaten lesen (ByteBuffer puffer) throws DataFormatException {
+		byte[] kennung = new byte[KENNUNG.length];
+		puffer.get(kennung);
+
+		if (!Arrays.equals(kennung, KENNUNG)) {
+			throw new IllegalArgumentException("Die Datei ist keine binäre Figur-Datei");
+		}
+
+		byte version = puffer.get();
+
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unbekannte Version " + version);
+		}
+
+		int anzahl = puffer.getInt();
+		int faktor = puffer.getInt();
+		int breite = puffer.getInt();
+		int hoehe = puffer.getInt();
+		int x = puffer.getInt();
+		int y = puffer.getInt();
+		int paletteLaenge = puffer.getInt();
+
+		if (anzahl < 1 || faktor < 1 || breite < 0 || hoehe < 0 || paletteLaenge < 0 || paletteLaenge > 256) {
+			throw new IllegalArgumentException("Ungültiger Dateikopf");
+		}
+
+		int[] palette = new int[paletteLaenge];
+		puffer.asIntBuffer().get(palette);
+		puffer.position(puffer.position() + paletteLaenge * 4);
+
+		int komprimiert = puffer.getInt();
+
+		if (komprimiert < 0 || komprimiert > puffer.remaining()) {
+			throw new IllegalArgumentException("Ungültige Länge der Bilddaten");
+		}
+
+		// In long rechnen, damit große Angaben im Dateikopf nicht überlaufen
+		long bytesProBild = (long) breite * hoehe * (paletteLaenge == 0 ? 4 : 1);
+
+		if (bytesProBild > (MAXIMALE_LAENGE / anzahl)) {
+			throw new IllegalArgumentException("Die Figur ist zu groß");
+		}
+
+		long laenge = anzahl * bytesProBild;
+
+		if (laenge > komprimiert * MAXIMALE_KOMPRIMIERUNG + 64) {
+			throw new IllegalArgumentException("Die Bilddaten passen nicht zur Größe der Figur");
+		}
+
+		int proBild = breite * hoehe;
+		byte[] roh = new byte[(int) laenge];
+
+		Inflater inflater = new Inflater();
+		inflater.setInput(puffer.array(), puffer.arrayOffset() + puffer.position(), komprimiert);
+
+		try {
+			int gelesen = 0;
+
+			while (gelesen < roh.length && !inflater.finished()) {
+				int n = inflater.inflate(roh, gelesen, roh.length - gelesen);
+
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+
+				gelesen += n;
+			}
+
+			if (gelesen != roh.length) {
+				throw new IllegalArgumentException("Zu wenige Bilddaten");
+			}
+		} finally {
+			inflater.end();
+		}
+
+		PixelFeld[] bilder = new PixelFeld[anzahl];
+
+		for (int i = 0; i < anzahl; i++) {
+			PixelFeld feld = new PixelFeld(breite, hoehe, faktor);
+			int[] daten = feld.daten();
+
+			if (paletteLaenge == 0) {
+				ByteBuffer.wrap(roh, i * proBild * 4, proBild * 4).asIntBuffer().get(daten);
+			} else {
+				int start = i * proBild;
+
+				for (int j = 0; j < proBild; j++) {
+					int index = roh[start + j] & 0xFF;
+
+					if (index >= paletteLaenge) {
+						throw new IllegalArgumentException("Ungültiger Palettenindex " + index);
+					}
+
+					daten[j] = palette[index];
+				}
+			}
+
+			feld.datenGeaendert();
+			bilder[i] = feld;
+		}
+
+		return new FigurDaten(bilder, x, y);
+	}
+
+	/**
+	 * Schreibt eine Figur im binären Format.
+	 *
+	 * @param daten
+	 * 		Die zu schreibenden Daten. Alle Bilder müssen dieselben Maße haben, der Größenfaktor wird
+	 * 		vom ersten Bild übernommen.
+	 * @param datei
+	 * 		Die zu schreibende Datei, eine bestehende Datei wird überschrieben
+	 *
+	 * @return <code>true</code>, falls die Datei erfolgreich geschrieben wurde
+	 */
+	public static boolean schreiben (FigurDaten daten, File datei) {
+		PixelFeld[] bilder = daten.bilder;
+
+		int breite = bilder[0].breiteN();
+		int hoehe = bilder[0].hoeheN();
+		int proBild = breite * hoehe;
+
+		for (PixelFeld bild : bilder) {
+			if (bild.breiteN() != breite || bild.hoeheN() != hoehe) {
+				throw new IllegalArgumentException("Alle Bilder einer Figur müssen dieselben Maße haben!");
+			}
+		}
+
+		// Palette aufbauen, Index 0 ist durchsichtig
+		Map<Integer, Integer> indizes = new HashMap<>();
+		indizes.put(0, 0);
+
+		paletteSuchen:
+		for (PixelFeld bild : bilder) {
+			for (int c : bild.daten()) {
+				if (!indizes.containsKey(c)) {
+					if (indizes.size() == 256) {
+						indizes = null;
+						break paletteSuchen;
+					}
+
+					indizes.put(c, indizes.size());
+				}
+			}
+		}
+
+		int[] palette = new int[indizes == null ? 0 : indizes.size()];
+		byte[] roh;
+
+		if (indizes == null) {
+			ByteBuffer puffer = ByteBuffer.allocate(bilder.length * proBild * 4);
+
+			for (PixelFeld bild : bilder) {
+				puffer.asIntBuffer().put(bild.daten());
+				puffer.position(puffer.position() + proBild * 4);
+			}
+
+			roh = puffer.array();
+		} else {
+			for (Map.Entry<Integer, Integer> eintrag : indizes.entrySet()) {
+				palette[eintrag.getValue()] = eintrag.getKey();
+			}
+
+			roh = new byte[bilder.length * proBild];
+
+			for (int i = 0; i < bilder.length; i++) {
+				int[] pixel = bilder[i].daten();
+
+				for (int j = 0; j < proBild; j++) {
+					roh[i * proBild + j] = (byte) (int) indizes.get(pixel[j]);
+				}
+			}
+		}
+
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		deflater.setInput(roh);
+		deflater.finish();
+
+		byte[] komprimiert = new byte[Math.max(64, roh.length / 2)];
+		int laenge = 0;
+
+		while (!deflater.finished()) {
+			if (laenge == komprimiert.length) {
+				komprimiert = Arrays.copyOf(komprimiert, komprimiert.length * 2);
+			}
+
+			laenge += deflater.deflate(komprimiert, laenge, komprimiert.length - laenge);
+		}
+
+		deflater.end();
+
+		ByteBuffer puffer = ByteBuffer.allocate(KOPF + palette.length * 4 + 4 + laenge);
+		puffer.put(KENNUNG).put(VERSION);
+		puffer.putInt(bilder.length).putInt(bilder[0].faktor()).putInt(breite).putInt(hoehe);
+		puffer.putInt(daten.x).putInt(daten.y);
+		puffer.putInt(palette.length);
+
+		for (int c : palette) {
+			puffer.putInt(c);
+		}
+
+		puffer.putInt(laenge);
+		puffer.put(komprimiert, 0, laenge);
+		puffer.flip();
+
+		File temp = null;
+
+		try {
+			// Erst vollständig in eine temporäre Datei schreiben, damit nie eine halbe Figur entsteht
+			temp = File.createTempFile("figur", ".tmp", datei.getAbsoluteFile().getParentFile());
+
+			try (FileChannel kanal = new FileOutputStream(temp).getChannel()) {
+				while (puffer.hasRemaining()) {
+					kanal.write(puffer);
+				}
+			}
+
+			Files.move(temp.toPath(), datei.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			return true;
+		} catch (IOException e) {
+			Logger.error("Fehler beim Erstellen der Datei. Sind die Zugriffsrechte zu stark?\n" + datei);
+
+			if (temp != null) {
+				temp.delete();
+			}
+
+			return false;
+		}
+	}
+}
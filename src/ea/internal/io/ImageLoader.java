@@ -23,18 +23,59 @@ import ea.internal.util.Logger;
 import ea.internal.util.Optimizer;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 public class ImageLoader {
+	/**
+	 * Der Zwischenspeicher für alle von außerhalb geladenen Bilder, standardmäßig mit einem Budget
+	 * von 64 MB.
+	 */
+	private static final BildCache cache = new BildCache(64L << 20);
+
+	/**
+	 * Der optionale Festplatten-Cache für dekodierte Bilder, <code>null</code> wenn deaktiviert.
+	 */
+	private static volatile RasterCache festplatte;
+
+	/**
+	 * Die Originalgrößen bereits gelesener Bilddateien, nach absolutem Pfad.
+	 */
+	private static final Map<String, Dimension> groessen = new HashMap<>();
+
 	private ImageLoader () {
 		// keine Objekte erlaubt!
 	}
 
 	/**
-	 * Lädt ein Bild, das außerhalb der ausführbaren Datei liegt.
+	 * @return Der Zwischenspeicher für von außerhalb geladene Bilder.
+	 */
+	public static BildCache cache () {
+		return cache;
+	}
+
+	/**
+	 * Setzt den Festplatten-Cache für dekodierte Bilder.
+	 *
+	 * @param festplatte
+	 * 		Der neue Festplatten-Cache oder <code>null</code>, um ihn zu deaktivieren.
+	 */
+	public static void festplattenCacheSetzen (RasterCache festplatte) {
+		ImageLoader.festplatte = festplatte;
+	}
+
+	/**
+	 * Lädt ein Bild, das außerhalb der ausführbaren Datei liegt.<br /> Wurde die Datei bereits
+	 * geladen, wird dasselbe Bild aus dem Zwischenspeicher ausgegeben. Es darf daher nicht
+	 * verändert werden.
 	 *
 	 * @param path
 	 * 		Verzeichnis des Bildes.
@@ -42,11 +83,234 @@ public class ImageLoader {
 	 * @return geladenes Bild oder <code>null</code> im Fehlerfall.
 	 */
 	public static BufferedImage loadExternalImage (String path) {
+		String schluessel = BildCache.schluessel(new File(path).getAbsolutePath(), 0, 0);
+		BufferedImage img = cache.holen(schluessel);
+
+		if (img != null) {
+			return img;
+		}
+
+		img = decodeExternalImage(path);
+
+		if (img == null) {
+			return null;
+		}
+
+		groesseMerken(new File(path).getAbsolutePath(), img.getWidth(), img.getHeight());
+
+		return cache.ablegen(schluessel, img);
+	}
+
+	/**
+	 * Lädt ein Bild, das außerhalb der ausführbaren Datei liegt, in einer bestimmten Größe.<br />
+	 * Liegt das Bild bereits in Originalgröße im Zwischenspeicher, wird es von dort skaliert.
+	 * Sonst wird es aus dem Festplatten-Cache gelesen oder, wenn es dort in dieser Größe noch nicht
+	 * liegt, dekodiert. Ist die Datei deutlich größer, wird dabei nur jeder n-te Pixel gelesen,
+	 * sodass nie das gesamte Bild in voller Auflösung im Speicher liegt. Das Ergebnis wird genau
+	 * auf die gewünschte Größe skaliert und ebenfalls zwischengespeichert.
+	 *
+	 * @param path
+	 * 		Verzeichnis des Bildes.
+	 * @param breite
+	 * 		Die gewünschte Breite in Pixeln
+	 * @param hoehe
+	 * 		Die gewünschte Höhe in Pixeln
+	 *
+	 * @return geladenes Bild oder <code>null</code> im Fehlerfall.
+	 */
+	public static BufferedImage loadExternalImage (String path, int breite, int hoehe) {
+		if (breite <= 0 || hoehe <= 0) {
+			throw new IllegalArgumentException("Breite und Höhe müssen größer als 0 sein. Deine Eingabe: " + breite + "x" + hoehe);
+		}
+
+		File datei = new File(path);
+		String schluessel = BildCache.schluessel(datei.getAbsolutePath(), breite, hoehe);
+		BufferedImage img = cache.holen(schluessel);
+
+		if (img != null) {
+			return img;
+		}
+
+		BufferedImage original = cache.holen(BildCache.schluessel(datei.getAbsolutePath(), 0, 0));
+
+		if (original != null) {
+			// Das Bild liegt schon vollständig im Speicher, neu dekodieren wäre teurer
+			return cache.ablegen(schluessel, Optimizer.skalieren(original, breite, hoehe));
+		}
+
+		RasterCache festplatte = ImageLoader.festplatte;
+
+		if (festplatte != null) {
+			img = festplatte.lesen(datei, breite, hoehe);
+
+			if (img != null) {
+				return cache.ablegen(schluessel, img);
+			}
+		}
+
+		img = decodeExternalImage(path, breite, hoehe);
+
+		if (img == null) {
+			return null;
+		}
+
+		if (img.getWidth() != breite || img.getHeight() != hoehe) {
+			img = Optimizer.skalieren(img, breite, hoehe);
+		}
+
+		if (festplatte != null) {
+			festplatte.schreiben(datei, img, true);
+		}
+
+		return cache.ablegen(schluessel, img);
+	}
+
+	/**
+	 * Gibt die Originalgröße einer Bilddatei aus, ohne das Bild zu dekodieren.
+	 *
+	 * @param path
+	 * 		Verzeichnis des Bildes.
+	 *
+	 * @return Die Größe in Pixeln oder <code>null</code> im Fehlerfall.
+	 */
+	public static Dimension bildGroesse (String path) {
+		String pfad = new File(path).getAbsolutePath();
+
+		synchronized (groessen) {
+			Dimension groesse = groessen.get(pfad);
+
+			if (groesse != null) {
+				return new Dimension(groesse);
+			}
+		}
+
+		try (ImageInputStream in = ImageIO.createImageInputStream(new File(path))) {
+			ImageReader reader = leser(in, path);
+
+			if (reader == null) {
+				return null;
+			}
+
+			try {
+				return groesseMerken(pfad, reader.getWidth(0), reader.getHeight(0));
+			} finally {
+				reader.dispose();
+			}
+		} catch (IOException e) {
+			Logger.error("Das Bild konnte nicht geladen werden: " + path);
+			return null;
+		}
+	}
+
+	/**
+	 * Liest ein Bild so, dass es mindestens die angegebene Größe hat, aber möglichst wenig
+	 * Pixel mehr als nötig dekodiert werden.
+	 */
+	private static BufferedImage decodeExternalImage (String path, int breite, int hoehe) {
+		BufferedImage img;
+
+		try (ImageInputStream in = ImageIO.createImageInputStream(new File(path))) {
+			ImageReader reader = leser(in, path);
+
+			if (reader == null) {
+				return null;
+			}
+
+			try {
+				int w = reader.getWidth(0);
+				int h = reader.getHeight(0);
+				groesseMerken(new File(path).getAbsolutePath(), w, h);
+
+				ImageReadParam param = reader.getDefaultReadParam();
+				int sx = Math.max(1, w / breite);
+				int sy = Math.max(1, h / hoehe);
+
+				if (sx > 1 || sy > 1) {
+					param.setSourceSubsampling(sx, sy, 0, 0);
+				}
+
+				img = reader.read(0, param);
+			} finally {
+				reader.dispose();
+			}
+		} catch (IOException e) {
+			Logger.error("Das Bild konnte nicht geladen werden: " + path);
+			return null;
+		}
+
+		return Optimizer.toCompatibleImage(img);
+	}
+
+	/**
+	 * Erstellt einen passenden Leser für eine Bilddatei.
+	 *
+	 * @return Der Leser oder <code>null</code>, falls die Datei nicht gelesen werden kann.
+	 */
+	private static ImageReader leser (ImageInputStream in, String path) {
+		if (in == null) {
+			Logger.error("Das Bild konnte nicht geladen werden: " + path);
+			return null;
+		}
+
+		Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+
+		if (!readers.hasNext()) {
+			Logger.error("Das Bildformat wird nicht unterstützt: " + path);
+			return null;
+		}
+
+		ImageReader reader = readers.next();
+		reader.setInput(in, true, true);
+
+		return reader;
+	}
+
+	private static Dimension groesseMerken (String pfad, int breite, int hoehe) {
+		Dimension groesse = new Dimension(breite, hoehe);
+
+		synchronized (groessen) {
+			groessen.put(pfad, groesse);
+		}
+
+		return new Dimension(groesse);
+	}
+
+	/**
+	 * Liest ein Bild, das außerhalb der ausführbaren Datei liegt, ohne den Zwischenspeicher im
+	 * Arbeitsspeicher. Ist der Festplatten-Cache aktiv, wird das Bild von dort gelesen bzw. dort
+	 * abgelegt.
+	 *
+	 * @param path
+	 * 		Verzeichnis des Bildes.
+	 *
+	 * @return geladenes Bild oder <code>null</code> im Fehlerfall.
+	 */
+	private static BufferedImage decodeExternalImage (String path) {
 		BufferedImage img = null;
+		RasterCache festplatte = ImageLoader.festplatte;
+		File datei = new File(path);
+
+		if (festplatte != null) {
+			img = festplatte.lesen(datei);
+
+			if (img != null) {
+				return img;
+			}
+		}
 
 		try {
-			img = ImageIO.read(new FileInputStream(new File(path)));
+			img = ImageIO.read(datei);
+
+			if (img == null) {
+				Logger.error("Das Bildformat wird nicht unterstützt: " + path);
+				return null;
+			}
+
 			img = Optimizer.toCompatibleImage(img);
+
+			if (festplatte != null) {
+				festplatte.schreiben(datei, img);
+			}
 		} catch (IOException e) {
 			Logger.error("Das Bild konnte nicht geladen werden: " + path);
 		}
@@ -0,0 +1,399 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.io;
+
+import ea.internal.util.Logger;
+import ea.internal.util.Optimizer;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Speichert fertig dekodierte Bilder als rohe ARGB-Raster auf der Festplatte, damit beim nächsten
+ * Start das Dekodieren (z.B. das Entpacken von PNG-Dateien) entfällt.<br /> Die Einträge sind nach
+ * Pfad, Änderungszeitpunkt und Größe der Quelldatei benannt, skalierte Bilder zusätzlich nach
+ * ihrer Zielgröße. Ändert sich die Quelldatei, wird der alte Eintrag nicht mehr gefunden und beim
+ * nächsten Schreiben entfernt. Gelesen wird über
+ * speicherabgebildete Dateien.<br /> <br /> Das Verzeichnis wird nur einmal beim ersten Schreiben
+ * durchsucht. Danach wird die Gesamtgröße im Speicher mitgeführt und erst wieder aufgeräumt, wenn
+ * sie das Maximum überschreitet.
+ */
+public class RasterCache {
+	/**
+	 * Die Kennung am Anfang jedes Eintrags.
+	 */
+	private static final int KENNUNG = 0x45415242; // "EARB"
+
+	/**
+	 * Die aktuelle Version des Formats.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Die Dateiendung der Einträge.
+	 */
+	private static final String ENDUNG = ".earb";
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**
+	 * Das Verzeichnis der Einträge.
+	 */
+	private final File verzeichnis;
+
+	/**
+	 * Die maximale Gesamtgröße aller Einträge in Bytes.
+	 */
+	private final long maximum;
+
+	/**
+	 * Der aktuelle Eintrag jeder Quelldatei nach deren Präfix, <code>null</code> bis das
+	 * Verzeichnis zum ersten Mal durchsucht wurde.
+	 */
+	private Map<String, File> eintraege;
+
+	/**
+	 * Die Gesamtgröße aller Einträge in Bytes.
+	 */
+	private long gesamt;
+
+	/**
+	 * Erstellt einen neuen Festplatten-Cache.
+	 *
+	 * @param verzeichnis
+	 * 		Das Verzeichnis, in dem die Einträge abgelegt werden. Es wird bei Bedarf erstellt.
+	 * @param maximum
+	 * 		Die maximale Gesamtgröße aller Einträge in Bytes
+	 */
+	public RasterCache (File verzeichnis, long maximum) {
+		if (maximum <= 0) {
+			throw new IllegalArgumentException("Die maximale Größe muss größer als 0 sein. Deine Eingabe: " + maximum);
+		}
+
+		if (!verzeichnis.isDirectory() && !verzeichnis.mkdirs()) {
+			throw new IllegalArgumentException("Das Verzeichnis konnte nicht erstellt werden: " + verzeichnis);
+		}
+
+		this.verzeichnis = verzeichnis;
+		this.maximum = maximum;
+	}
+
+	/**
+	 * Liest ein Bild aus dem Cache.
+	 *
+	 * @param quelle
+	 * 		Die Quelldatei des Bildes
+	 *
+	 * @return Das Bild oder <code>null</code>, falls kein gültiger Eintrag existiert.
+	 */
+	public BufferedImage lesen (File quelle) {
+		return lesen(quelle, 0, 0);
+	}
+
+	/**
+	 * Liest ein Bild in einer bestimmten Größe aus dem Cache.
+	 *
+	 * @param quelle
+	 * 		Die Quelldatei des Bildes
+	 * @param zielBreite
+	 * 		Die Breite, in der das Bild abgelegt wurde, oder 0 für die Originalgröße
+	 * @param zielHoehe
+	 * 		Die Höhe, in der das Bild abgelegt wurde, oder 0 für die Originalgröße
+	 *
+	 * @return Das Bild oder <code>null</code>, falls kein gültiger Eintrag existiert.
+	 */
+	public BufferedImage lesen (File quelle, int zielBreite, int zielHoehe) {
+		File eintrag = eintrag(quelle, zielBreite, zielHoehe);
+
+		if (!eintrag.isFile()) {
+			return null;
+		}
+
+		try (RandomAccessFile datei = new RandomAccessFile(eintrag, "r")) {
+			FileChannel kanal = datei.getChannel();
+			MappedByteBuffer puffer = kanal.map(FileChannel.MapMode.READ_ONLY, 0, kanal.size());
+
+			if (puffer.getInt() != KENNUNG || puffer.getInt() != VERSION) {
+				return null;
+			}
+
+			int breite = puffer.getInt();
+			int hoehe = puffer.getInt();
+			int transparenz = puffer.getInt();
+			byte[] pfad = new byte[puffer.getInt()];
+			puffer.get(pfad);
+
+			if (breite <= 0 || hoehe <= 0 || !new String(pfad, UTF8).equals(quelle.getAbsolutePath()) || puffer.remaining() != 4L * breite * hoehe) {
+				return null;
+			}
+
+			if (zielBreite > 0 && (breite != zielBreite || hoehe != zielHoehe)) {
+				return null;
+			}
+
+			int[] pixel = new int[breite * hoehe];
+			puffer.asIntBuffer().get(pixel);
+
+			BufferedImage img = Optimizer.createCompatibleImage(breite, hoehe, transparenz);
+
+			if (img.getType() == BufferedImage.TYPE_INT_ARGB || img.getType() == BufferedImage.TYPE_INT_RGB) {
+				img.getRaster().setDataElements(0, 0, breite, hoehe, pixel);
+			} else {
+				img.setRGB(0, 0, breite, hoehe, pixel, 0, breite);
+			}
+
+			// Für die Verdrängung als zuletzt verwendet markieren
+			eintrag.setLastModified(System.currentTimeMillis());
+
+			return img;
+		} catch (IOException | RuntimeException e) {
+			Logger.error("Der Bild-Cache-Eintrag konnte nicht gelesen werden: " + eintrag);
+			return null;
+		}
+	}
+
+	/**
+	 * Schreibt ein Bild in den Cache und entfernt veraltete Einträge derselben Quelldatei sowie,
+	 * falls nötig, die am längsten nicht verwendeten Einträge.
+	 *
+	 * @param quelle
+	 * 		Die Quelldatei des Bildes
+	 * @param img
+	 * 		Das dekodierte Bild
+	 */
+	public void schreiben (File quelle, BufferedImage img) {
+		schreiben(quelle, img, false);
+	}
+
+	/**
+	 * Schreibt ein Bild in den Cache und entfernt veraltete Einträge derselben Quelldatei und
+	 * Größe sowie, falls nötig, die am längsten nicht verwendeten Einträge.
+	 *
+	 * @param quelle
+	 * 		Die Quelldatei des Bildes
+	 * @param img
+	 * 		Das dekodierte Bild
+	 * @param skaliert
+	 * 		<code>true</code>, wenn das Bild auf eine Zielgröße skaliert wurde. Es wird dann unter
+	 * 		seiner Größe abgelegt und über {@link #lesen(File, int, int)} gefunden, ohne den Eintrag
+	 * 		in Originalgröße zu ersetzen.
+	 */
+	public void schreiben (File quelle, BufferedImage img, boolean skaliert) {
+		int breite = img.getWidth();
+		int hoehe = img.getHeight();
+		byte[] pfad = quelle.getAbsolutePath().getBytes(UTF8);
+
+		long groesse = 24L + pfad.length + 4L * breite * hoehe;
+
+		if (groesse > maximum || groesse > Integer.MAX_VALUE) {
+			return;
+		}
+
+		ByteBuffer puffer = ByteBuffer.allocate((int) groesse);
+		puffer.putInt(KENNUNG).putInt(VERSION).putInt(breite).putInt(hoehe).putInt(img.getTransparency());
+		puffer.putInt(pfad.length).put(pfad);
+		puffer.asIntBuffer().put(img.getRGB(0, 0, breite, hoehe, null, 0, breite));
+		puffer.rewind();
+
+		int zielBreite = skaliert ? breite : 0;
+		int zielHoehe = skaliert ? hoehe : 0;
+
+		File eintrag = eintrag(quelle, zielBreite, zielHoehe);
+		long vorher = eintrag.length();
+
+		try {
+			File temp = File.createTempFile("bild", ".tmp", verzeichnis);
+
+			try (RandomAccessFile datei = new RandomAccessFile(temp, "rw")) {
+				FileChannel kanal = datei.getChannel();
+
+				while (puffer.hasRemaining()) {
+					kanal.write(puffer);
+				}
+			}
+
+			Files.move(temp.toPath(), eintrag.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			Logger.error("Der Bild-Cache-Eintrag konnte nicht geschrieben werden: " + eintrag);
+			return;
+		}
+
+		eingetragen(praefix(quelle, zielBreite, zielHoehe), eintrag, groesse - vorher);
+	}
+
+	/**
+	 * Vermerkt einen neu geschriebenen Eintrag, entfernt den veralteten Eintrag derselben
+	 * Quelldatei und Größe und räumt auf, falls die maximale Gesamtgröße überschritten wurde.
+	 *
+	 * @param praefix
+	 * 		Der Präfix des Eintrags
+	 * @param eintrag
+	 * 		Der neue Eintrag
+	 * @param zuwachs
+	 * 		Die Anzahl an Bytes, um die der Eintrag das Verzeichnis vergrößert hat
+	 */
+	private synchronized void eingetragen (String praefix, File eintrag, long zuwachs) {
+		if (eintraege == null) {
+			// Beim ersten Mal ist der neue Eintrag in der Zählung bereits enthalten
+			durchsuchen(eintrag);
+		} else {
+			gesamt += zuwachs;
+		}
+
+		File alt = eintraege.put(praefix, eintrag);
+
+		if (alt != null && !alt.equals(eintrag)) {
+			// Die Quelldatei hat sich seitdem geändert
+			gesamt -= alt.length();
+			alt.delete();
+		}
+
+		if (gesamt > maximum) {
+			aufraeumen(eintrag);
+		}
+	}
+
+	/**
+	 * Durchsucht das Verzeichnis nach vorhandenen Einträgen und bestimmt deren Gesamtgröße. Hat
+	 * eine Quelldatei mehrere Einträge, bleibt nur der aktuelle bzw. der zuletzt verwendete
+	 * erhalten.
+	 *
+	 * @param aktuell
+	 * 		Der aktuelle Eintrag, der auf jeden Fall erhalten bleibt, oder <code>null</code>
+	 */
+	private void durchsuchen (File aktuell) {
+		eintraege = new HashMap<>();
+		gesamt = 0;
+
+		File[] dateien = verzeichnis.listFiles();
+
+		if (dateien == null) {
+			return;
+		}
+
+		for (File e : dateien) {
+			String name = e.getName();
+
+			if (!name.endsWith(ENDUNG)) {
+				continue;
+			}
+
+			String praefix = praefix(name);
+			File alt = eintraege.get(praefix);
+
+			if (alt != null && (alt.equals(aktuell) || !e.equals(aktuell) && alt.lastModified() >= e.lastModified())) {
+				e.delete();
+				continue;
+			}
+
+			if (alt != null) {
+				gesamt -= alt.length();
+				alt.delete();
+			}
+
+			eintraege.put(praefix, e);
+			gesamt += e.length();
+		}
+	}
+
+	/**
+	 * Entfernt die am längsten nicht verwendeten Einträge, bis die Gesamtgröße wieder ein Zehntel
+	 * unter dem Maximum liegt. So wird nicht bei jedem weiteren Schreiben erneut aufgeräumt.
+	 *
+	 * @param aktuell
+	 * 		Der aktuelle Eintrag, der erhalten bleibt
+	 */
+	private void aufraeumen (File aktuell) {
+		// Gelesene Einträge ändern ihren Zeitstempel, deshalb wird hier frisch gezählt
+		durchsuchen(aktuell);
+
+		long ziel = maximum - maximum / 10;
+
+		File[] sortiert = eintraege.values().toArray(new File[eintraege.size()]);
+
+		Arrays.sort(sortiert, new Comparator<File>() {
+			@Override
+			public int compare (File a, File b) {
+				return Long.compare(a.lastModified(), b.lastModified());
+			}
+		});
+
+		for (File e : sortiert) {
+			if (gesamt <= ziel) {
+				break;
+			}
+
+			if (!e.equals(aktuell)) {
+				gesamt -= e.length();
+				e.delete();
+				eintraege.remove(praefix(e.getName()));
+			}
+		}
+	}
+
+	/**
+	 * @return Die Gesamtgröße aller Einträge in Bytes, wie sie zuletzt mitgezählt wurde
+	 */
+	public synchronized long gesamtGroesse () {
+		if (eintraege == null) {
+			durchsuchen(null);
+		}
+
+		return gesamt;
+	}
+
+	/**
+	 * @return Der Dateiname-Anfang aller Einträge einer Quelldatei in einer Größe. Die
+	 * Originalgröße (0 x 0) hat keinen Größenzusatz.
+	 */
+	private static String praefix (File quelle, int breite, int hoehe) {
+		if (breite <= 0 || hoehe <= 0) {
+			return String.format("%08x-", quelle.getAbsolutePath().hashCode());
+		}
+
+		return String.format("%08x_%dx%d-", quelle.getAbsolutePath().hashCode(), breite, hoehe);
+	}
+
+	/**
+	 * @return Der Präfix aus dem Dateinamen eines Eintrags.
+	 */
+	private static String praefix (String name) {
+		return name.substring(0, name.indexOf('-') + 1);
+	}
+
+	/**
+	 * @return Der Eintrag für den aktuellen Stand einer Quelldatei in einer Größe.
+	 */
+	private File eintrag (File quelle, int breite, int hoehe) {
+		return new File(verzeichnis, praefix(quelle, breite, hoehe) + Long.toHexString(quelle.lastModified()) + "-" + Long.toHexString(quelle.length()) + ENDUNG);
+	}
+}
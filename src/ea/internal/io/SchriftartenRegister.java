@@ -0,0 +1,584 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.io;
+
+import ea.internal.util.Logger;
+
+import java.awt.*;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Verwaltet die eigenen Schriftarten (<code>.ttf</code>-Dateien) und die Schriftarten des
+ * Systems.<br /> Die Schriftverzeichnisse (standardmäßig das Arbeitsverzeichnis) werden beim ersten
+ * Zugriff im Hintergrund durchsucht. Das Ergebnis wird als Index aus Name und Datei gespeichert,
+ * sodass beim nächsten Start nur neue oder veränderte Dateien geöffnet werden müssen. Die
+ * <code>Font</code>-Objekte selbst werden erst erstellt, wenn sie gebraucht werden.
+ */
+public class SchriftartenRegister {
+	/**
+	 * Die Kennung am Anfang der Indexdatei.
+	 */
+	private static final String KENNUNG = "EASI 1";
+
+	/**
+	 * Die Kennung der <code>name</code>-Tabelle in einer TrueType-Datei.
+	 */
+	private static final int NAME_TABELLE = 0x6E616D65; // "name"
+
+	/**
+	 * Die Nummer des vollständigen Schriftnamens in der <code>name</code>-Tabelle.
+	 */
+	private static final int VOLLER_NAME = 4;
+
+	/**
+	 * Ein Eintrag des Index: eine Schriftdatei samt Änderungszeit und Größe, um Änderungen zu
+	 * erkennen.
+	 */
+	private static final class Eintrag {
+		private final String name;
+		private final File datei;
+		private final long geaendert;
+		private final long groesse;
+
+		private Eintrag (String name, File datei, long geaendert, long groesse) {
+			this.name = name;
+			this.datei = datei;
+			this.geaendert = geaendert;
+			this.groesse = groesse;
+		}
+
+		private boolean aktuell () {
+			return datei.lastModified() == geaendert && datei.length() == groesse;
+		}
+	}
+
+	/**
+	 * Der Index aller gefundenen Schriftdateien, nach Schriftname.
+	 */
+	private static final Map<String, Eintrag> index = new ConcurrentHashMap<>();
+
+	/**
+	 * Bereits erstellte Schriftarten, nach Schriftname. Enthält auch Schriftarten, die ohne Datei
+	 * im Index hinzugefügt wurden.
+	 */
+	private static final Map<String, Font> geladen = new ConcurrentHashMap<>();
+
+	/**
+	 * Die laufenden oder abgeschlossenen Suchen, nach Verzeichnis.
+	 */
+	private static final Map<File, Future<?>> suchen = new HashMap<>();
+
+	/**
+	 * Der Ort der Indexdatei, <code>null</code> wenn der Index nicht gespeichert wird.
+	 */
+	private static volatile File indexDatei = new File(System.getProperty("java.io.tmpdir"), "engine-alpha-schriften-" + Integer.toHexString(new File(System.getProperty("user.dir")).getAbsolutePath().hashCode()) + ".idx");
+
+	/**
+	 * Ob der Index bereits gelesen und die Suche im Arbeitsverzeichnis begonnen wurde.
+	 */
+	private static final AtomicBoolean gestartet = new AtomicBoolean(false);
+
+	private SchriftartenRegister () {
+		// keine Objekte erlaubt!
+	}
+
+	/**
+	 * Liest beim ersten Zugriff auf das Register den gespeicherten Index und beginnt die Suche im
+	 * Arbeitsverzeichnis.
+	 */
+	private static void starten () {
+		if (gestartet.compareAndSet(false, true)) {
+			indexLesen();
+			verzeichnisHinzufuegen(new File(System.getProperty("user.dir")));
+		}
+	}
+
+	/**
+	 * Hält den Thread für die Suche im Hintergrund.
+	 */
+	private static class Suchthread {
+		static final ExecutorService AUSFUEHRER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread (Runnable r) {
+				Thread thread = new Thread(r, "Schriftsuche");
+				thread.setDaemon(true);
+
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Hält die Namen aller Schriftfamilien des Systems, diese werden erst bei Bedarf abgefragt.
+	 */
+	private static class Systemschriften {
+		static final Set<String> NAMEN = new HashSet<>(Arrays.asList(GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames()));
+	}
+
+	/**
+	 * Fügt ein weiteres Schriftverzeichnis hinzu, das im Hintergrund durchsucht wird.
+	 *
+	 * @param verzeichnis
+	 * 		Das Verzeichnis, das samt Unterverzeichnissen nach <code>.ttf</code>-Dateien durchsucht
+	 * 		wird
+	 */
+	public static void verzeichnisHinzufuegen (final File verzeichnis) {
+		starten();
+
+		final File absolut = verzeichnis.getAbsoluteFile();
+
+		synchronized (suchen) {
+			if (suchen.containsKey(absolut)) {
+				return;
+			}
+
+			suchen.put(absolut, Suchthread.AUSFUEHRER.submit(new Runnable() {
+				@Override
+				public void run () {
+					durchsuchen(absolut);
+				}
+			}));
+		}
+	}
+
+	/**
+	 * Setzt den Ort der Indexdatei.
+	 *
+	 * @param datei
+	 * 		Die neue Indexdatei, <code>null</code> um den Index nicht zu speichern
+	 */
+	public static void indexDateiSetzen (File datei) {
+		indexDatei = datei;
+	}
+
+	/**
+	 * Gibt eine eigene Schriftart aus und erstellt diese beim ersten Aufruf.<br /> Es wird nicht auf
+	 * das Ende der Suche gewartet. Ist die Schriftart noch nicht gefunden, kann über
+	 * {@link #sucht()} und {@link #nachSuche(Runnable)} später erneut nachgesehen werden.
+	 *
+	 * @param name
+	 * 		Der Name der Schriftart
+	 *
+	 * @return Die Schriftart in Größe 1, oder <code>null</code>, falls (bisher) keine eigene
+	 * Schriftart diesen Namen hat
+	 */
+	public static Font holen (String name) {
+		starten();
+
+		return ausIndex(name);
+	}
+
+	/**
+	 * Gibt eine eigene Schriftart aus und erstellt diese beim ersten Aufruf.<br /> Ist der Name weder
+	 * im Index noch eine Systemschrift, wird auf das Ende der Suche gewartet.
+	 *
+	 * @param name
+	 * 		Der Name der Schriftart
+	 *
+	 * @return Die Schriftart in Größe 1, oder <code>null</code>, falls keine eigene Schriftart
+	 * diesen Namen hat
+	 */
+	public static Font holenWartend (String name) {
+		Font font = holen(name);
+
+		if (font != null || systemSchriftExistiert(name)) {
+			return font;
+		}
+
+		warten();
+
+		return ausIndex(name);
+	}
+
+	/**
+	 * @return <code>true</code>, solange noch ein Schriftverzeichnis durchsucht wird
+	 */
+	public static boolean sucht () {
+		starten();
+
+		synchronized (suchen) {
+			for (Future<?> suche : suchen.values()) {
+				if (!suche.isDone()) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Führt eine Aufgabe im Suchthread aus, sobald alle bis jetzt angemeldeten Suchen beendet
+	 * sind.
+	 *
+	 * @param aufgabe
+	 * 		Die auszuführende Aufgabe. Sie sollte schnell erledigt sein, da sie weitere Suchen
+	 * 		aufhält.
+	 */
+	public static void nachSuche (Runnable aufgabe) {
+		starten();
+
+		// Der Suchthread arbeitet die Aufträge der Reihe nach ab
+		Suchthread.AUSFUEHRER.submit(aufgabe);
+	}
+
+	/**
+	 * Fügt eine bereits geladene Schriftart hinzu, sodass sie über ihren Namen gefunden wird.
+	 *
+	 * @param font
+	 * 		Die Schriftart
+	 */
+	public static void hinzufuegen (Font font) {
+		geladen.putIfAbsent(font.getName(), font);
+	}
+
+	/**
+	 * Prüft, ob eine Schriftfamilie auf diesem Computer installiert ist.
+	 *
+	 * @param name
+	 * 		Der Name der Schriftfamilie
+	 *
+	 * @return <code>true</code>, falls die Schriftfamilie existiert
+	 */
+	public static boolean systemSchriftExistiert (String name) {
+		return Systemschriften.NAMEN.contains(name);
+	}
+
+	/**
+	 * @return Die Namen aller Schriftfamilien dieses Computers
+	 */
+	public static String[] systemSchriften () {
+		return Systemschriften.NAMEN.toArray(new String[Systemschriften.NAMEN.size()]);
+	}
+
+	/**
+	 * Wartet auf das Ende aller Suchen und gibt dann die Namen aller eigenen Schriftarten aus.
+	 *
+	 * @return Die Namen aller eigenen Schriftarten, sortiert
+	 */
+	public static List<String> namen () {
+		starten();
+		warten();
+
+		TreeSet<String> namen = new TreeSet<>(index.keySet());
+		namen.addAll(geladen.keySet());
+
+		return new ArrayList<>(namen);
+	}
+
+	/**
+	 * Wartet, bis alle Schriftverzeichnisse durchsucht wurden.
+	 */
+	public static void warten () {
+		List<Future<?>> offen;
+
+		synchronized (suchen) {
+			offen = new ArrayList<>(suchen.values());
+		}
+
+		for (Future<?> suche : offen) {
+			try {
+				suche.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				Logger.error("Die Suche nach Schriftarten ist fehlgeschlagen: " + e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Sucht eine Schriftart unter den geladenen und im Index und erstellt sie bei Bedarf.
+	 */
+	private static Font ausIndex (String name) {
+		Font font = geladen.get(name);
+
+		if (font != null) {
+			return font;
+		}
+
+		Eintrag eintrag = index.get(name);
+
+		if (eintrag == null) {
+			return null;
+		}
+
+		font = erstellen(eintrag.datei);
+
+		if (font == null) {
+			index.remove(name);
+			return null;
+		}
+
+		if (!font.getName().equals(name)) {
+			// Der gelesene Name weicht ab, die Schriftart unter ihrem richtigen Namen eintragen
+			index.remove(name);
+			index.put(font.getName(), new Eintrag(font.getName(), eintrag.datei, eintrag.geaendert, eintrag.groesse));
+			geladen.putIfAbsent(font.getName(), font);
+			return null;
+		}
+
+		Font vorher = geladen.putIfAbsent(name, font);
+
+		return vorher != null ? vorher : font;
+	}
+
+	private static Font erstellen (File datei) {
+		try {
+			return Font.createFont(Font.TRUETYPE_FONT, datei);
+		} catch (FontFormatException e) {
+			Logger.error("Das TrueType-Font-Format einer Datei (" + datei.getPath() + ") war nicht einlesbar!");
+		} catch (IOException e) {
+			Logger.error("Lesefehler beim Laden der eigenen Fonts! Zugriffsrechte überprüfen.");
+		}
+
+		return null;
+	}
+
+	/**
+	 * Liest den vollständigen Namen einer Schriftart aus der <code>name</code>-Tabelle ihrer Datei,
+	 * ohne die Schriftart zu erstellen. Bevorzugt wird wie bei <code>Font.getName()</code> der
+	 * englische Windows-Eintrag.
+	 *
+	 * @param datei
+	 * 		Die TrueType-Datei
+	 *
+	 * @return Der Name oder <code>null</code>, falls die Datei keinen lesbaren Namen enthält
+	 */
+	private static String nameLesen (File datei) {
+		try (RandomAccessFile ttf = new RandomAccessFile(datei, "r")) {
+			ttf.seek(4);
+			int tabellen = ttf.readUnsignedShort();
+			long tabelle = -1;
+
+			ttf.seek(12);
+
+			for (int i = 0; i < tabellen; i++) {
+				int kennung = ttf.readInt();
+				ttf.skipBytes(4);
+				long offset = ttf.readInt() & 0xFFFFFFFFL;
+				ttf.skipBytes(4);
+
+				if (kennung == NAME_TABELLE) {
+					tabelle = offset;
+					break;
+				}
+			}
+
+			if (tabelle < 0) {
+				return null;
+			}
+
+			ttf.seek(tabelle + 2);
+			int anzahl = ttf.readUnsignedShort();
+			long texte = tabelle + ttf.readUnsignedShort();
+
+			String name = null;
+			int besterRang = 0;
+
+			for (int i = 0; i < anzahl; i++) {
+				ttf.seek(tabelle + 6 + 12L * i);
+
+				int plattform = ttf.readUnsignedShort();
+				ttf.skipBytes(2);
+				int sprache = ttf.readUnsignedShort();
+				int nummer = ttf.readUnsignedShort();
+				int laenge = ttf.readUnsignedShort();
+				int offset = ttf.readUnsignedShort();
+
+				if (nummer != VOLLER_NAME) {
+					continue;
+				}
+
+				int rang;
+
+				if (plattform == 3) {
+					rang = sprache == 0x409 ? 4 : 3;
+				} else if (plattform == 0) {
+					rang = 2;
+				} else if (plattform == 1 && sprache == 0) {
+					rang = 1;
+				} else {
+					continue;
+				}
+
+				if (rang <= besterRang) {
+					continue;
+				}
+
+				byte[] text = new byte[laenge];
+				ttf.seek(texte + offset);
+				ttf.readFully(text);
+
+				// Windows und Unicode speichern UTF-16, Macintosh ein Byte pro Zeichen
+				name = new String(text, plattform == 1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_16BE);
+				besterRang = rang;
+			}
+
+			return name;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Durchsucht ein Verzeichnis und aktualisiert den Index. Dateien, die seit dem letzten
+	 * Speichern des Index unverändert sind, werden nicht geöffnet. Von neuen Dateien wird nur der
+	 * Name gelesen, die Schriftart selbst wird erst bei Bedarf erstellt.
+	 */
+	private static void durchsuchen (File verzeichnis) {
+		ArrayList<File> dateien = new ArrayList<>();
+		dateienSuchen(dateien, verzeichnis);
+
+		Map<File, Eintrag> bekannt = new HashMap<>();
+
+		for (Eintrag eintrag : index.values()) {
+			bekannt.put(eintrag.datei, eintrag);
+		}
+
+		boolean geaendert = false;
+
+		for (File datei : dateien) {
+			Eintrag eintrag = bekannt.get(datei);
+
+			if (eintrag != null && eintrag.aktuell()) {
+				continue;
+			}
+
+			String name = nameLesen(datei);
+
+			if (name == null) {
+				Logger.error("Das TrueType-Font-Format einer Datei (" + datei.getPath() + ") war nicht einlesbar!");
+				continue;
+			}
+
+			index.put(name, new Eintrag(name, datei, datei.lastModified(), datei.length()));
+			geaendert = true;
+		}
+
+		// Gelöschte Dateien aus diesem Verzeichnis entfernen
+		String pfad = verzeichnis.getPath() + File.separator;
+
+		for (Eintrag eintrag : index.values()) {
+			if (eintrag.datei.getPath().startsWith(pfad) && !eintrag.datei.isFile()) {
+				index.remove(eintrag.name);
+				geaendert = true;
+			}
+		}
+
+		if (geaendert) {
+			indexSchreiben();
+		}
+	}
+
+	private static void dateienSuchen (final ArrayList<File> liste, File akt) {
+		File[] files = akt.listFiles();
+
+		if (files != null) {
+			for (File file : files) {
+				if (file.isDirectory()) {
+					dateienSuchen(liste, file);
+				} else if (file.getName().toLowerCase().endsWith(".ttf")) {
+					liste.add(file.getAbsoluteFile());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Liest den gespeicherten Index. Einträge, deren Datei sich verändert hat, werden ignoriert.
+	 */
+	private static void indexLesen () {
+		File datei = indexDatei;
+
+		if (datei == null || !datei.isFile()) {
+			return;
+		}
+
+		try (BufferedReader reader = Files.newBufferedReader(datei.toPath(), StandardCharsets.UTF_8)) {
+			if (!KENNUNG.equals(reader.readLine())) {
+				return;
+			}
+
+			String zeile;
+
+			while ((zeile = reader.readLine()) != null) {
+				String[] teile = zeile.split("\t", 4);
+
+				if (teile.length != 4) {
+					continue;
+				}
+
+				Eintrag eintrag = new Eintrag(teile[0], new File(teile[3]), Long.parseLong(teile[1]), Long.parseLong(teile[2]));
+
+				if (eintrag.aktuell()) {
+					index.put(eintrag.name, eintrag);
+				}
+			}
+		} catch (IOException | NumberFormatException e) {
+			Logger.error("Der Schriftindex konnte nicht gelesen werden: " + datei.getPath());
+		}
+	}
+
+	/**
+	 * Speichert den Index, damit er beim nächsten Start nicht neu erstellt werden muss.
+	 */
+	private static synchronized void indexSchreiben () {
+		File datei = indexDatei;
+
+		if (datei == null) {
+			return;
+		}
+
+		try (BufferedWriter writer = Files.newBufferedWriter(datei.toPath(), StandardCharsets.UTF_8)) {
+			writer.write(KENNUNG);
+			writer.newLine();
+
+			for (Eintrag eintrag : index.values()) {
+				writer.write(eintrag.name + "\t" + eintrag.geaendert + "\t" + eintrag.groesse + "\t" + eintrag.datei.getPath());
+				writer.newLine();
+			}
+		} catch (IOException e) {
+			Logger.error("Der Schriftindex konnte nicht gespeichert werden: " + datei.getPath());
+		}
+	}
+}
@@ -63,9 +63,12 @@ public class MechanikClient extends PhysikClient implements Ticker {
 	
 	/**
 	 * Das Intervall, in dem die Spielmechanik upgedated wird <b>in Sekunden</b>. Wird benutzt für
-	 * die Extrapolation. Orientiert sich an der <b>Update-Geschwindigkeit</b> der Zeichenebene
+	 * die Extrapolation. Orientiert sich an der <b>Update-Geschwindigkeit</b> der Zeichenebene.
+	 * Die Physik läuft mit diesem festen Zeitschritt auf ihrem eigenen Timer, unabhängig von der
+	 * Framerate des Zeichners.
 	 *
 	 * @see ea.internal.gra.Zeichner#UPDATE_INTERVALL
+	 * @see ea.internal.gra.Taktgeber#delta()
 	 */
 	static final float DELTA_T = (float) ea.internal.gra.Zeichner.UPDATE_INTERVALL * 0.001f;
 
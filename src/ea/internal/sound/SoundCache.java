@@ -0,0 +1,81 @@
+/*
+ * Engine Alpha ist eine anfängerorientierte 2D-Gaming Engine.
+ *
+ * Copyright (c) 2011 - 2014 Michael Andonie and contributors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ea.internal.sound;
+
+import ea.internal.util.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hält die Rohdaten bereits gelesener Sounddateien, damit diese nicht bei jedem neuen
+ * <code>Sound</code> erneut gelesen werden.<br /> Die Daten werden weich referenziert und bei
+ * Speichermangel verworfen.
+ */
+public class SoundCache {
+	/**
+	 * Die Rohdaten, nach absolutem Pfad.
+	 */
+	private static final Map<String, SoftReference<byte[]>> daten = new HashMap<>();
+
+	private SoundCache () {
+		// keine Objekte erlaubt!
+	}
+
+	/**
+	 * Gibt die Rohdaten einer Sounddatei aus und liest diese, falls sie nicht im Cache liegen.<br
+	 * /> Die Daten werden geteilt und dürfen nicht verändert werden.
+	 *
+	 * @param datei
+	 * 		Der Pfad der Sounddatei
+	 *
+	 * @return Die Rohdaten oder <code>null</code>, falls die Datei nicht gelesen werden konnte.
+	 */
+	public static byte[] holen (String datei) {
+		String schluessel = new File(datei).getAbsolutePath();
+
+		synchronized (daten) {
+			SoftReference<byte[]> ref = daten.get(schluessel);
+
+			if (ref != null && ref.get() != null) {
+				return ref.get();
+			}
+		}
+
+		byte[] gelesen;
+
+		try {
+			gelesen = Files.readAllBytes(new File(schluessel).toPath());
+		} catch (IOException e) {
+			Logger.error("Die Sounddatei konnte nicht gelesen werden: " + datei);
+			return null;
+		}
+
+		synchronized (daten) {
+			daten.put(schluessel, new SoftReference<>(gelesen));
+		}
+
+		return gelesen;
+	}
+}
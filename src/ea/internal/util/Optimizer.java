@@ -34,7 +34,9 @@ public class Optimizer {
 	}
 
 	/**
-	 * Optimiert ein Bild für das Rendering, abhänig vom Bildschirm des Anwenders.
+	 * Optimiert ein Bild für das Rendering, abhänig vom Bildschirm des Anwenders.<br /> Läuft die
+	 * Engine ohne Bildschirm (<code>java.awt.headless=true</code>), wird das Bild stattdessen in
+	 * ein Standard-RGB-Format umgewandelt.
 	 *
 	 * @param img
 	 * 		Bild, das optimiert werden soll
@@ -42,8 +44,17 @@ public class Optimizer {
 	 * @return optimiertes Bild
 	 */
 	public static BufferedImage toCompatibleImage (BufferedImage img) {
-		GraphicsEnvironment env = GraphicsEnvironment.getLocalGraphicsEnvironment();
-		GraphicsConfiguration gc = env.getDefaultScreenDevice().getDefaultConfiguration();
+		if (GraphicsEnvironment.isHeadless()) {
+			int typ = headlessTyp(img.getTransparency());
+
+			if (img.getType() == typ) {
+				return img;
+			}
+
+			return umwandeln(img, new BufferedImage(img.getWidth(), img.getHeight(), typ));
+		}
+
+		GraphicsConfiguration gc = konfiguration();
 
 		ColorModel a = img.getColorModel();
 		ColorModel b = gc.getColorModel(a.getTransparency());
@@ -52,12 +63,67 @@ public class Optimizer {
 			return img;
 		}
 
-		BufferedImage compat = gc.createCompatibleImage(img.getWidth(), img.getHeight(), img.getTransparency());
+		return umwandeln(img, gc.createCompatibleImage(img.getWidth(), img.getHeight(), img.getTransparency()));
+	}
+
+	/**
+	 * Erstellt ein leeres, für das Rendering optimiertes Bild.<br /> Funktioniert auch ohne
+	 * Bildschirm (<code>java.awt.headless=true</code>).
+	 *
+	 * @param breite
+	 * 		Breite des Bildes in Pixeln
+	 * @param hoehe
+	 * 		Höhe des Bildes in Pixeln
+	 * @param transparenz
+	 * 		Transparenz-Modus, siehe {@link java.awt.Transparency}
+	 *
+	 * @return neues, leeres Bild
+	 */
+	public static BufferedImage createCompatibleImage (int breite, int hoehe, int transparenz) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return new BufferedImage(breite, hoehe, headlessTyp(transparenz));
+		}
+
+		return konfiguration().createCompatibleImage(breite, hoehe, transparenz);
+	}
+
+	/**
+	 * Skaliert ein Bild bilinear auf eine neue Größe.
+	 *
+	 * @param img
+	 * 		Das zu skalierende Bild
+	 * @param breite
+	 * 		Die neue Breite in Pixeln
+	 * @param hoehe
+	 * 		Die neue Höhe in Pixeln
+	 *
+	 * @return neues, skaliertes Bild
+	 */
+	public static BufferedImage skalieren (BufferedImage img, int breite, int hoehe) {
+		BufferedImage ziel = createCompatibleImage(breite, hoehe, img.getTransparency());
+		Graphics2D g = ziel.createGraphics();
+
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(img, 0, 0, breite, hoehe, 0, 0, img.getWidth(), img.getHeight(), null);
+		g.dispose();
+
+		return ziel;
+	}
+
+	private static GraphicsConfiguration konfiguration () {
+		GraphicsEnvironment env = GraphicsEnvironment.getLocalGraphicsEnvironment();
+		return env.getDefaultScreenDevice().getDefaultConfiguration();
+	}
+
+	private static int headlessTyp (int transparenz) {
+		return transparenz == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+	}
 
-		Graphics2D g = (Graphics2D) compat.getGraphics();
-		g.drawImage(img, 0, 0, null);
+	private static BufferedImage umwandeln (BufferedImage quelle, BufferedImage ziel) {
+		Graphics2D g = (Graphics2D) ziel.getGraphics();
+		g.drawImage(quelle, 0, 0, null);
 		g.dispose();
 
-		return compat;
+		return ziel;
 	}
 }